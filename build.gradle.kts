@@ -8,7 +8,7 @@ plugins {
 }
 
 application {
-    mainClassName = "$moduleName/com.github.cc3002.finalreality.gui.FinalReality"
+    mainClassName = "$moduleName/com.github.ylinker.finalreality.gui.FinalReality"
 }
 
 group = "com.github.cc3002"
@@ -18,6 +18,19 @@ repositories {
     mavenCentral()
 }
 
+val jmhVersion = "1.23"
+
+sourceSets {
+    create("jmh") {
+        compileClasspath += sourceSets["main"].output
+        runtimeClasspath += sourceSets["main"].output
+    }
+}
+
+val jmhImplementation by configurations.getting {
+    extendsFrom(configurations["implementation"])
+}
+
 dependencies {
     implementation(group = "org.openjfx", name = "javafx", version = "14-ea+6", ext = "pom")
     implementation("org.jetbrains:annotations:19.0.0")
@@ -25,6 +38,8 @@ dependencies {
             version = "5.1.0")
     testRuntimeOnly(group = "org.junit.jupiter", name = "junit-jupiter-engine",
             version = "5.1.0")
+    jmhImplementation("org.openjdk.jmh:jmh-core:$jmhVersion")
+    "jmhAnnotationProcessor"("org.openjdk.jmh:jmh-generator-annprocess:$jmhVersion")
 }
 
 javafx {
@@ -38,4 +53,21 @@ configure<JavaPluginConvention> {
 
 tasks.named<Test>("test") {
     useJUnitPlatform()
-}
\ No newline at end of file
+}
+
+tasks.register<JavaExec>("jmh") {
+    group = "verification"
+    description = "Runs the JMH benchmarks, reporting time and allocation rate. " +
+            "Use -PjmhInclude=<regex> to run only some of them."
+    classpath = sourceSets["jmh"].runtimeClasspath
+    main = "org.openjdk.jmh.Main"
+    val resultsFile = file("$buildDir/reports/jmh/results.json")
+    doFirst {
+        resultsFile.parentFile.mkdirs()
+    }
+    args(listOfNotNull(
+            project.findProperty("jmhInclude")?.toString(),
+            "-prof", "gc",
+            "-rf", "json",
+            "-rff", resultsFile.absolutePath))
+}
@@ -0,0 +1,85 @@
+package com.github.ylinker.finalreality.controller;
+
+import com.github.ylinker.finalreality.controller.scheduler.VirtualTurnScheduler;
+import com.github.ylinker.finalreality.model.character.IPlayerCharacter;
+import com.github.ylinker.finalreality.model.weapon.IWeapon;
+import com.github.ylinker.finalreality.model.weapon.Sword;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @author Yuval Linker
+ *
+ * Benchmarks for equipping weapons from the controller's inventory.
+ * The weapons being swapped are created last, which was the worst case when the inventory was a list.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ControllerEquipBenchmark {
+    @Param({"10", "1000", "100000"})
+    public int inventorySize;
+
+    private GameController controller;
+    private IPlayerCharacter knight;
+    private IWeapon firstSword;
+    private IWeapon secondSword;
+    private IWeapon missingSword;
+
+    @Setup
+    public void setUp() {
+        controller = new GameController(new VirtualTurnScheduler());
+        controller.createKnight("knight", 100, 10, 10);
+        knight = controller.getCharacters().get(0);
+        for (int i = 0; i < inventorySize - 2; i++) {
+            controller.createBow("bow " + i, 10, 10);
+        }
+        controller.createSword("first sword", 10, 10);
+        controller.createSword("second sword", 15, 10);
+        firstSword = controller.getInventory().get(inventorySize - 2);
+        secondSword = controller.getInventory().get(inventorySize - 1);
+        missingSword = new Sword("missing sword", 10, 10);
+        controller.equip(knight, secondSword);
+    }
+
+    /**
+     * Swaps the knight's sword with the one in the inventory
+     */
+    @Benchmark
+    public IWeapon swapWeapon() {
+        IWeapon next = knight.getEquippedWeapon() == firstSword ? secondSword : firstSword;
+        controller.equip(knight, next);
+        return knight.getEquippedWeapon();
+    }
+
+    /**
+     * Tries to equip a weapon that isn't in the inventory
+     */
+    @Benchmark
+    public IWeapon equipMissingWeapon() {
+        controller.equip(knight, missingSword);
+        return knight.getEquippedWeapon();
+    }
+
+    /**
+     * Finds every slot of the inventory with a weapon the knight can equip, in one pass
+     */
+    @Benchmark
+    public int[] equippableSlots() {
+        return controller.getEquippableSlots(knight);
+    }
+}
@@ -0,0 +1,62 @@
+package com.github.ylinker.finalreality.controller;
+
+import com.github.ylinker.finalreality.controller.scheduler.VirtualTurnScheduler;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @author Yuval Linker
+ *
+ * Benchmark of finding the best weapons for a party of 5 characters, one of every class,
+ * from an inventory with weapons of every class and random stats.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EquipmentSolverBenchmark {
+    @Param({"100", "10000"})
+    public int inventorySize;
+
+    private EquipmentSolver solver;
+
+    @Setup
+    public void setUp() {
+        GameController controller = new GameController(new VirtualTurnScheduler(), new BattleRandom(0));
+        BattleRandom random = controller.getRandom();
+        controller.createKnight("knight", 100, 10, 10);
+        controller.createThief("thief", 100, 10, 10);
+        controller.createEngineer("engineer", 100, 10, 10);
+        controller.createWhiteMage("white mage", 100, 10, 10, 50);
+        controller.createBlackMage("black mage", 100, 10, 10, 50);
+        for (int i = 0; i < 5; i++) {
+            controller.createEnemy("enemy " + i, 100, 10, random.nextInt(0, 20), 10);
+        }
+        for (int i = 0; i < inventorySize; i += 5) {
+            controller.createAxe("axe " + i, random.nextInt(1, 40), random.nextInt(0, 40));
+            controller.createBow("bow " + i, random.nextInt(1, 40), random.nextInt(0, 40));
+            controller.createKnife("knife " + i, random.nextInt(1, 40), random.nextInt(0, 40));
+            controller.createSword("sword " + i, random.nextInt(1, 40), random.nextInt(0, 40));
+            controller.createStaff("staff " + i, random.nextInt(1, 40), random.nextInt(0, 40), 10);
+        }
+        solver = new EquipmentSolver(controller);
+    }
+
+    @Benchmark
+    public EquipmentSolver.Assignment solve() {
+        return solver.solve();
+    }
+}
@@ -0,0 +1,98 @@
+package com.github.ylinker.finalreality.controller;
+
+import com.github.ylinker.finalreality.controller.scheduler.VirtualTurnScheduler;
+import com.github.ylinker.finalreality.model.character.IPlayerCharacter;
+import com.github.ylinker.finalreality.simulator.HeadlessScene;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @author Yuval Linker
+ *
+ * Benchmarks of taking and restoring snapshots of a 10 vs 10 battle in the middle of a turn,
+ * with equipped weapons, an inventory and characters both queued and waiting.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SnapshotBenchmark {
+    private GameController controller;
+    private BattleSnapshot snapshot;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        controller = new GameController(new VirtualTurnScheduler());
+        controller.setScene(new HeadlessScene());
+        for (int i = 0; i < 2; i++) {
+            controller.createKnight("knight " + i, 1000, 11, 10);
+            controller.createThief("thief " + i, 1000, 11, 10);
+            controller.createEngineer("engineer " + i, 1000, 11, 10);
+            controller.createWhiteMage("white mage " + i, 1000, 11, 10, 50);
+            controller.createBlackMage("black mage " + i, 1000, 11, 10, 50);
+            controller.createSword("sword " + i, 10, 10);
+            controller.createKnife("knife " + i, 10, 10);
+            controller.createAxe("axe " + i, 10, 10);
+            controller.createStaff("staff " + i, 10, 10, 10);
+            controller.createStaff("wand " + i, 10, 10, 10);
+            controller.createBow("bow " + i, 10, 10);
+        }
+        for (int i = 0; i < 10; i++) {
+            controller.createEnemy("enemy " + i, 1000, 11, 10, 10 + i);
+        }
+        List<IPlayerCharacter> characters = controller.getCharacters();
+        for (int i = 0; i < characters.size(); i++) {
+            controller.equip(characters.get(i), controller.getInventory().get(i % 2));
+        }
+        controller.initTurns();
+        // Some characters play so there are characters waiting for their turn
+        for (int i = 0; i < 8; i++) {
+            if (controller.getCurrentTurnCharacter() instanceof IPlayerCharacter) {
+                controller.toAttackPhase();
+                controller.tryToAttack(controller.getEnemies().get(i));
+            } else {
+                controller.tryToAttack(controller.getCharacters().get(i));
+            }
+            controller.toBeginTurnPhase();
+        }
+        snapshot = controller.snapshot();
+    }
+
+    /**
+     * Takes a snapshot of the battle
+     */
+    @Benchmark
+    public BattleSnapshot snapshot() {
+        return controller.snapshot();
+    }
+
+    /**
+     * Restores the battle as a new controller
+     */
+    @Benchmark
+    public GameController restore() {
+        return snapshot.restore(new VirtualTurnScheduler());
+    }
+
+    /**
+     * Forks the battle, like a search trying a move from a checkpoint
+     */
+    @Benchmark
+    public GameController fork() {
+        return controller.snapshot().restore(new VirtualTurnScheduler());
+    }
+}
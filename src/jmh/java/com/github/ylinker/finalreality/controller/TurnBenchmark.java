@@ -0,0 +1,148 @@
+package com.github.ylinker.finalreality.controller;
+
+import com.github.ylinker.finalreality.controller.replay.ReplayLog;
+import com.github.ylinker.finalreality.controller.scheduler.VirtualTurnScheduler;
+import com.github.ylinker.finalreality.model.character.Enemy;
+import com.github.ylinker.finalreality.model.character.IPlayerCharacter;
+import com.github.ylinker.finalreality.simulator.BattleSimulator;
+import com.github.ylinker.finalreality.simulator.BattleSpec;
+import com.github.ylinker.finalreality.simulator.HeadlessScene;
+import com.github.ylinker.finalreality.simulator.SimulationResult;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @author Yuval Linker
+ *
+ * End to end benchmarks of the turns: attacking through the phases,
+ * letting the turn scheduler bring the next character and starting its turn.
+ * The controller runs on a virtual clock so no time is spent waiting for delays.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TurnBenchmark {
+    private GameController controller;
+    private Enemy enemy;
+    private GameController unmeasuredController;
+    private Enemy unmeasuredEnemy;
+    private GameController recordedController;
+    private Enemy recordedEnemy;
+    private Path replayFile;
+    private ReplayLog replayLog;
+    private BattleSimulator simulator;
+    private long seed;
+
+    @Setup(Level.Iteration)
+    public void setUp() throws IOException {
+        controller = createController();
+        enemy = controller.getEnemies().get(0);
+        controller.initTurns();
+
+        unmeasuredController = createController();
+        unmeasuredController.setMetrics(null);
+        unmeasuredEnemy = unmeasuredController.getEnemies().get(0);
+        unmeasuredController.initTurns();
+
+        replayFile = Files.createTempFile("turn-benchmark", ".replay");
+        replayLog = new ReplayLog(replayFile);
+        recordedController = new GameController(new VirtualTurnScheduler());
+        recordedController.setRecorder(replayLog);
+        createCharacters(recordedController);
+        recordedEnemy = recordedController.getEnemies().get(0);
+        recordedController.initTurns();
+
+        simulator = new BattleSimulator(new BattleSpec()
+                .addKnight("knight", 60, 15, 5)
+                .addThief("thief", 40, 12, 4)
+                .addSword("sword", 10, 10)
+                .addEnemy("goblin", 40, 14, 4, 15)
+                .addEnemy("orc", 50, 16, 5, 25));
+        seed = 0;
+    }
+
+    @TearDown(Level.Iteration)
+    public void tearDown() throws IOException {
+        replayLog.close();
+        Files.deleteIfExists(replayFile);
+    }
+
+    private static GameController createController() {
+        GameController controller = new GameController(new VirtualTurnScheduler());
+        createCharacters(controller);
+        return controller;
+    }
+
+    private static void createCharacters(GameController controller) {
+        controller.setScene(new HeadlessScene());
+        // Every attack does 1 damage, so nobody dies during an iteration
+        controller.createKnight("knight", Integer.MAX_VALUE, 11, 10);
+        controller.createThief("thief", Integer.MAX_VALUE, 11, 10);
+        controller.createEnemy("enemy", Integer.MAX_VALUE, 11, 10, 10);
+    }
+
+    /**
+     * Plays the current character's turn with tryToAttack and begins the next one
+     */
+    @Benchmark
+    public int playTurn() {
+        return playTurn(controller, enemy);
+    }
+
+    /**
+     * Plays a turn like {@link #playTurn()} on a controller that doesn't record any metrics,
+     * to compare with the cost of recording them
+     */
+    @Benchmark
+    public int playTurnWithoutMetrics() {
+        return playTurn(unmeasuredController, unmeasuredEnemy);
+    }
+
+    /**
+     * Plays a turn like {@link #playTurn()} on a controller that writes a replay log
+     */
+    @Benchmark
+    public int playRecordedTurn() {
+        return playTurn(recordedController, recordedEnemy);
+    }
+
+    private static int playTurn(GameController controller, Enemy enemy) {
+        int damage;
+        if (controller.getCurrentTurnCharacter() instanceof IPlayerCharacter) {
+            controller.toAttackPhase();
+            damage = controller.tryToAttack(enemy);
+        } else {
+            damage = controller.tryToAttack(controller.chooseRandomTarget());
+        }
+        controller.toBeginTurnPhase();
+        return damage;
+    }
+
+    /**
+     * Plays a whole battle, from creating the controller until one side wins
+     */
+    @Benchmark
+    public SimulationResult playBattle() {
+        SimulationResult result = new SimulationResult();
+        simulator.runBattle(seed++, result);
+        return result;
+    }
+}
@@ -0,0 +1,100 @@
+package com.github.ylinker.finalreality.controller.phase;
+
+import com.github.ylinker.finalreality.controller.GameController;
+import com.github.ylinker.finalreality.controller.phase.exceptions.InvalidTransitionException;
+import com.github.ylinker.finalreality.controller.scheduler.VirtualTurnScheduler;
+import com.github.ylinker.finalreality.model.character.IPlayerCharacter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @author Yuval Linker
+ *
+ * Benchmarks for moving through the turn phases with the controller.
+ * The turn queue is empty, so beginning a turn doesn't start any character's turn.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PhaseTransitionBenchmark {
+    private GameController controller;
+
+    @Setup
+    public void setUp() {
+        controller = new GameController(new VirtualTurnScheduler(false));
+        controller.createKnight("knight", 100, 10, 10);
+        controller.createSword("sword", 10, 10);
+        controller.createKnife("knife", 5, 10);
+        IPlayerCharacter knight = controller.getCharacters().get(0);
+        controller.setPhase(new SelectActionPhase());
+        controller.setPhaseCharacter(knight);
+    }
+
+    /**
+     * Goes to the equip and attack phases and back to the action phase
+     */
+    @Benchmark
+    public TurnState chooseActionCycle() {
+        controller.toEquipPhase();
+        controller.goBack();
+        controller.toAttackPhase();
+        controller.goBack();
+        return controller.getState();
+    }
+
+    /**
+     * Goes to the equip phase and equips the weapon that's in the inventory
+     */
+    @Benchmark
+    public TurnState equipCycle() {
+        controller.toEquipPhase();
+        controller.tryToEquip(controller.getInventory().get(0));
+        return controller.getState();
+    }
+
+    /**
+     * Tries a transition that isn't valid from the action phase
+     */
+    @Benchmark
+    public TurnState invalidTransition() {
+        controller.goBack();
+        return controller.getState();
+    }
+
+    /**
+     * Tries a transition that isn't valid through the exception based phase API
+     */
+    @Benchmark
+    public TurnState invalidTransitionWithException() {
+        try {
+            controller.getPhase().goBack();
+        } catch (InvalidTransitionException e) {
+            return null;
+        }
+        return controller.getState();
+    }
+
+    /**
+     * Goes through every phase of a turn without attacking, from the begin turn phase back to it
+     */
+    @Benchmark
+    public TurnState fullTurnCycle() {
+        controller.toBeginTurnPhase();
+        controller.toActionPhase();
+        controller.toAttackPhase();
+        return controller.getState();
+    }
+}
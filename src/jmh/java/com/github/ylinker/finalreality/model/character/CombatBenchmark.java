@@ -0,0 +1,61 @@
+package com.github.ylinker.finalreality.model.character;
+
+import com.github.ylinker.finalreality.model.character.player.common.Knight;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @author Yuval Linker
+ *
+ * Benchmarks for the attack and defend methods of the characters.
+ * The attacked characters have enough health to never die during an iteration.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CombatBenchmark {
+    private Knight knight;
+    private Enemy enemy;
+    private Enemy armoredEnemy;
+
+    @Setup(Level.Iteration)
+    public void setUp() {
+        knight = new Knight("knight", Integer.MAX_VALUE, 20, 10);
+        enemy = new Enemy("enemy", Integer.MAX_VALUE, 20, 10, 10);
+        armoredEnemy = new Enemy("armored", Integer.MAX_VALUE, 20, 100, 10);
+    }
+
+    @Benchmark
+    public int playerAttacksEnemy() {
+        return knight.attack(enemy);
+    }
+
+    @Benchmark
+    public int enemyAttacksPlayer() {
+        return enemy.attack(knight);
+    }
+
+    @Benchmark
+    public int defend() {
+        return enemy.defend(11);
+    }
+
+    @Benchmark
+    public int defendWithoutDamage() {
+        return armoredEnemy.defend(11);
+    }
+}
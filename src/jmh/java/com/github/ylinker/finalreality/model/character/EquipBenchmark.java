@@ -0,0 +1,115 @@
+package com.github.ylinker.finalreality.model.character;
+
+import com.github.ylinker.finalreality.model.character.player.common.Engineer;
+import com.github.ylinker.finalreality.model.character.player.common.Knight;
+import com.github.ylinker.finalreality.model.character.player.common.Thief;
+import com.github.ylinker.finalreality.model.character.player.mage.BlackMage;
+import com.github.ylinker.finalreality.model.character.player.mage.WhiteMage;
+import com.github.ylinker.finalreality.model.weapon.Axe;
+import com.github.ylinker.finalreality.model.weapon.Bow;
+import com.github.ylinker.finalreality.model.weapon.IWeapon;
+import com.github.ylinker.finalreality.model.weapon.Knife;
+import com.github.ylinker.finalreality.model.weapon.Staff;
+import com.github.ylinker.finalreality.model.weapon.Sword;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @author Yuval Linker
+ *
+ * Benchmarks for equipping a weapon to every class of player character.
+ * Each class is measured with a weapon it can hold and with one it can't.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EquipBenchmark {
+    private Knight knight;
+    private Thief thief;
+    private Engineer engineer;
+    private BlackMage blackMage;
+    private WhiteMage whiteMage;
+
+    private IWeapon axe;
+    private IWeapon bow;
+    private IWeapon knife;
+    private IWeapon staff;
+    private IWeapon sword;
+
+    @Setup
+    public void setUp() {
+        knight = new Knight("knight", 100, 10, 10);
+        thief = new Thief("thief", 100, 10, 10);
+        engineer = new Engineer("engineer", 100, 10, 10);
+        blackMage = new BlackMage("blackMage", 100, 10, 10, 50);
+        whiteMage = new WhiteMage("whiteMage", 100, 10, 10, 50);
+        axe = new Axe("axe", 10, 10);
+        bow = new Bow("bow", 10, 10);
+        knife = new Knife("knife", 10, 10);
+        staff = new Staff("staff", 10, 10, 10);
+        sword = new Sword("sword", 10, 10);
+    }
+
+    @Benchmark
+    public boolean knightEquip() {
+        return knight.equip(sword);
+    }
+
+    @Benchmark
+    public boolean knightEquipInvalid() {
+        return knight.equip(staff);
+    }
+
+    @Benchmark
+    public boolean thiefEquip() {
+        return thief.equip(bow);
+    }
+
+    @Benchmark
+    public boolean thiefEquipInvalid() {
+        return thief.equip(axe);
+    }
+
+    @Benchmark
+    public boolean engineerEquip() {
+        return engineer.equip(axe);
+    }
+
+    @Benchmark
+    public boolean engineerEquipInvalid() {
+        return engineer.equip(knife);
+    }
+
+    @Benchmark
+    public boolean blackMageEquip() {
+        return blackMage.equip(staff);
+    }
+
+    @Benchmark
+    public boolean blackMageEquipInvalid() {
+        return blackMage.equip(sword);
+    }
+
+    @Benchmark
+    public boolean whiteMageEquip() {
+        return whiteMage.equip(staff);
+    }
+
+    @Benchmark
+    public boolean whiteMageEquipInvalid() {
+        return whiteMage.equip(bow);
+    }
+}
@@ -0,0 +1,84 @@
+package com.github.ylinker.finalreality.simulator;
+
+import com.github.ylinker.finalreality.model.character.Enemy;
+import com.github.ylinker.finalreality.model.character.ICharacter;
+import com.github.ylinker.finalreality.model.character.player.common.Knight;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @author Yuval Linker
+ *
+ * Compares a batch of attacks between thousands of units done with the character objects
+ * and with the {@link CombatKernel}. Both do the same attacks on units with the same stats.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CombatKernelBenchmark {
+    @Param({"1000", "10000"})
+    public int units;
+
+    private ICharacter[] characters;
+    private CombatKernel kernel;
+    private int[] attackers;
+    private int[] defenders;
+
+    @Setup(Level.Trial)
+    public void setUpAttacks() {
+        Random random = new Random(0);
+        attackers = new int[units];
+        defenders = new int[units];
+        for (int i = 0; i < units; i++) {
+            attackers[i] = random.nextInt(units);
+            defenders[i] = random.nextInt(units);
+        }
+    }
+
+    @Setup(Level.Iteration)
+    public void setUpUnits() {
+        Random random = new Random(1);
+        characters = new ICharacter[units];
+        kernel = new CombatKernel(units);
+        for (int i = 0; i < units; i++) {
+            // Health is high enough for every unit to survive an iteration
+            int health = Integer.MAX_VALUE;
+            int attack = random.nextInt(30) + 10;
+            int defense = random.nextInt(10);
+            characters[i] = i % 2 == 0 ?
+                    new Knight("knight " + i, health, attack, defense) :
+                    new Enemy("enemy " + i, health, attack, defense, 10);
+            kernel.add(health, attack, defense, characters[i].getWeight());
+        }
+    }
+
+    @Benchmark
+    public long objects() {
+        long total = 0;
+        for (int i = 0; i < units; i++) {
+            total += characters[attackers[i]].attack(characters[defenders[i]]);
+        }
+        return total;
+    }
+
+    @Benchmark
+    public long kernel() {
+        return kernel.attackAll(attackers, defenders, units, null);
+    }
+}
@@ -0,0 +1,104 @@
+package com.github.ylinker.finalreality.controller;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * @author Yuval Linker
+ *
+ * The source of every random decision of a battle: the enemies' targets, the starting
+ * order of the turns and the random stats of the created characters and weapons.
+ * The same seed and the same commands always give the same battle.
+ *
+ * It isn't thread safe. A controller only uses it while holding its lock, and parallel
+ * simulations give every worker its own generator with {@link #split()}.
+ */
+public class BattleRandom {
+    private final long seed;
+    private final SplittableRandom random;
+
+    /**
+     * Creates a generator with a random seed
+     */
+    public BattleRandom() {
+        this(new SplittableRandom().nextLong());
+    }
+
+    /**
+     * Creates a generator that always gives the same numbers for the same seed
+     * @param seed
+     *      The seed of the generator
+     */
+    public BattleRandom(long seed) {
+        this.seed = seed;
+        this.random = new SplittableRandom(seed);
+    }
+
+    /**
+     * Gets the seed this generator was created with
+     * @return
+     *      The seed, to reproduce the battle
+     */
+    public long getSeed() {
+        return seed;
+    }
+
+    /**
+     * Gets a random int between 0 (inclusive) and a bound (exclusive)
+     * @param bound
+     *      The bound of the number, it has to be positive
+     * @return
+     *      A random int
+     */
+    public int nextInt(int bound) {
+        return random.nextInt(bound);
+    }
+
+    /**
+     * Gets a random int between an origin (inclusive) and a bound (exclusive)
+     * @param origin
+     *      The smallest number that can be returned
+     * @param bound
+     *      The bound of the number, it has to be greater than the origin
+     * @return
+     *      A random int
+     */
+    public int nextInt(int origin, int bound) {
+        return random.nextInt(origin, bound);
+    }
+
+    /**
+     * Gets a random boolean
+     * @return
+     *      true or false with the same probability
+     */
+    public boolean nextBoolean() {
+        return random.nextBoolean();
+    }
+
+    /**
+     * Shuffles a list in place with a Fisher-Yates shuffle
+     * @param list
+     *      The list to shuffle
+     */
+    public <T> void shuffle(@NotNull List<T> list) {
+        for (int i = list.size() - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            list.set(j, list.set(i, list.get(j)));
+        }
+    }
+
+    /**
+     * Creates a new independent generator from this one. Splitting the same generator
+     * in the same order always gives the same generators, so a worker can split one
+     * for each battle it runs and still be deterministic without sharing it.
+     * The new generator has its own seed, so its battle can be reproduced on its own.
+     * @return
+     *      A new generator
+     */
+    public BattleRandom split() {
+        return new BattleRandom(random.nextLong());
+    }
+}
@@ -0,0 +1,129 @@
+package com.github.ylinker.finalreality.controller;
+
+import com.github.ylinker.finalreality.controller.phase.TurnState;
+import com.github.ylinker.finalreality.controller.scheduler.ITurnScheduler;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * @author Yuval Linker
+ *
+ * A copy of the whole state of a battle, taken with {@link GameController#snapshot()}.
+ * It can be restored as many times as needed, each time as a new independent controller,
+ * to go back to a checkpoint or to try different moves from the same point.
+ *
+ * Characters and weapons are kept as their stats in arrays, and referenced by their index in them.
+ * The player characters come first and the enemies after them.
+ * Queue and waiting times are kept relative to the moment of the snapshot, so they can be
+ * restored on any scheduler.
+ */
+public class BattleSnapshot {
+    static final int NONE = -1;
+
+    final int playerCount;
+    final String[] characterClasses;
+    final String[] characterNames;
+    final int[] health;
+    final int[] baseAttack;
+    final int[] defense;
+    /**
+     * The mana of mages and the weight of enemies
+     */
+    final int[] extra;
+    /**
+     * The index of the weapon equipped by every player character, or NONE
+     */
+    final int[] equipped;
+
+    final String[] weaponClasses;
+    final String[] weaponNames;
+    final int[] damage;
+    final int[] weight;
+    final int[] magicDamage;
+    final int[] inventory;
+
+    final int[] queue;
+    final long[] queueReadyTimes;
+    final int[] waiting;
+    final long[] waitingReadyTimes;
+
+    final TurnState phase;
+    final int phaseCharacter;
+    final int currentTurnCharacter;
+    final int lastAttackedCharacter;
+
+    BattleSnapshot(int playerCount, String[] characterClasses, String[] characterNames, int[] health,
+                   int[] baseAttack, int[] defense, int[] extra, int[] equipped,
+                   String[] weaponClasses, String[] weaponNames, int[] damage, int[] weight,
+                   int[] magicDamage, int[] inventory, int[] queue, long[] queueReadyTimes,
+                   int[] waiting, long[] waitingReadyTimes, TurnState phase, int phaseCharacter,
+                   int currentTurnCharacter, int lastAttackedCharacter) {
+        this.playerCount = playerCount;
+        this.characterClasses = characterClasses;
+        this.characterNames = characterNames;
+        this.health = health;
+        this.baseAttack = baseAttack;
+        this.defense = defense;
+        this.extra = extra;
+        this.equipped = equipped;
+        this.weaponClasses = weaponClasses;
+        this.weaponNames = weaponNames;
+        this.damage = damage;
+        this.weight = weight;
+        this.magicDamage = magicDamage;
+        this.inventory = inventory;
+        this.queue = queue;
+        this.queueReadyTimes = queueReadyTimes;
+        this.waiting = waiting;
+        this.waitingReadyTimes = waitingReadyTimes;
+        this.phase = phase;
+        this.phaseCharacter = phaseCharacter;
+        this.currentTurnCharacter = currentTurnCharacter;
+        this.lastAttackedCharacter = lastAttackedCharacter;
+    }
+
+    /**
+     * Creates a new controller in the state of this snapshot.
+     * The new controller has no view, it has to be set before playing.
+     * @param scheduler
+     *      The scheduler for the new controller
+     * @return
+     *      The restored controller
+     */
+    public GameController restore(@NotNull ITurnScheduler scheduler) {
+        return restore(scheduler, new BattleRandom());
+    }
+
+    /**
+     * Creates a new controller in the state of this snapshot, whose random decisions come from
+     * the given generator. Restoring with generators of the same seed gives the same battles.
+     * @param scheduler
+     *      The scheduler for the new controller
+     * @param random
+     *      The generator for the new controller
+     * @return
+     *      The restored controller
+     */
+    public GameController restore(@NotNull ITurnScheduler scheduler, @NotNull BattleRandom random) {
+        GameController controller = new GameController(scheduler, random);
+        controller.restore(this);
+        return controller;
+    }
+
+    /**
+     * Gets the amount of characters in the snapshot
+     * @return
+     *      The amount of player characters and enemies
+     */
+    public int getCharacterCount() {
+        return characterNames.length;
+    }
+
+    /**
+     * Gets the amount of weapons in the snapshot
+     * @return
+     *      The amount of equipped weapons and weapons in the inventory
+     */
+    public int getWeaponCount() {
+        return weaponNames.length;
+    }
+}
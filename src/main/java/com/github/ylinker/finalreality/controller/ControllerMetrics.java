@@ -0,0 +1,81 @@
+package com.github.ylinker.finalreality.controller;
+
+import com.github.ylinker.finalreality.controller.handler.CharacterEvent;
+import com.github.ylinker.finalreality.controller.phase.Transition;
+import com.github.ylinker.finalreality.metrics.LatencyHistogram;
+import com.github.ylinker.finalreality.metrics.MetricsRegistry;
+
+import java.util.Locale;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * The metrics a controller records, looked up once in a {@link MetricsRegistry}.
+ * Every name starts with "controller.":
+ *      turns, queued, attacks, equips: how many times each happened
+ *      phase.to_action, phase.go_back, ...: the phase transitions made
+ *      phase.invalid_transitions, invalid_actions: the transitions and actions refused
+ *      events.death, events.begin_turn: the events handled
+ *      turn.time, attack.time, equip.time: how long each took, in real time
+ *      queue.wait: how long the characters were in the queue before their turn, in the scheduler's time
+ *      handler.death.time, handler.begin_turn.time: how long the handlers took
+ * The counters count every operation, but reading the clock costs more than most operations, so only
+ * one of every SAMPLE_PERIOD operations of a controller is timed. Phase transitions are only counted.
+ *
+ * @author Yuval Linker
+ */
+final class ControllerMetrics {
+    /**
+     * One of every this many operations is timed. It's a power of two
+     */
+    static final int SAMPLE_PERIOD = 16;
+    private static final String PREFIX = "controller.";
+
+    private final MetricsRegistry registry;
+    final LongAdder turns;
+    final LongAdder queued;
+    final LongAdder attacks;
+    final LongAdder equips;
+    final LongAdder invalidTransitions;
+    final LongAdder invalidActions;
+    final LongAdder[] transitions = new LongAdder[Transition.values().length];
+    final LongAdder[] events = new LongAdder[CharacterEvent.values().length];
+    final LatencyHistogram turnTime;
+    final LatencyHistogram queueWait;
+    final LatencyHistogram attackTime;
+    final LatencyHistogram equipTime;
+    final LatencyHistogram[] handlerTimes = new LatencyHistogram[CharacterEvent.values().length];
+
+    /**
+     * Looks up the controller's metrics in a registry
+     * @param registry
+     *      The registry where the metrics are recorded
+     */
+    ControllerMetrics(MetricsRegistry registry) {
+        this.registry = registry;
+        turns = registry.getCounter(PREFIX + "turns");
+        queued = registry.getCounter(PREFIX + "queued");
+        attacks = registry.getCounter(PREFIX + "attacks");
+        equips = registry.getCounter(PREFIX + "equips");
+        invalidTransitions = registry.getCounter(PREFIX + "phase.invalid_transitions");
+        invalidActions = registry.getCounter(PREFIX + "invalid_actions");
+        for (Transition transition : Transition.values()) {
+            transitions[transition.ordinal()] = registry.getCounter(PREFIX + "phase." + nameOf(transition));
+        }
+        for (CharacterEvent event : CharacterEvent.values()) {
+            events[event.ordinal()] = registry.getCounter(PREFIX + "events." + nameOf(event));
+            handlerTimes[event.ordinal()] = registry.getHistogram(PREFIX + "handler." + nameOf(event) + ".time");
+        }
+        turnTime = registry.getHistogram(PREFIX + "turn.time");
+        queueWait = registry.getHistogram(PREFIX + "queue.wait");
+        attackTime = registry.getHistogram(PREFIX + "attack.time");
+        equipTime = registry.getHistogram(PREFIX + "equip.time");
+    }
+
+    MetricsRegistry getRegistry() {
+        return registry;
+    }
+
+    private static String nameOf(Enum<?> constant) {
+        return constant.name().toLowerCase(Locale.ROOT);
+    }
+}
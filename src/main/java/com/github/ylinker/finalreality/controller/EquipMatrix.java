@@ -0,0 +1,111 @@
+package com.github.ylinker.finalreality.controller;
+
+import com.github.ylinker.finalreality.model.weapon.*;
+
+/**
+ * Which classes of weapons every class of player character can equip, as one bitmask per character class.
+ * The table is filled once by asking a weapon of every class through the same double dispatch that
+ * the characters use to equip, so it always agrees with {@code equip}, but looking it up costs a shift.
+ *
+ * @author Yuval Linker
+ */
+public final class EquipMatrix {
+    /**
+     * The classes of player characters, in the order of the table
+     */
+    static final String[] CHARACTER_CLASSES = {"Engineer", "Knight", "Thief", "White Mage", "Black Mage"};
+    /**
+     * The classes of weapons, in the order of the bits of every mask
+     */
+    static final String[] WEAPON_CLASSES = {"Axe", "Bow", "Knife", "Sword", "Staff"};
+    /**
+     * The index of an unknown class, like the enemies'
+     */
+    static final int UNKNOWN = -1;
+
+    private static final int[] MASKS = new int[CHARACTER_CLASSES.length];
+
+    static {
+        IWeapon[] weapons = {
+                new Axe("", 0, 0), new Bow("", 0, 0), new Knife("", 0, 0),
+                new Sword("", 0, 0), new Staff("", 0, 0, 0)
+        };
+        for (int weapon = 0; weapon < weapons.length; weapon++) {
+            int bit = 1 << weapon;
+            if (weapons[weapon].equipToEngineer() != null) {
+                MASKS[0] |= bit;
+            }
+            if (weapons[weapon].equipToKnight() != null) {
+                MASKS[1] |= bit;
+            }
+            if (weapons[weapon].equipToThief() != null) {
+                MASKS[2] |= bit;
+            }
+            if (weapons[weapon].equipToWhiteMage() != null) {
+                MASKS[3] |= bit;
+            }
+            if (weapons[weapon].equipToBlackMage() != null) {
+                MASKS[4] |= bit;
+            }
+        }
+    }
+
+    private EquipMatrix() {
+    }
+
+    /**
+     * Gets the index of a class of player character in the table
+     * @param characterClass
+     *      The class, like "Knight"
+     * @return
+     *      The index, or UNKNOWN if it's not a class of player character
+     */
+    static int characterClassIndex(String characterClass) {
+        return indexOf(CHARACTER_CLASSES, characterClass);
+    }
+
+    /**
+     * Gets the index of a class of weapon, which is its bit in the masks
+     * @param weaponClass
+     *      The class, like "Sword"
+     * @return
+     *      The index, or UNKNOWN if it's not a class of weapon
+     */
+    static int weaponClassIndex(String weaponClass) {
+        return indexOf(WEAPON_CLASSES, weaponClass);
+    }
+
+    /**
+     * Gets the classes of weapons a class of character can equip
+     * @param characterClass
+     *      The index of the character's class
+     * @return
+     *      A mask with the bit of every weapon class it can equip set, 0 for unknown classes
+     */
+    static int mask(int characterClass) {
+        return characterClass == UNKNOWN ? 0 : MASKS[characterClass];
+    }
+
+    /**
+     * Checks if a class of character can equip a class of weapon
+     * @param characterClass
+     *      The character's class, like "Knight"
+     * @param weaponClass
+     *      The weapon's class, like "Sword"
+     * @return
+     *      true if every character of that class can equip every weapon of that class
+     */
+    public static boolean canEquip(String characterClass, String weaponClass) {
+        int weapon = weaponClassIndex(weaponClass);
+        return weapon != UNKNOWN && (mask(characterClassIndex(characterClass)) & (1 << weapon)) != 0;
+    }
+
+    private static int indexOf(String[] classes, String name) {
+        for (int i = 0; i < classes.length; i++) {
+            if (classes[i].equals(name)) {
+                return i;
+            }
+        }
+        return UNKNOWN;
+    }
+}
@@ -0,0 +1,340 @@
+package com.github.ylinker.finalreality.controller;
+
+import com.github.ylinker.finalreality.model.character.AbstractCharacter;
+import com.github.ylinker.finalreality.model.character.Enemy;
+import com.github.ylinker.finalreality.model.character.IPlayerCharacter;
+import com.github.ylinker.finalreality.model.weapon.IWeapon;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.*;
+
+/**
+ * Finds the weapons of the inventory that the player's characters should equip to deal the most
+ * expected damage per second of game time.
+ *
+ * A character with a weapon deals its base attack plus the weapon's damage, minus the defense of a random
+ * enemy, on every turn, and waits the delay of its weight with the weapon between turns, so a heavier
+ * weapon can be worse than a lighter one with less damage. Every character either keeps the weapon it has
+ * or takes one from the inventory, and every weapon goes to one character at most. That's a weighted
+ * matching between the characters and the weapons, solved with the Hungarian algorithm.
+ *
+ * Only the best weapons of every character can be part of the best assignment: if a character got a weapon
+ * outside its best n (n being the amount of characters), one of those n would be free to take instead. So the
+ * matching only looks at n weapons per character, and the work is a single pass over the inventory.
+ *
+ * @author Yuval Linker
+ */
+public final class EquipmentSolver {
+    // A cost that no real assignment reaches, for the pairs that can't be matched
+    private static final double FORBIDDEN = 1e12;
+
+    private final GameController controller;
+
+    /**
+     * Creates a solver for the characters and inventory of a controller
+     * @param controller
+     *      The controller
+     */
+    public EquipmentSolver(@NotNull GameController controller) {
+        this.controller = controller;
+    }
+
+    /**
+     * Finds the best assignment of the inventory's weapons for the current characters and enemies
+     * @return
+     *      The assignment, which isn't applied
+     */
+    public Assignment solve() {
+        synchronized (controller) {
+            return solve(controller.getCharacters(), controller.getEnemies());
+        }
+    }
+
+    /**
+     * Finds the best assignment and equips it in one batch
+     * @return
+     *      The assignment that was applied
+     */
+    public Assignment solveAndEquip() {
+        synchronized (controller) {
+            Assignment assignment = solve();
+            controller.equipAll(assignment.getChanges());
+            return assignment;
+        }
+    }
+
+    private Assignment solve(List<IPlayerCharacter> characters, List<Enemy> enemies) {
+        int n = characters.size();
+        DamageModel model = new DamageModel(enemies);
+        Map<String, List<IWeapon>> inventory = new HashMap<>();
+        for (String weaponClass : EquipMatrix.WEAPON_CLASSES) {
+            inventory.put(weaponClass, controller.getInventory(weaponClass));
+        }
+
+        // The best n weapons of every character, found in one pass over the weapons it can equip
+        double[] keepValues = new double[n];
+        List<IWeapon> candidates = new ArrayList<>();
+        Map<IWeapon, Integer> columns = new IdentityHashMap<>();
+        for (int i = 0; i < n; i++) {
+            IPlayerCharacter character = characters.get(i);
+            keepValues[i] = model.damagePerSecond(character.getAttack(), character.getWeight());
+            int mask = EquipMatrix.mask(EquipMatrix.characterClassIndex(controller.getCharacterClass(character)));
+            TopWeapons top = new TopWeapons(n);
+            for (int weaponClass = 0; weaponClass < EquipMatrix.WEAPON_CLASSES.length; weaponClass++) {
+                if ((mask & (1 << weaponClass)) == 0) {
+                    continue;
+                }
+                for (IWeapon weapon : inventory.get(EquipMatrix.WEAPON_CLASSES[weaponClass])) {
+                    top.offer(weapon, value(model, character, weapon));
+                }
+            }
+            for (int k = 0; k < top.size; k++) {
+                if (columns.putIfAbsent(top.weapons[k], candidates.size()) == null) {
+                    candidates.add(top.weapons[k]);
+                }
+            }
+        }
+
+        // Columns are the candidates, then one column per character to keep its weapon
+        int m = candidates.size() + n;
+        double[][] cost = new double[n + 1][m + 1];
+        for (int i = 0; i < n; i++) {
+            IPlayerCharacter character = characters.get(i);
+            int mask = EquipMatrix.mask(EquipMatrix.characterClassIndex(controller.getCharacterClass(character)));
+            for (int j = 0; j < candidates.size(); j++) {
+                IWeapon weapon = candidates.get(j);
+                int weaponClass = EquipMatrix.weaponClassIndex(controller.getWeaponClass(weapon));
+                boolean canEquip = character.isAlive() && (mask & (1 << weaponClass)) != 0;
+                cost[i + 1][j + 1] = canEquip ? -value(model, character, weapon) : FORBIDDEN;
+            }
+            for (int j = 0; j < n; j++) {
+                cost[i + 1][candidates.size() + j + 1] = i == j ? -keepValues[i] : FORBIDDEN;
+            }
+        }
+        int[] match = hungarian(cost, n, m);
+
+        IWeapon[] weapons = new IWeapon[n];
+        double[] values = new double[n];
+        for (int i = 0; i < n; i++) {
+            int column = match[i];
+            if (column < candidates.size()) {
+                weapons[i] = candidates.get(column);
+                values[i] = value(model, characters.get(i), weapons[i]);
+            } else {
+                values[i] = keepValues[i];
+            }
+        }
+        return new Assignment(characters, weapons, values);
+    }
+
+    /**
+     * Gets the damage per second a character would deal with a weapon instead of the one it has
+     */
+    private static double value(DamageModel model, IPlayerCharacter character, IWeapon weapon) {
+        IWeapon equipped = character.getEquippedWeapon();
+        int baseAttack = character.getAttack() - (equipped == null ? 0 : equipped.getDamage());
+        int baseWeight = character.getWeight() - (equipped == null ? 0 : equipped.getWeight());
+        return model.damagePerSecond(baseAttack + weapon.getDamage(), baseWeight + weapon.getWeight());
+    }
+
+    /**
+     * Solves the assignment problem for a cost matrix of n rows and m columns, n <= m, indexed from 1.
+     * It's the O(n^2 m) version of the Hungarian algorithm with potentials
+     * @return
+     *      The column given to every row, indexed from 0
+     */
+    private static int[] hungarian(double[][] cost, int n, int m) {
+        double[] u = new double[n + 1];
+        double[] v = new double[m + 1];
+        int[] rowOf = new int[m + 1];
+        int[] way = new int[m + 1];
+        double[] minValues = new double[m + 1];
+        boolean[] used = new boolean[m + 1];
+        for (int i = 1; i <= n; i++) {
+            rowOf[0] = i;
+            int column = 0;
+            Arrays.fill(minValues, Double.POSITIVE_INFINITY);
+            Arrays.fill(used, false);
+            do {
+                used[column] = true;
+                int row = rowOf[column];
+                double delta = Double.POSITIVE_INFINITY;
+                int next = 0;
+                for (int j = 1; j <= m; j++) {
+                    if (!used[j]) {
+                        double reduced = cost[row][j] - u[row] - v[j];
+                        if (reduced < minValues[j]) {
+                            minValues[j] = reduced;
+                            way[j] = column;
+                        }
+                        if (minValues[j] < delta) {
+                            delta = minValues[j];
+                            next = j;
+                        }
+                    }
+                }
+                for (int j = 0; j <= m; j++) {
+                    if (used[j]) {
+                        u[rowOf[j]] += delta;
+                        v[j] -= delta;
+                    } else {
+                        minValues[j] -= delta;
+                    }
+                }
+                column = next;
+            } while (rowOf[column] != 0);
+            do {
+                int previous = way[column];
+                rowOf[column] = rowOf[previous];
+                column = previous;
+            } while (column != 0);
+        }
+        int[] match = new int[n];
+        for (int j = 1; j <= m; j++) {
+            if (rowOf[j] != 0) {
+                match[rowOf[j] - 1] = j - 1;
+            }
+        }
+        return match;
+    }
+
+    /**
+     * The expected damage of an attack against a random enemy
+     */
+    private static final class DamageModel {
+        private final int[] defenses;
+        private final long[] sums;
+
+        private DamageModel(List<Enemy> enemies) {
+            defenses = new int[enemies.size()];
+            for (int i = 0; i < defenses.length; i++) {
+                defenses[i] = enemies.get(i).getDefense();
+            }
+            Arrays.sort(defenses);
+            sums = new long[defenses.length + 1];
+            for (int i = 0; i < defenses.length; i++) {
+                sums[i + 1] = sums[i] + defenses[i];
+            }
+        }
+
+        /**
+         * Gets the expected damage per second of game time of a character
+         * @param attack
+         *      The character's attack with the weapon
+         * @param weight
+         *      The character's weight with the weapon
+         */
+        private double damagePerSecond(int attack, int weight) {
+            // A character whose delay is 0 still plays one turn at a time
+            return expectedDamage(attack) / Math.max(AbstractCharacter.delayOf(weight), 1);
+        }
+
+        private double expectedDamage(int attack) {
+            if (defenses.length == 0) {
+                return attack;
+            }
+            // Only the enemies with less defense than the attack take damage
+            int weaker = lowerBound(attack);
+            return ((double) attack * weaker - sums[weaker]) / defenses.length;
+        }
+
+        private int lowerBound(int attack) {
+            int low = 0;
+            int high = defenses.length;
+            while (low < high) {
+                int middle = (low + high) >>> 1;
+                if (defenses[middle] < attack) {
+                    low = middle + 1;
+                } else {
+                    high = middle;
+                }
+            }
+            return low;
+        }
+    }
+
+    /**
+     * The best few weapons for a character, sorted from best to worst
+     */
+    private static final class TopWeapons {
+        private final IWeapon[] weapons;
+        private final double[] values;
+        private int size;
+
+        private TopWeapons(int capacity) {
+            weapons = new IWeapon[capacity];
+            values = new double[capacity];
+        }
+
+        private void offer(IWeapon weapon, double value) {
+            if (size == weapons.length && (size == 0 || value <= values[size - 1])) {
+                return;
+            }
+            int i = size < weapons.length ? size++ : size - 1;
+            while (i > 0 && values[i - 1] < value) {
+                weapons[i] = weapons[i - 1];
+                values[i] = values[i - 1];
+                i--;
+            }
+            weapons[i] = weapon;
+            values[i] = value;
+        }
+    }
+
+    /**
+     * The weapon every character should have
+     */
+    public static final class Assignment {
+        private final List<IPlayerCharacter> characters;
+        private final IWeapon[] weapons;
+        private final double[] damagePerSecond;
+
+        private Assignment(List<IPlayerCharacter> characters, IWeapon[] weapons, double[] damagePerSecond) {
+            this.characters = characters;
+            this.weapons = weapons;
+            this.damagePerSecond = damagePerSecond;
+        }
+
+        /**
+         * Gets the weapon of the inventory a character should equip
+         * @param character
+         *      The character
+         * @return
+         *      The weapon, or null if the character should keep the one it has
+         */
+        public IWeapon getWeapon(IPlayerCharacter character) {
+            for (int i = 0; i < weapons.length; i++) {
+                if (characters.get(i) == character) {
+                    return weapons[i];
+                }
+            }
+            return null;
+        }
+
+        /**
+         * Gets the weapons that have to be equipped to apply the assignment
+         * @return
+         *      The weapon of every character that changes its weapon
+         */
+        public Map<IPlayerCharacter, IWeapon> getChanges() {
+            Map<IPlayerCharacter, IWeapon> changes = new IdentityHashMap<>();
+            for (int i = 0; i < weapons.length; i++) {
+                if (weapons[i] != null) {
+                    changes.put(characters.get(i), weapons[i]);
+                }
+            }
+            return changes;
+        }
+
+        /**
+         * Gets the expected damage per second of the whole party with this assignment
+         */
+        public double getDamagePerSecond() {
+            double total = 0;
+            for (double value : damagePerSecond) {
+                total += value;
+            }
+            return total;
+        }
+    }
+}
@@ -1,11 +1,18 @@
 package com.github.ylinker.finalreality.controller;
 
 import com.github.ylinker.finalreality.controller.handler.*;
-import com.github.ylinker.finalreality.controller.phase.BeginTurnPhase;
-import com.github.ylinker.finalreality.controller.phase.exceptions.InvalidActionException;
-import com.github.ylinker.finalreality.controller.phase.exceptions.InvalidTransitionException;
+import com.github.ylinker.finalreality.controller.jfr.*;
 import com.github.ylinker.finalreality.controller.phase.Phase;
+import com.github.ylinker.finalreality.controller.phase.PhaseStatus;
+import com.github.ylinker.finalreality.controller.phase.Transition;
+import com.github.ylinker.finalreality.controller.phase.TurnState;
+import com.github.ylinker.finalreality.controller.replay.IBattleRecorder;
+import com.github.ylinker.finalreality.controller.scheduler.ITurnHandle;
+import com.github.ylinker.finalreality.controller.scheduler.ITurnScheduler;
+import com.github.ylinker.finalreality.controller.scheduler.TurnQueue;
+import com.github.ylinker.finalreality.controller.scheduler.TurnScheduler;
 import com.github.ylinker.finalreality.gui.scenes.IScene;
+import com.github.ylinker.finalreality.metrics.MetricsRegistry;
 import com.github.ylinker.finalreality.model.character.Enemy;
 import com.github.ylinker.finalreality.model.character.ICharacter;
 import com.github.ylinker.finalreality.model.character.IPlayerCharacter;
@@ -26,23 +33,55 @@ import java.util.concurrent.*;
  * The game controller.
  * It is the intermediary between the player and the model.
  * Controls the messages and actions between the player and the game
+ *
+ * The controller is used at the same time by the view's thread and by the scheduler threads
+ * that bring the characters back to the queue. Every method that reads and then changes the game's
+ * state holds the controller's lock, so a turn can't begin twice or be lost in between.
+ * The rosters and the inventory can be iterated without the lock, their lists are copies.
+ * Every character and weapon gets a dense id when it's created, so the rosters, the classes
+ * and the deaths are looked up by id instead of comparing names.
  */
 public class GameController {
-    private final ArrayList<IPlayerCharacter> playerCharacters;
-    private final ArrayList<Enemy> enemies;
-    private final ArrayList<IWeapon> inventory;
-    private final BlockingQueue<ICharacter> queue;
-    private Phase phase;
-    private ICharacter currentTurnCharacter;
-    private IScene view;
-    private Map<ICharacter, String> playerClasses;
-    private Map<IWeapon, String> playerWeaponClasses;
-    private IPlayerCharacter lastAttackedCharacter;
-
-    private final IEventHandler characterDeadHandler = new PlayerCharacterDeadHandler(this);
-    private final IEventHandler enemyDeadHandler = new EnemyDeadHandler(this);
-    private final IEventHandler characterTurnHandler = new PlayerCharacterTurnHandler(this);
-    private final IEventHandler enemyTurnHandler = new EnemyTurnHandler(this);
+    private static final ControllerMetrics SHARED_METRICS = new ControllerMetrics(MetricsRegistry.getShared());
+
+    private final Roster<IPlayerCharacter> playerCharacters;
+    private final Roster<Enemy> enemies;
+    private final Inventory inventory;
+    private final TurnQueue queue;
+    private final ITurnScheduler scheduler;
+    private final BattleRandom random;
+    private volatile TurnState state;
+    private volatile ICharacter phaseCharacter;
+    private final Phase[] phases = new Phase[TurnState.values().length];
+    private volatile ICharacter currentTurnCharacter;
+    private volatile IScene view;
+    private ICharacter[] charactersById = new ICharacter[16];
+    private String[] characterClasses = new String[16];
+    private int[] characterClassIndexes = new int[16];
+    // The pending turn of every character, by id. Characters with the same name don't share a turn
+    private WaitingTurn[] waitingTurns = new WaitingTurn[16];
+    private int characterCount;
+    private IWeapon[] weaponsById = new IWeapon[16];
+    private String[] weaponClasses = new String[16];
+    private int[] weaponClassIndexes = new int[16];
+    private int weaponCount;
+    private volatile IPlayerCharacter lastAttackedCharacter;
+    private IBattleRecorder recorder;
+    private int reactionDepth;
+    private volatile ControllerMetrics metrics = SHARED_METRICS;
+    private long turnStart;
+    private TurnEvent turnEvent;
+    private int operations;
+
+    private final EventBus<IPlayerCharacter> playerEvents = new EventBus<>();
+    private final EventBus<Enemy> enemyEvents = new EventBus<>();
+
+    /**
+     * Creates a Game Controller that uses the shared turn scheduler
+     */
+    public GameController() {
+        this(TurnScheduler.getSharedInstance());
+    }
 
     /**
      * Creates a Game Controller with an initial empty
@@ -51,16 +90,37 @@ public class GameController {
      *      Player Inventory
      *      Queue
      *      And initial Begin Turn Phase
+     * @param scheduler
+     *      The scheduler used to wait for the characters' turns
      */
-    public GameController() {
-        playerCharacters = new ArrayList<>();
-        enemies = new ArrayList<>();
-        inventory = new ArrayList<>();
-        queue = new LinkedBlockingQueue<>();
-        setPhase(new BeginTurnPhase());
+    public GameController(@NotNull ITurnScheduler scheduler) {
+        this(scheduler, new BattleRandom());
+    }
+
+    /**
+     * Creates a Game Controller whose random decisions come from the given generator
+     * @param scheduler
+     *      The scheduler used to wait for the characters' turns
+     * @param random
+     *      The generator of every random decision of the battle
+     */
+    public GameController(@NotNull ITurnScheduler scheduler, @NotNull BattleRandom random) {
+        this.random = random;
+        playerCharacters = new Roster<>(ICharacter::getId);
+        enemies = new Roster<>(ICharacter::getId);
+        inventory = new Inventory();
+        this.scheduler = scheduler;
+        queue = new TurnQueue(scheduler::currentTime);
+        state = TurnState.BEGIN_TURN;
         currentTurnCharacter = null;
-        playerClasses = new HashMap<>();
-        playerWeaponClasses = new HashMap<>();
+        playerEvents.subscribe(CharacterEvent.DEATH, measured(CharacterEvent.DEATH,
+                new PlayerCharacterDeadHandler(this)));
+        playerEvents.subscribe(CharacterEvent.BEGIN_TURN, measured(CharacterEvent.BEGIN_TURN,
+                new PlayerCharacterTurnHandler(this)));
+        enemyEvents.subscribe(CharacterEvent.DEATH, measured(CharacterEvent.DEATH,
+                new EnemyDeadHandler(this)));
+        enemyEvents.subscribe(CharacterEvent.BEGIN_TURN, measured(CharacterEvent.BEGIN_TURN,
+                new EnemyTurnHandler(this)));
     }
 
     /**
@@ -68,9 +128,14 @@ public class GameController {
      * player's character scene to be made in the view
      */
     public void turnStarted() {
+        int depth = reactionDepth;
+        // What the view does is a command from the player
+        reactionDepth = 0;
         try {
             view.playerTurn();
         } catch (FileNotFoundException e) {
+        } finally {
+            reactionDepth = depth;
         }
     }
 
@@ -79,9 +144,13 @@ public class GameController {
      * enemy's character scene to be made in the view
      */
     public void enemyTurnStarted() {
+        int depth = reactionDepth;
+        reactionDepth = 0;
         try {
             view.enemyTurn();
         } catch (FileNotFoundException e) {
+        } finally {
+            reactionDepth = depth;
         }
     }
 
@@ -94,6 +163,53 @@ public class GameController {
         this.view = scene;
     }
 
+    /**
+     * Adds a handler for an event of the player's characters.
+     * It's called after the controller's own handlers, on the thread where the event happened
+     * @param event
+     *      The event to handle
+     * @param handler
+     *      The handler
+     */
+    public void subscribeToCharacters(@NotNull CharacterEvent event,
+                                      @NotNull IEventHandler<? super IPlayerCharacter> handler) {
+        playerEvents.subscribe(event, handler);
+    }
+
+    /**
+     * Adds a handler for an event of the enemies.
+     * It's called after the controller's own handlers, on the thread where the event happened
+     * @param event
+     *      The event to handle
+     * @param handler
+     *      The handler
+     */
+    public void subscribeToEnemies(@NotNull CharacterEvent event, @NotNull IEventHandler<? super Enemy> handler) {
+        enemyEvents.subscribe(event, handler);
+    }
+
+    /**
+     * Sets the recorder that receives every command given to this controller.
+     * It has to be set before any character or weapon is created, so they are recorded too
+     * @param recorder
+     *      The recorder, or null to stop recording
+     */
+    public synchronized void setRecorder(IBattleRecorder recorder) {
+        if (recorder != null && !(playerCharacters.isEmpty() && enemies.isEmpty() && inventory.isEmpty())) {
+            throw new IllegalStateException("The recorder has to be set before creating characters or weapons");
+        }
+        this.recorder = recorder;
+    }
+
+    /**
+     * Checks if what the controller is doing right now has to be recorded.
+     * The controller's reactions to a turn beginning aren't recorded, since replaying
+     * the commands that led to them makes the controller react again
+     */
+    private boolean isRecording() {
+        return recorder != null && reactionDepth == 0;
+    }
+
     /**
      * Method to know if the player Won
      * The player wins when there aren't any enemies left
@@ -131,39 +247,136 @@ public class GameController {
     /**
      * Gets the entire player roster of characters
      * @return
-     *      An array list containing every alive player character
+     *      A list containing every alive player character
      */
-    public ArrayList<IPlayerCharacter> getCharacters() {
-        return playerCharacters;
+    public List<IPlayerCharacter> getCharacters() {
+        return playerCharacters.asList();
     }
 
     /**
      * Gets all of the enemies
      * @return
-     *      An array list containing every alive enemy
+     *      A list containing every alive enemy
      */
-    public ArrayList<Enemy> getEnemies() {
-        return enemies;
+    public List<Enemy> getEnemies() {
+        return enemies.asList();
     }
 
     /**
      * Gets the player's inventory
      * @return
-     *      An array list with every weapon not equipped
+     *      A list with every weapon not equipped
+     */
+    public List<IWeapon> getInventory() {
+        return inventory.asList();
+    }
+
+    /**
+     * Gets the weapons of a class in the player's inventory
+     * @param weaponClass
+     *      The class of the weapons, like "Sword" or "Staff"
+     * @return
+     *      A list with every weapon of that class not equipped
+     */
+    public List<IWeapon> getInventory(@NotNull String weaponClass) {
+        return inventory.ofClass(weaponClass);
+    }
+
+    /**
+     * Gets the weapon of a class in the inventory with the highest value of a stat
+     * @param weaponClass
+     *      The class of the weapon
+     * @param stat
+     *      The stat to compare
+     * @return
+     *      The best weapon, or null if there are no weapons of that class in the inventory
+     */
+    public IWeapon getBestWeapon(@NotNull String weaponClass, @NotNull WeaponStat stat) {
+        return inventory.best(weaponClass, stat);
+    }
+
+    /**
+     * Gets the weapons in the inventory with a stat between two values
+     * @param stat
+     *      The stat to look at
+     * @param min
+     *      The lowest value of the stat, included
+     * @param max
+     *      The highest value of the stat, included
+     * @return
+     *      A list with the weapons in the range, sorted by the stat
      */
-    public ArrayList<IWeapon> getInventory() {
-        return inventory;
+    public List<IWeapon> getInventoryInRange(@NotNull WeaponStat stat, int min, int max) {
+        return inventory.inRange(null, stat, min, max);
+    }
+
+    /**
+     * Gets the weapons of a class in the inventory with a stat between two values
+     * @param weaponClass
+     *      The class of the weapons
+     * @param stat
+     *      The stat to look at
+     * @param min
+     *      The lowest value of the stat, included
+     * @param max
+     *      The highest value of the stat, included
+     * @return
+     *      A list with the weapons in the range, sorted by the stat
+     */
+    public List<IWeapon> getInventoryInRange(@NotNull String weaponClass, @NotNull WeaponStat stat, int min, int max) {
+        return inventory.inRange(weaponClass, stat, min, max);
     }
 
     /**
      * Gets the controllers queue that manages the turn order of the characters
      * @return
-     *      The controllers blocking queue
+     *      The controllers turns queue
      */
-    public BlockingQueue<ICharacter> getQueue() {
+    public TurnQueue getQueue() {
         return queue;
     }
 
+    /**
+     * Gets the next characters that will play, in order, without changing the queue
+     * @param k
+     *      The amount of turns to look ahead
+     * @return
+     *      A list with at most k characters that are ready to play
+     */
+    public List<ICharacter> peekNextTurns(int k) {
+        return queue.peekNextTurns(k);
+    }
+
+    /**
+     * Gets the scheduler that wakes up the characters when their turn comes
+     * @return
+     *      The controller's turn scheduler
+     */
+    public ITurnScheduler getScheduler() {
+        return scheduler;
+    }
+
+    /**
+     * Gets the generator of the random decisions of this battle
+     * @return
+     *      The controller's random generator
+     */
+    public BattleRandom getRandom() {
+        return random;
+    }
+
+    /**
+     * Checks if a character is waiting for its turn on the scheduler
+     * @param character
+     *      The character
+     * @return
+     *      True if the character has a pending turn, False otherwise
+     */
+    public synchronized boolean isWaitingTurn(ICharacter character) {
+        int id = idOf(character);
+        return id != -1 && waitingTurns[id] != null;
+    }
+
     /**
      * Gets the current turn character
      * @return
@@ -182,6 +395,15 @@ public class GameController {
         return lastAttackedCharacter;
     }
 
+    /**
+     * Sets the character that was attacked last, used to replay a random choice of a target
+     * @param character
+     *      The chosen character
+     */
+    public void setLastAttackedCharacter(IPlayerCharacter character) {
+        lastAttackedCharacter = character;
+    }
+
     /**
      * Creates an Engineer for the player and adds it to the player's roster
      * @param name
@@ -193,10 +415,9 @@ public class GameController {
      * @param defense
      *      The character's defense
      */
-    public void createEngineer(@NotNull String name, int health, int attack, int defense){
+    public synchronized void createEngineer(@NotNull String name, int health, int attack, int defense){
         IPlayerCharacter character = new Engineer(name, health, attack, defense);
-        playerClasses.put(character, "Engineer");
-        addPlayerCharacter(character);
+        addPlayerCharacter(character, "Engineer");
     }
 
     /**
@@ -210,10 +431,9 @@ public class GameController {
      * @param defense
      *      The character's defense
      */
-    public void createKnight(@NotNull String name, int health, int attack, int defense){
+    public synchronized void createKnight(@NotNull String name, int health, int attack, int defense){
         IPlayerCharacter character = new Knight(name, health, attack, defense);
-        playerClasses.put(character, "Knight");
-        addPlayerCharacter(character);
+        addPlayerCharacter(character, "Knight");
     }
 
     /**
@@ -227,10 +447,9 @@ public class GameController {
      * @param defense
      *      The character's defense
      */
-    public void createThief(@NotNull String name, int health, int attack, int defense){
+    public synchronized void createThief(@NotNull String name, int health, int attack, int defense){
         IPlayerCharacter character = new Thief(name, health, attack, defense);
-        playerClasses.put(character, "Thief");
-        addPlayerCharacter(character);
+        addPlayerCharacter(character, "Thief");
     }
 
     /**
@@ -244,10 +463,9 @@ public class GameController {
      * @param defense
      *      The character's defense
      */
-    public void createWhiteMage(@NotNull String name, int health, int attack, int defense, int mana){
+    public synchronized void createWhiteMage(@NotNull String name, int health, int attack, int defense, int mana){
         IPlayerCharacter character = new WhiteMage(name, health, attack, defense, mana);
-        playerClasses.put(character, "White Mage");
-        addPlayerCharacter(character);
+        addPlayerCharacter(character, "White Mage");
     }
 
     /**
@@ -261,10 +479,9 @@ public class GameController {
      * @param defense
      *      The character's defense
      */
-    public void createBlackMage(@NotNull String name, int health, int attack, int defense, int mana){
+    public synchronized void createBlackMage(@NotNull String name, int health, int attack, int defense, int mana){
         IPlayerCharacter character = new BlackMage(name, health, attack, defense, mana);
-        playerClasses.put(character, "Black Mage");
-        addPlayerCharacter(character);
+        addPlayerCharacter(character, "Black Mage");
     }
 
     /**
@@ -329,8 +546,9 @@ public class GameController {
      * @return
      *      A string with the type of character
      */
-    public String getCharacterClass(IPlayerCharacter character) {
-        return playerClasses.get(character);
+    public synchronized String getCharacterClass(IPlayerCharacter character) {
+        int id = character.getId();
+        return id >= 0 && id < characterCount && charactersById[id] == character ? characterClasses[id] : null;
     }
 
     /**
@@ -357,8 +575,10 @@ public class GameController {
      * @param weight
      *      The enemy weight
      */
-    public void createEnemy(@NotNull String name, int health, int attack, int defense, int weight) {
-        addEnemy(new Enemy(name, health, attack, defense, weight));
+    public synchronized void createEnemy(@NotNull String name, int health, int attack, int defense, int weight) {
+        Enemy enemy = new Enemy(name, health, attack, defense, weight);
+        registerCharacter(enemy, "Enemy");
+        addEnemy(enemy);
     }
 
     /**
@@ -370,10 +590,9 @@ public class GameController {
      * @param weight
      *      The axe weight
      */
-    public void createAxe(@NotNull String name, final int damage, final int weight){
+    public synchronized void createAxe(@NotNull String name, final int damage, final int weight){
         IWeapon weapon = new Axe(name, damage, weight);
-        playerWeaponClasses.put(weapon, "Axe");
-        addWeapon(weapon);
+        addWeapon(weapon, "Axe");
     }
 
     /**
@@ -385,10 +604,9 @@ public class GameController {
      * @param weight
      *      The bow weight
      */
-    public void createBow(@NotNull String name, final int damage, final int weight){
+    public synchronized void createBow(@NotNull String name, final int damage, final int weight){
         IWeapon weapon = new Bow(name, damage, weight);
-        playerWeaponClasses.put(weapon, "Bow");
-        addWeapon(weapon);
+        addWeapon(weapon, "Bow");
     }
 
     /**
@@ -400,10 +618,9 @@ public class GameController {
      * @param weight
      *      The knife weight
      */
-    public void createKnife(@NotNull String name, final int damage, final int weight){
+    public synchronized void createKnife(@NotNull String name, final int damage, final int weight){
         IWeapon weapon = new Knife(name, damage, weight);
-        playerWeaponClasses.put(weapon, "Knife");
-        addWeapon(weapon);
+        addWeapon(weapon, "Knife");
     }
 
     /**
@@ -415,10 +632,9 @@ public class GameController {
      * @param weight
      *      The sword weight
      */
-    public void createSword(@NotNull String name, final int damage, final int weight){
+    public synchronized void createSword(@NotNull String name, final int damage, final int weight){
         IWeapon weapon = new Sword(name, damage, weight);
-        playerWeaponClasses.put(weapon, "Sword");
-        addWeapon(weapon);
+        addWeapon(weapon, "Sword");
     }
 
     /**
@@ -432,10 +648,9 @@ public class GameController {
      * @param magicDamage
      *      The staff magic damage
      */
-    public void createStaff(@NotNull String name, final int damage, final int weight, final int magicDamage){
+    public synchronized void createStaff(@NotNull String name, final int damage, final int weight, final int magicDamage){
         IWeapon weapon = new Staff(name, damage, weight, magicDamage);
-        playerWeaponClasses.put(weapon, "Staff");
-        addWeapon(weapon);
+        addWeapon(weapon, "Staff");
     }
 
     /**
@@ -478,8 +693,8 @@ public class GameController {
      * @return
      *      A string with the type of weapon
      */
-    public String getWeaponClass(IWeapon weapon) {
-        return playerWeaponClasses.get(weapon);
+    public synchronized String getWeaponClass(IWeapon weapon) {
+        return weaponClassOf(weapon);
     }
 
     /**
@@ -500,16 +715,115 @@ public class GameController {
      * @param weapon
      *      The weapon to be equipped
      */
-    public void equip(IPlayerCharacter character, IWeapon weapon){
+    public synchronized void equip(IPlayerCharacter character, IWeapon weapon){
+        equip(character, weapon, true);
+    }
+
+    /**
+     * Equips a character, recording it only if it isn't part of a command that is recorded by itself
+     * @param record
+     *      If the equipment is recorded
+     */
+    private void equip(IPlayerCharacter character, IWeapon weapon, boolean record) {
+        EquipEvent event = new EquipEvent();
+        event.begin();
         IWeapon previousWeapon = character.getEquippedWeapon();
+        boolean equipped = false;
         if (inventory.contains(weapon)) {
             if (character.equip(weapon)) {
-                inventory.remove(weapon);
+                equipped = true;
+                if (record && isRecording()) {
+                    recorder.weaponEquipped(character, weapon);
+                }
+                inventory.remove(weapon, weaponClassOf(weapon));
                 if (previousWeapon != null) {
-                    inventory.add(previousWeapon);
+                    if (weaponClassOf(previousWeapon) == null) {
+                        // A weapon equipped outside of the controller joins the inventory as a new one
+                        registerWeapon(previousWeapon, previousWeapon.getClass().getSimpleName());
+                    }
+                    inventory.add(previousWeapon, weaponClassOf(previousWeapon));
                 }
             }
         }
+        event.end();
+        if (event.shouldCommit()) {
+            event.character = character.getName();
+            event.weapon = weapon == null ? null : weapon.getName();
+            event.weaponClass = weapon == null ? null : weaponClassOf(weapon);
+            event.equipped = equipped;
+            event.commit();
+        }
+    }
+
+    /**
+     * Equips many characters at once, holding the lock, so no turn happens between the equips.
+     * Every equip follows the same rules as {@link #equip(IPlayerCharacter, IWeapon)}
+     * @param assignment
+     *      The weapon from the inventory each character should equip
+     */
+    public synchronized void equipAll(@NotNull Map<? extends IPlayerCharacter, ? extends IWeapon> assignment) {
+        for (Map.Entry<? extends IPlayerCharacter, ? extends IWeapon> entry : assignment.entrySet()) {
+            equip(entry.getKey(), entry.getValue());
+        }
+    }
+
+    /**
+     * Gets the slots of the inventory with a weapon the character can equip, in one pass.
+     * A dead character or one that isn't of this controller can't equip any weapon, just like with {@code equip}
+     * @param character
+     *      The character that would equip the weapons
+     * @return
+     *      The indexes in {@link #getInventory()} of the weapons it can equip, in increasing order
+     */
+    public synchronized int[] getEquippableSlots(IPlayerCharacter character) {
+        int mask = equipMask(character);
+        List<IWeapon> weapons = inventory.asList();
+        int[] slots = new int[weapons.size()];
+        int count = 0;
+        for (int i = 0; i < slots.length; i++) {
+            if (canEquip(mask, weapons.get(i))) {
+                slots[count++] = i;
+            }
+        }
+        return Arrays.copyOf(slots, count);
+    }
+
+    /**
+     * Gets every weapon of the inventory that the character can equip, in one pass
+     * @param character
+     *      The character that would equip the weapons
+     * @return
+     *      A list with the weapons it can equip, in the order of the inventory
+     */
+    public synchronized List<IWeapon> getEquippableWeapons(IPlayerCharacter character) {
+        int mask = equipMask(character);
+        List<IWeapon> equippable = new ArrayList<>();
+        if (mask != 0) {
+            for (IWeapon weapon : inventory.asList()) {
+                if (canEquip(mask, weapon)) {
+                    equippable.add(weapon);
+                }
+            }
+        }
+        return equippable;
+    }
+
+    /**
+     * Gets the classes of weapons a character can equip right now
+     * @return
+     *      The character's mask in the equip matrix, or 0 if it can't equip anything
+     */
+    private int equipMask(IPlayerCharacter character) {
+        int id = character.getId();
+        if (!character.isAlive() || id < 0 || id >= characterCount || charactersById[id] != character) {
+            return 0;
+        }
+        return EquipMatrix.mask(characterClassIndexes[id]);
+    }
+
+    private boolean canEquip(int mask, IWeapon weapon) {
+        int weaponClass = weaponClassIndexes[weapon.getId()];
+        return weaponClass != EquipMatrix.UNKNOWN && (mask & (1 << weaponClass)) != 0;
     }
 
     /**
@@ -519,20 +833,59 @@ public class GameController {
      * @param attacked
      *      The character that is being attacked
      */
-    public int attack(ICharacter attacker, ICharacter attacked){
-        return attacker.attack(attacked);
+    public synchronized int attack(ICharacter attacker, ICharacter attacked){
+        AttackEvent event = new AttackEvent();
+        event.begin();
+        int damage = attacker.attack(attacked);
+        event.end();
+        if (event.shouldCommit()) {
+            event.attacker = attacker.getName();
+            event.target = attacked.getName();
+            event.damage = damage;
+            event.targetHealth = attacked.getHealth();
+            event.commit();
+        }
+        return damage;
     }
 
     /**
      * Method to begin a new turn.
-     * If the queue is empty then it does nothing
+     * If the queue is empty then it lets the scheduler know that the controller is idle
      * If the queue has a character it starts its turn
      */
-    public void beginTurn() {
+    public synchronized void beginTurn() {
         ICharacter character = queue.peek();
-        if (!(character == null) && currentTurnCharacter == null) {
+        if (currentTurnCharacter != null) {
+            return;
+        }
+        if (character == null) {
+            // A scheduler with its own clock can jump to the next turn right away
+            scheduler.onIdle();
+        } else {
             currentTurnCharacter = character;
-            character.beginTurn();
+            ControllerMetrics metrics = this.metrics;
+            if (metrics != null) {
+                metrics.turns.increment();
+                if (isSampled()) {
+                    metrics.queueWait.record(scheduler.currentTime() - queue.getReadyTime(character));
+                    turnStart = System.nanoTime();
+                }
+            }
+            TurnEvent event = new TurnEvent();
+            if (event.isEnabled()) {
+                // Only kept while recording, it's committed when the turn ends
+                event.character = character.getName();
+                event.characterId = character.getId();
+                event.enemy = character instanceof Enemy;
+                event.begin();
+                turnEvent = event;
+            }
+            reactionDepth++;
+            try {
+                character.beginTurn();
+            } finally {
+                reactionDepth--;
+            }
         }
     }
 
@@ -542,10 +895,68 @@ public class GameController {
      * @param character
      *      The character that has to wait for his turn
      */
-    public void waitTurn(ICharacter character) {
-        character.setScheduledExecutor(Executors.newSingleThreadScheduledExecutor());
-        Runnable command = () -> this.addToQueue(character);
-        character.getScheduledExecutor().schedule(command, character.getDelay(), TimeUnit.SECONDS);
+    public synchronized void waitTurn(ICharacter character) {
+        waitTurn(character, TimeUnit.SECONDS.toNanos(character.getDelay()));
+    }
+
+    /**
+     * Makes a character wait some time to be added again to the queue
+     * @param character
+     *      The character that has to wait for his turn
+     * @param delay
+     *      The time it has to wait, in nanoseconds
+     */
+    private void waitTurn(ICharacter character, long delay) {
+        int id = idOf(character);
+        if (id == -1) {
+            throw new IllegalArgumentException(character.getName() + " wasn't created by this controller");
+        }
+        // The character is ready when its delay is over, no matter when the scheduler gets to run it
+        long readyTime = scheduler.currentTime() + delay;
+        Runnable command = () -> this.onTurnReady(character, readyTime, delay);
+        // A character that was already waiting only keeps its new turn
+        if (waitingTurns[id] != null) {
+            waitingTurns[id].handle.cancel();
+        }
+        // The command needs the lock to run, so the handle is stored before it can remove it
+        waitingTurns[id] = new WaitingTurn(readyTime, scheduler.schedule(command, delay, TimeUnit.NANOSECONDS));
+    }
+
+    /**
+     * Adds a character to the turns queue as ready right now
+     * If the queue is empty then it immediately starts its turn
+     * @param character
+     *      The character to be added
+     */
+    public synchronized void addToQueue(ICharacter character) {
+        addToQueue(character, scheduler.currentTime());
+    }
+
+    /**
+     * Adds a character to the queue when its waiting time is over
+     * @param character
+     *      The character whose waiting time is over
+     * @param readyTime
+     *      The time it became ready
+     * @param delay
+     *      The time it had to wait
+     */
+    private synchronized void onTurnReady(ICharacter character, long readyTime, long delay) {
+        WaitingTurn turn = waitingTurns[character.getId()];
+        // The turn may have been cancelled while the scheduler waited for the lock
+        if (turn != null && turn.readyTime == readyTime) {
+            SchedulerWakeupEvent event = new SchedulerWakeupEvent();
+            if (event.shouldCommit()) {
+                long lateness = scheduler.currentTime() - readyTime;
+                event.character = character.getName();
+                event.characterId = character.getId();
+                event.delay = delay;
+                event.waited = delay + lateness;
+                event.lateness = lateness;
+                event.commit();
+            }
+            addToQueue(character, readyTime);
+        }
     }
 
     /**
@@ -553,15 +964,28 @@ public class GameController {
      * If the queue is empty then it immediately starts its turn
      * @param character
      *      The character to be added
+     * @param readyTime
+     *      The time at which the character became ready to play
      */
-    public void addToQueue(ICharacter character) {
+    private synchronized void addToQueue(ICharacter character, long readyTime) {
+        int id = idOf(character);
+        if (id != -1) {
+            waitingTurns[id] = null;
+        }
+        ControllerMetrics metrics = this.metrics;
+        if (metrics != null) {
+            metrics.queued.increment();
+        }
+        if (recorder != null) {
+            recorder.characterQueued(character, readyTime);
+        }
         if (queue.isEmpty() && currentTurnCharacter == null) {
-            queue.add(character);
-            character.shutdownScheduledExecutor();
-            phase.beginTurn();
+            queue.add(character, readyTime);
+            if (state.canBeginTurn()) {
+                beginTurn();
+            }
         } else {
-            queue.add(character);
-            character.shutdownScheduledExecutor();
+            queue.add(character, readyTime);
         }
     }
 
@@ -570,12 +994,30 @@ public class GameController {
      * It randomly puts every character of the game in the queue and calls for
      * a turn to start
      */
-    public void initTurns() {
-        ArrayList<ICharacter> startingCharacters = new ArrayList<>(playerCharacters);
-        startingCharacters.addAll(enemies);
-        Collections.shuffle(startingCharacters);
-        queue.addAll(startingCharacters);
-        phase.beginTurn();
+    public synchronized void initTurns() {
+        ArrayList<ICharacter> startingCharacters = new ArrayList<>(playerCharacters.asList());
+        startingCharacters.addAll(enemies.asList());
+        random.shuffle(startingCharacters);
+        initTurns(startingCharacters);
+    }
+
+    /**
+     * Method to start the turns with the characters in a given order.
+     * Every character is ready at the same time, so they play in that order
+     * @param order
+     *      The characters in the order they should play
+     */
+    public synchronized void initTurns(@NotNull List<? extends ICharacter> order) {
+        long readyTime = scheduler.currentTime();
+        for (ICharacter character : order) {
+            queue.add(character, readyTime);
+        }
+        if (recorder != null) {
+            recorder.turnsStarted(order, readyTime);
+        }
+        if (state.canBeginTurn()) {
+            beginTurn();
+        }
     }
 
     /**
@@ -583,9 +1025,12 @@ public class GameController {
      * @param phase
      *      The phase that the controller has to be set
      */
-    public void setPhase(@NotNull Phase phase) {
-        this.phase = phase;
+    public synchronized void setPhase(@NotNull Phase phase) {
+        ICharacter character = phase.getCharacter();
         phase.setController(this);
+        phases[phase.getState().ordinal()] = phase;
+        state = phase.getState();
+        phaseCharacter = character;
     }
 
     /**
@@ -593,8 +1038,61 @@ public class GameController {
      * @param character
      *      The character that is passed to tha phase
      */
-    public void setPhaseCharacter(@NotNull ICharacter character){
-        phase.setCharacter(character);
+    public synchronized void setPhaseCharacter(@NotNull ICharacter character){
+        phaseCharacter = character;
+    }
+
+    /**
+     * Gets the character whose turn the current phase is about
+     * @return
+     *      The phase's character, or null if there is none
+     */
+    public ICharacter getPhaseCharacter() {
+        return phaseCharacter;
+    }
+
+    /**
+     * Changes the phase with a transition looked up in the turn's state table
+     * @param transition
+     *      The transition
+     * @return
+     *      OK if the phase changed, INVALID_TRANSITION if the transition is not valid from the current phase
+     */
+    public synchronized PhaseStatus changePhase(@NotNull Transition transition) {
+        TurnState next = state.next(transition);
+        PhaseTransitionEvent event = new PhaseTransitionEvent();
+        if (event.shouldCommit()) {
+            event.transition = transition.name();
+            event.from = state.name();
+            event.to = next == null ? null : next.name();
+            event.commit();
+        }
+        ControllerMetrics metrics = this.metrics;
+        if (next == null) {
+            if (metrics != null) {
+                metrics.invalidTransitions.increment();
+            }
+            return PhaseStatus.INVALID_TRANSITION;
+        }
+        if (metrics != null) {
+            metrics.transitions[transition.ordinal()].increment();
+        }
+        if (!state.keepsCharacter(next)) {
+            phaseCharacter = null;
+        }
+        state = next;
+        return PhaseStatus.OK;
+    }
+
+    /**
+     * Changes the phase with a transition asked by the player, recording it
+     */
+    private PhaseStatus changePhaseAndRecord(Transition transition) {
+        PhaseStatus status = changePhase(transition);
+        if (status == PhaseStatus.OK) {
+            recordTransition(transition);
+        }
+        return status;
     }
 
     /**
@@ -602,10 +1100,8 @@ public class GameController {
      * @param character
      *      The dead character
      */
-    public void onCharacterDeath(IPlayerCharacter character) {
-        if(character.getScheduledExecutor() != null) {
-            character.getScheduledExecutor().shutdownNow();
-        }
+    public synchronized void onCharacterDeath(IPlayerCharacter character) {
+        cancelTurn(character);
         playerCharacters.remove(character);
         queue.remove(character);
     }
@@ -615,14 +1111,114 @@ public class GameController {
      * @param enemy
      *      The dead enemy
      */
-    public void onEnemyDeath(Enemy enemy) {
-        if(enemy.getScheduledExecutor() != null) {
-            enemy.getScheduledExecutor().shutdownNow();
-        }
+    public synchronized void onEnemyDeath(Enemy enemy) {
+        cancelTurn(enemy);
         enemies.remove(enemy);
         queue.remove(enemy);
     }
 
+    /**
+     * Sets the registry where this controller records its metrics.
+     * Every controller records to the shared registry until it's given another one
+     * @param registry
+     *      The registry, or null to stop recording
+     */
+    public void setMetrics(MetricsRegistry registry) {
+        if (registry == null) {
+            metrics = null;
+        } else if (registry == MetricsRegistry.getShared()) {
+            metrics = SHARED_METRICS;
+        } else {
+            metrics = new ControllerMetrics(registry);
+        }
+    }
+
+    /**
+     * Gets the registry where this controller records its metrics
+     * @return
+     *      The registry, or null if it doesn't record any
+     */
+    public MetricsRegistry getMetrics() {
+        ControllerMetrics current = metrics;
+        return current == null ? null : current.getRegistry();
+    }
+
+    /**
+     * Wraps an event handler so the events it handles are counted and timed
+     * @param event
+     *      The event the handler is for
+     * @param handler
+     *      The handler
+     * @return
+     *      A handler that records the metrics and calls the given one
+     */
+    private <T extends ICharacter> IEventHandler<T> measured(CharacterEvent event, IEventHandler<T> handler) {
+        return character -> {
+            ControllerMetrics metrics = this.metrics;
+            if (metrics == null) {
+                handler.handle(character);
+                return;
+            }
+            metrics.events[event.ordinal()].increment();
+            if (!isSampled()) {
+                handler.handle(character);
+                return;
+            }
+            long start = System.nanoTime();
+            try {
+                handler.handle(character);
+            } finally {
+                metrics.handlerTimes[event.ordinal()].record(System.nanoTime() - start);
+            }
+        };
+    }
+
+    /**
+     * Decides if the operation being recorded is timed.
+     * Reading the clock costs more than most operations, so only some of them are timed
+     * @return
+     *      true for one of every {@link ControllerMetrics#SAMPLE_PERIOD} operations
+     */
+    private boolean isSampled() {
+        return (++operations & (ControllerMetrics.SAMPLE_PERIOD - 1)) == 0;
+    }
+
+    /**
+     * Cancels the pending turn of a character, if it has one
+     * @param character
+     *      The character whose turn is cancelled
+     */
+    private void cancelTurn(ICharacter character) {
+        int id = idOf(character);
+        if (id != -1 && waitingTurns[id] != null) {
+            waitingTurns[id].handle.cancel();
+            waitingTurns[id] = null;
+        }
+    }
+
+    /**
+     * Gets the id of a character of this controller
+     * @param character
+     *      The character
+     * @return
+     *      Its id, or -1 if it wasn't created by this controller
+     */
+    private int idOf(ICharacter character) {
+        int id = character.getId();
+        return id >= 0 && id < characterCount && charactersById[id] == character ? id : -1;
+    }
+
+    /**
+     * Records a phase transition asked by the player
+     * @param transition
+     *      The transition that was made
+     */
+    private void recordTransition(Transition transition) {
+        if (isRecording()) {
+            recorder.phaseChanged(transition);
+        }
+    }
+
     /**
      * Add a new enemy to the enemies roster
      * @param enemy
@@ -630,28 +1226,90 @@ public class GameController {
      */
     private void addEnemy(Enemy enemy) {
         enemies.add(enemy);
-        enemy.addDeathListener(enemyDeadHandler);
-        enemy.addBeginTurnListener(enemyTurnHandler);
+        enemy.setEventBus(enemyEvents);
+        if (recorder != null) {
+            recorder.characterCreated(enemy);
+        }
     }
 
     /**
      * Add a new character to the player's characters
      * @param character
      *      The new character to add
+     * @param characterClass
+     *      The character's class
      */
-    private void addPlayerCharacter(IPlayerCharacter character){
+    private void addPlayerCharacter(IPlayerCharacter character, String characterClass){
+        registerCharacter(character, characterClass);
         playerCharacters.add(character);
-        character.addDeathListener(characterDeadHandler);
-        character.addBeginTurnListener(characterTurnHandler);
+        character.setEventBus(playerEvents);
+        if (recorder != null) {
+            recorder.characterCreated(character);
+        }
     }
 
     /**
-     * Add a weapon to the player's inventory
+     * Gives the next id to a new character and keeps its class
+     * @param character
+     *      The new character
+     * @param characterClass
+     *      The character's class
+     */
+    private void registerCharacter(ICharacter character, String characterClass) {
+        if (characterCount == charactersById.length) {
+            charactersById = Arrays.copyOf(charactersById, characterCount * 2);
+            characterClasses = Arrays.copyOf(characterClasses, characterCount * 2);
+            characterClassIndexes = Arrays.copyOf(characterClassIndexes, characterCount * 2);
+            waitingTurns = Arrays.copyOf(waitingTurns, characterCount * 2);
+        }
+        character.setId(characterCount);
+        charactersById[characterCount] = character;
+        characterClassIndexes[characterCount] = EquipMatrix.characterClassIndex(characterClass);
+        characterClasses[characterCount++] = characterClass;
+    }
+
+    /**
+     * Add a weapon to the player's inventory, giving it the next weapon id
      * @param weapon
      *      The weapon to add
+     * @param weaponClass
+     *      The weapon's class
      */
-    private void addWeapon(IWeapon weapon){
-        inventory.add(weapon);
+    private void addWeapon(IWeapon weapon, String weaponClass){
+        registerWeapon(weapon, weaponClass);
+        inventory.add(weapon, weaponClass);
+        if (recorder != null) {
+            recorder.weaponCreated(weapon);
+        }
+    }
+
+    /**
+     * Gives the next weapon id to a weapon and keeps its class
+     * @param weapon
+     *      The new weapon
+     * @param weaponClass
+     *      The weapon's class
+     */
+    private void registerWeapon(IWeapon weapon, String weaponClass) {
+        if (weaponCount == weaponsById.length) {
+            weaponsById = Arrays.copyOf(weaponsById, weaponCount * 2);
+            weaponClasses = Arrays.copyOf(weaponClasses, weaponCount * 2);
+            weaponClassIndexes = Arrays.copyOf(weaponClassIndexes, weaponCount * 2);
+        }
+        weapon.setId(weaponCount);
+        weaponsById[weaponCount] = weapon;
+        weaponClassIndexes[weaponCount] = EquipMatrix.weaponClassIndex(weaponClass);
+        weaponClasses[weaponCount++] = weaponClass;
+    }
+
+    /**
+     * Gets the class of a weapon created by this controller
+     * @return
+     *      The weapon's class, or null if this controller didn't create it
+     */
+    private String weaponClassOf(IWeapon weapon) {
+        int id = weapon.getId();
+        return id >= 0 && id < weaponCount && weaponsById[id] == weapon ? weaponClasses[id] : null;
     }
 
     /**
@@ -661,17 +1319,44 @@ public class GameController {
      * @param character
      *      The character that is being attacked
      */
-    public int tryToAttack(ICharacter character) {
-        try {
-            int damage = phase.selectTarget(character);
-            // Here the character's turn ends
-            ICharacter turnCharacter = queue.poll();
-            waitTurn(turnCharacter);
-            return damage;
-        } catch (InvalidActionException e) {
-            // For now we do nothing
+    public synchronized int tryToAttack(ICharacter character) {
+        ControllerMetrics metrics = this.metrics;
+        if (!state.canSelectTarget()) {
+            if (metrics != null) {
+                metrics.invalidActions.increment();
+            }
             return -1;
         }
+        long start = metrics != null && isSampled() ? System.nanoTime() : 0;
+        int damage = attack(phaseCharacter, character);
+        if (isRecording()) {
+            recorder.targetSelected(character);
+        }
+        // Here the character's turn ends. A character that got ready earlier may have been
+        // added in front of it while it was playing, so it's removed by identity
+        ICharacter turnCharacter = currentTurnCharacter == null ? queue.peek() : currentTurnCharacter;
+        queue.remove(turnCharacter);
+        waitTurn(turnCharacter);
+        if (metrics != null) {
+            metrics.attacks.increment();
+            // A turn is only timed if its beginning was, and a restored controller can end a turn it didn't begin
+            if (start != 0 || turnStart != 0) {
+                long end = System.nanoTime();
+                if (start != 0) {
+                    metrics.attackTime.record(end - start);
+                }
+                if (turnStart != 0) {
+                    metrics.turnTime.record(end - turnStart);
+                    turnStart = 0;
+                }
+            }
+        }
+        TurnEvent event = turnEvent;
+        if (event != null) {
+            turnEvent = null;
+            event.commit();
+        }
+        return damage;
     }
 
     /**
@@ -679,12 +1364,14 @@ public class GameController {
      * @return
      *      The player character chosen
      */
-    public ICharacter chooseRandomTarget() {
-        Random random = new Random();
+    public synchronized ICharacter chooseRandomTarget() {
         // Find random target in Player roster
-        int target = random.nextInt(getCharacters().size());
-        IPlayerCharacter character = getCharacters().get(target);
+        int target = random.nextInt(playerCharacters.size());
+        IPlayerCharacter character = playerCharacters.get(target);
         lastAttackedCharacter = character;
+        if (isRecording()) {
+            recorder.randomTargetChosen(character);
+        }
         return character;
     }
 
@@ -694,85 +1381,352 @@ public class GameController {
      * After equipping it goes back to the selection phase.
      * @param weapon
      *      The weapon that is being equipped.
+     * @return
+     *      OK if the weapon was selected, INVALID_ACTION if it's not a phase to equip weapons
      */
-    public void tryToEquip(IWeapon weapon) {
-        try {
-            phase.selectWeapon(weapon);
-            phase.toSelectActionPhase();
-        } catch (InvalidActionException | InvalidTransitionException e) {
-            // For now we do nothing
+    public synchronized PhaseStatus tryToEquip(IWeapon weapon) {
+        ControllerMetrics metrics = this.metrics;
+        if (!state.canSelectWeapon()) {
+            if (metrics != null) {
+                metrics.invalidActions.increment();
+            }
+            return PhaseStatus.INVALID_ACTION;
         }
+        long start = metrics != null && isSampled() ? System.nanoTime() : 0;
+        // The selection is recorded instead, replaying it equips the weapon again
+        equip((IPlayerCharacter) phaseCharacter, weapon, false);
+        if (weapon == null) {
+            // Selecting no weapon only goes back to the actions
+            return changePhaseAndRecord(Transition.TO_ACTION);
+        }
+        if (isRecording()) {
+            recorder.weaponSelected(weapon);
+        }
+        if (metrics != null) {
+            metrics.equips.increment();
+            if (start != 0) {
+                metrics.equipTime.record(System.nanoTime() - start);
+            }
+        }
+        return changePhase(Transition.TO_ACTION);
     }
 
     /**
      * Method to go to the Equipping Phase.
      * If its not a valid transition then does nothing.
+     * @return
+     *      OK if the phase changed, INVALID_TRANSITION otherwise
      */
-    public void toEquipPhase() {
-        try {
-            phase.toSelectWeaponPhase();
-        } catch (InvalidTransitionException e) {
-            // For now we do nothing
-        }
+    public synchronized PhaseStatus toEquipPhase() {
+        return changePhaseAndRecord(Transition.TO_EQUIP);
     }
 
     /**
      * Method to go to the Select Attacking Target Phase.
      * If its not a valid transition then does nothing.
+     * @return
+     *      OK if the phase changed, INVALID_TRANSITION otherwise
      */
-    public void toAttackPhase() {
-        try {
-            phase.toSelectAttackingTargetPhase();
-        } catch (InvalidTransitionException e) {
-            // For now we do nothing
-        }
+    public synchronized PhaseStatus toAttackPhase() {
+        return changePhaseAndRecord(Transition.TO_ATTACK);
     }
 
     /**
      * Method to go to the Select Action Phase.
      * If its not a valid transition then does nothing.
+     * @return
+     *      OK if the phase changed, INVALID_TRANSITION otherwise
      */
-    public void toActionPhase() {
-        try {
-            phase.toSelectActionPhase();
-        } catch (InvalidTransitionException e) {
-            // For now we do nothing
-        }
+    public synchronized PhaseStatus toActionPhase() {
+        return changePhaseAndRecord(Transition.TO_ACTION);
+    }
+
+    /**
+     * Gets the state of the current turn
+     * @return
+     *      The current phase's state
+     */
+    public TurnState getState() {
+        return state;
     }
 
     /**
-     * Current Phase Getter
+     * Current Phase Getter.
+     * The phase objects are only made the first time each state is asked for
      * @return
      *      Current turn Phase
      */
-    public Phase getPhase() {
+    public synchronized Phase getPhase() {
+        Phase phase = phases[state.ordinal()];
+        if (phase == null) {
+            phase = state.createPhase();
+            phase.setController(this);
+            phases[state.ordinal()] = phase;
+        }
         return phase;
     }
 
     /**
      * Method to go back to a previous phase.
      * If its not a valid transition then does nothing.
+     * @return
+     *      OK if the phase changed, INVALID_TRANSITION otherwise
      */
-    public void goBack() {
-        try {
-            phase.goBack();
-        } catch (InvalidTransitionException e) {
-            // Do nothing for now
-        }
+    public synchronized PhaseStatus goBack() {
+        return changePhaseAndRecord(Transition.GO_BACK);
     }
 
     /**
      * Method to go to the Begin Turn Phase
      * It sets the current Turn Character to null
      * And calls for a turn to begin
+     * @return
+     *      OK if the phase changed, INVALID_TRANSITION otherwise
      */
-    public void toBeginTurnPhase() {
-        try {
-            phase.toBeginTurnPhase();
+    public synchronized PhaseStatus toBeginTurnPhase() {
+        PhaseStatus status = changePhaseAndRecord(Transition.TO_BEGIN_TURN);
+        if (status == PhaseStatus.OK) {
             currentTurnCharacter = null;
-            phase.beginTurn();
-        } catch (InvalidTransitionException e) {
+            beginTurn();
+        }
+        return status;
+    }
+
+    /**
+     * Stops the battle: every waiting turn is cancelled and the queue is emptied,
+     * so no more turns begin and the scheduler doesn't keep the controller alive
+     */
+    public synchronized void stopTurns() {
+        for (int id = 0; id < characterCount; id++) {
+            if (waitingTurns[id] != null) {
+                waitingTurns[id].handle.cancel();
+                waitingTurns[id] = null;
+            }
+        }
+        queue.clear();
+        currentTurnCharacter = null;
+    }
+
+    /**
+     * Takes a snapshot of the whole battle
+     * @return
+     *      A snapshot that can be restored as a new controller
+     */
+    public synchronized BattleSnapshot snapshot() {
+        long now = scheduler.currentTime();
+        int players = playerCharacters.size();
+        int characterCount = players + enemies.size();
+        ICharacter[] characters = new ICharacter[characterCount];
+        String[] characterClasses = new String[characterCount];
+        String[] characterNames = new String[characterCount];
+        int[] health = new int[characterCount];
+        int[] baseAttack = new int[characterCount];
+        int[] defense = new int[characterCount];
+        int[] extra = new int[characterCount];
+        int[] equipped = new int[players];
+
+        int weaponCount = inventory.size();
+        for (IPlayerCharacter character : playerCharacters.asList()) {
+            if (character.getEquippedWeapon() != null) {
+                weaponCount++;
+            }
+        }
+        String[] weaponClasses = new String[weaponCount];
+        String[] weaponNames = new String[weaponCount];
+        int[] damage = new int[weaponCount];
+        int[] weight = new int[weaponCount];
+        int[] magicDamage = new int[weaponCount];
+        List<IWeapon> inventoryWeapons = inventory.asList();
+        int[] inventoryIndexes = new int[inventoryWeapons.size()];
+
+        int weapons = 0;
+        for (int i = 0; i < inventoryIndexes.length; i++) {
+            snapshotWeapon(inventoryWeapons.get(i), weapons, weaponClasses, weaponNames, damage, weight, magicDamage);
+            inventoryIndexes[i] = weapons++;
+        }
+        for (int i = 0; i < characterCount; i++) {
+            ICharacter character = i < players ? playerCharacters.get(i) : enemies.get(i - players);
+            characters[i] = character;
+            characterNames[i] = character.getName();
+            health[i] = character.getHealth();
+            baseAttack[i] = character.getAttack();
+            defense[i] = character.getDefense();
+            if (i < players) {
+                IPlayerCharacter player = (IPlayerCharacter) character;
+                characterClasses[i] = this.characterClasses[player.getId()];
+                if (player instanceof IMage) {
+                    extra[i] = ((IMage) player).getMana();
+                }
+                IWeapon weapon = player.getEquippedWeapon();
+                if (weapon == null) {
+                    equipped[i] = BattleSnapshot.NONE;
+                } else {
+                    baseAttack[i] -= weapon.getDamage();
+                    snapshotWeapon(weapon, weapons, weaponClasses, weaponNames, damage, weight, magicDamage);
+                    equipped[i] = weapons++;
+                }
+            } else {
+                characterClasses[i] = "Enemy";
+                extra[i] = character.getWeight();
+            }
+        }
+
+        List<ICharacter> queued = queue.peekNextTurns(queue.size());
+        int[] queueIndexes = new int[queued.size()];
+        long[] queueReadyTimes = new long[queued.size()];
+        for (int i = 0; i < queueIndexes.length; i++) {
+            ICharacter character = queued.get(i);
+            queueIndexes[i] = indexOf(characters, character);
+            queueReadyTimes[i] = queue.getReadyTime(character) - now;
+        }
+        int waitingCount = 0;
+        for (int id = 0; id < this.characterCount; id++) {
+            if (waitingTurns[id] != null) {
+                waitingCount++;
+            }
+        }
+        int[] waiting = new int[waitingCount];
+        long[] waitingReadyTimes = new long[waitingCount];
+        waitingCount = 0;
+        for (int id = 0; id < this.characterCount; id++) {
+            if (waitingTurns[id] != null) {
+                waiting[waitingCount] = indexOf(characters, charactersById[id]);
+                waitingReadyTimes[waitingCount++] = waitingTurns[id].readyTime - now;
+            }
+        }
+
+        return new BattleSnapshot(players, characterClasses, characterNames, health, baseAttack, defense,
+                extra, equipped, weaponClasses, weaponNames, damage, weight, magicDamage, inventoryIndexes,
+                queueIndexes, queueReadyTimes, waiting, waitingReadyTimes, state,
+                indexOf(characters, phaseCharacter), indexOf(characters, currentTurnCharacter),
+                indexOf(characters, lastAttackedCharacter));
+    }
+
+    private void snapshotWeapon(IWeapon weapon, int index, String[] classes, String[] names,
+                                int[] damage, int[] weight, int[] magicDamage) {
+        classes[index] = weaponClassOf(weapon);
+        names[index] = weapon.getName();
+        damage[index] = weapon.getDamage();
+        weight[index] = weapon.getWeight();
+        if (weapon instanceof Staff) {
+            magicDamage[index] = ((Staff) weapon).getMagicDamage();
+        }
+    }
+
+    private static int indexOf(ICharacter[] characters, ICharacter character) {
+        if (character != null) {
+            for (int i = 0; i < characters.length; i++) {
+                if (characters[i] == character) {
+                    return i;
+                }
+            }
+        }
+        return BattleSnapshot.NONE;
+    }
+
+    /**
+     * Puts this new controller in the state of a snapshot
+     * @param snapshot
+     *      The snapshot to restore
+     */
+    synchronized void restore(BattleSnapshot snapshot) {
+        long now = scheduler.currentTime();
+        int characterCount = snapshot.getCharacterCount();
+        ICharacter[] characters = new ICharacter[characterCount];
+        IWeapon[] weapons = new IWeapon[snapshot.getWeaponCount()];
+        for (int i = 0; i < characterCount; i++) {
+            String name = snapshot.characterNames[i];
+            int health = snapshot.health[i];
+            int attack = snapshot.baseAttack[i];
+            int defense = snapshot.defense[i];
+            int extra = snapshot.extra[i];
+            switch (snapshot.characterClasses[i]) {
+                case "Engineer":
+                    createEngineer(name, health, attack, defense);
+                    break;
+                case "Knight":
+                    createKnight(name, health, attack, defense);
+                    break;
+                case "Thief":
+                    createThief(name, health, attack, defense);
+                    break;
+                case "White Mage":
+                    createWhiteMage(name, health, attack, defense, extra);
+                    break;
+                case "Black Mage":
+                    createBlackMage(name, health, attack, defense, extra);
+                    break;
+                default:
+                    createEnemy(name, health, attack, defense, extra);
+                    characters[i] = enemies.get(enemies.size() - 1);
+                    continue;
+            }
+            characters[i] = playerCharacters.get(playerCharacters.size() - 1);
+        }
+        // Equipped weapons go through the inventory first, then the inventory is created in its order
+        for (int i = 0; i < snapshot.playerCount; i++) {
+            int weapon = snapshot.equipped[i];
+            if (weapon != BattleSnapshot.NONE) {
+                weapons[weapon] = restoreWeapon(snapshot, weapon);
+                equip((IPlayerCharacter) characters[i], weapons[weapon]);
+            }
+        }
+        for (int weapon : snapshot.inventory) {
+            weapons[weapon] = restoreWeapon(snapshot, weapon);
+        }
+
+        for (int i = 0; i < snapshot.queue.length; i++) {
+            queue.add(characters[snapshot.queue[i]], now + snapshot.queueReadyTimes[i]);
+        }
+        for (int i = 0; i < snapshot.waiting.length; i++) {
+            waitTurn(characters[snapshot.waiting[i]], Math.max(snapshot.waitingReadyTimes[i], 0));
+        }
+
+        state = snapshot.phase;
+        if (snapshot.phaseCharacter != BattleSnapshot.NONE) {
+            phaseCharacter = characters[snapshot.phaseCharacter];
+        }
+        if (snapshot.currentTurnCharacter != BattleSnapshot.NONE) {
+            currentTurnCharacter = characters[snapshot.currentTurnCharacter];
+        }
+        if (snapshot.lastAttackedCharacter != BattleSnapshot.NONE) {
+            lastAttackedCharacter = (IPlayerCharacter) characters[snapshot.lastAttackedCharacter];
+        }
+    }
+
+    private IWeapon restoreWeapon(BattleSnapshot snapshot, int weapon) {
+        String name = snapshot.weaponNames[weapon];
+        int damage = snapshot.damage[weapon];
+        int weight = snapshot.weight[weapon];
+        switch (snapshot.weaponClasses[weapon]) {
+            case "Axe":
+                createAxe(name, damage, weight);
+                break;
+            case "Bow":
+                createBow(name, damage, weight);
+                break;
+            case "Knife":
+                createKnife(name, damage, weight);
+                break;
+            case "Sword":
+                createSword(name, damage, weight);
+                break;
+            default:
+                createStaff(name, damage, weight, snapshot.magicDamage[weapon]);
+        }
+        return weaponsById[weaponCount - 1];
+    }
+
+    /**
+     * A character waiting for its turn on the scheduler
+     */
+    private static final class WaitingTurn {
+        private final long readyTime;
+        private final ITurnHandle handle;
 
+        private WaitingTurn(long readyTime, ITurnHandle handle) {
+            this.readyTime = readyTime;
+            this.handle = handle;
         }
     }
 }
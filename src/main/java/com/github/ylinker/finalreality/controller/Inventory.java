@@ -0,0 +1,177 @@
+package com.github.ylinker.finalreality.controller;
+
+import com.github.ylinker.finalreality.model.weapon.IWeapon;
+
+import java.util.*;
+
+/**
+ * The player's inventory, indexed for very large amounts of weapons.
+ * The weapons are kept in a {@link Roster}, so membership and removal are O(1) by the weapon's id.
+ * Every class of weapon also has its own roster and one sorted map per {@link WeaponStat}, so the weapons
+ * of a class, the best one by a stat or the ones in a range of a stat are found without scanning.
+ *
+ * @author Yuval Linker
+ */
+final class Inventory {
+    private final Roster<IWeapon> weapons = new Roster<>(IWeapon::getId);
+    private final Map<String, ClassIndex> classes = new HashMap<>();
+
+    /**
+     * Adds a weapon to the inventory. The weapon must have an id
+     * @param weapon
+     *      The weapon to add
+     * @param weaponClass
+     *      The weapon's class
+     */
+    synchronized void add(IWeapon weapon, String weaponClass) {
+        if (weapons.contains(weapon)) {
+            return;
+        }
+        weapons.add(weapon);
+        classes.computeIfAbsent(weaponClass, c -> new ClassIndex()).add(weapon);
+    }
+
+    /**
+     * Removes this exact weapon from the inventory
+     * @param weapon
+     *      The weapon to remove
+     * @param weaponClass
+     *      The weapon's class
+     * @return
+     *      true if the weapon was in the inventory
+     */
+    synchronized boolean remove(IWeapon weapon, String weaponClass) {
+        if (!weapons.remove(weapon)) {
+            return false;
+        }
+        classes.get(weaponClass).remove(weapon);
+        return true;
+    }
+
+    /**
+     * Checks if this exact weapon is in the inventory
+     */
+    boolean contains(IWeapon weapon) {
+        return weapons.contains(weapon);
+    }
+
+    int size() {
+        return weapons.size();
+    }
+
+    boolean isEmpty() {
+        return weapons.isEmpty();
+    }
+
+    /**
+     * Gets an unmodifiable list with every weapon of the inventory
+     */
+    List<IWeapon> asList() {
+        return weapons.asList();
+    }
+
+    /**
+     * Gets an unmodifiable list with the weapons of a class
+     * @param weaponClass
+     *      The class of the weapons
+     */
+    synchronized List<IWeapon> ofClass(String weaponClass) {
+        ClassIndex index = classes.get(weaponClass);
+        return index == null ? Collections.emptyList() : index.members.asList();
+    }
+
+    /**
+     * Gets the weapon of a class with the highest value of a stat.
+     * Between weapons with the same value the one created last is chosen
+     * @param weaponClass
+     *      The class of the weapon
+     * @param stat
+     *      The stat to compare
+     * @return
+     *      The best weapon, or null if there are no weapons of that class
+     */
+    synchronized IWeapon best(String weaponClass, WeaponStat stat) {
+        ClassIndex index = classes.get(weaponClass);
+        if (index == null || index.members.isEmpty()) {
+            return null;
+        }
+        return index.best(stat);
+    }
+
+    /**
+     * Gets the weapons of a class with a stat between two values, sorted by that stat
+     * @param weaponClass
+     *      The class of the weapons, or null for every class
+     * @param stat
+     *      The stat to look at
+     * @param min
+     *      The lowest value of the stat, included
+     * @param max
+     *      The highest value of the stat, included
+     * @return
+     *      An unmodifiable list with the weapons in the range
+     */
+    synchronized List<IWeapon> inRange(String weaponClass, WeaponStat stat, int min, int max) {
+        if (min > max) {
+            return Collections.emptyList();
+        }
+        List<IWeapon> result = new ArrayList<>();
+        if (weaponClass != null) {
+            ClassIndex index = classes.get(weaponClass);
+            if (index != null) {
+                index.addRange(result, stat, min, max);
+            }
+        } else {
+            for (ClassIndex index : classes.values()) {
+                index.addRange(result, stat, min, max);
+            }
+            // Every class is already sorted, they only have to be merged
+            result.sort(Comparator.<IWeapon>comparingInt(stat::of).thenComparingInt(IWeapon::getId));
+        }
+        return Collections.unmodifiableList(result);
+    }
+
+    /**
+     * Gets the key of a weapon in the maps sorted by a stat.
+     * The id breaks ties, so weapons with the same stats are never merged
+     */
+    private static long key(int value, int id) {
+        return ((long) value << 32) + id;
+    }
+
+    /**
+     * The weapons of one class, also sorted by every stat
+     */
+    private static final class ClassIndex {
+        private final Roster<IWeapon> members = new Roster<>(IWeapon::getId);
+        private final Map<WeaponStat, NavigableMap<Long, IWeapon>> sorted = new EnumMap<>(WeaponStat.class);
+
+        private ClassIndex() {
+            for (WeaponStat stat : WeaponStat.values()) {
+                sorted.put(stat, new TreeMap<>());
+            }
+        }
+
+        private void add(IWeapon weapon) {
+            members.add(weapon);
+            for (Map.Entry<WeaponStat, NavigableMap<Long, IWeapon>> entry : sorted.entrySet()) {
+                entry.getValue().put(key(entry.getKey().of(weapon), weapon.getId()), weapon);
+            }
+        }
+
+        private void remove(IWeapon weapon) {
+            members.remove(weapon);
+            for (Map.Entry<WeaponStat, NavigableMap<Long, IWeapon>> entry : sorted.entrySet()) {
+                entry.getValue().remove(key(entry.getKey().of(weapon), weapon.getId()));
+            }
+        }
+
+        private IWeapon best(WeaponStat stat) {
+            return sorted.get(stat).lastEntry().getValue();
+        }
+
+        private void addRange(List<IWeapon> result, WeaponStat stat, int min, int max) {
+            result.addAll(sorted.get(stat).subMap(key(min, 0), true, key(max, Integer.MAX_VALUE), true).values());
+        }
+    }
+}
@@ -0,0 +1,142 @@
+package com.github.ylinker.finalreality.controller;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.ToIntFunction;
+
+/**
+ * A roster of characters or weapons indexed by their ids.
+ * The members are kept in an array without holes, and every id knows its member's slot, so adding,
+ * removing and looking up a member are O(1) and never compare names.
+ * Removing a member moves the last member to its slot, so the order of the roster changes on removals.
+ *
+ * @param <T>
+ *      The type of the members of the roster
+ * @author Yuval Linker
+ */
+final class Roster<T> {
+    private static final int ABSENT = -1;
+
+    private final ToIntFunction<? super T> ids;
+    private Object[] members = new Object[8];
+    private int[] slots = new int[0];
+    private int size;
+    private volatile List<T> view = Collections.emptyList();
+
+    /**
+     * Creates an empty roster
+     * @param ids
+     *      Gives the id of a member, given by its controller
+     */
+    Roster(ToIntFunction<? super T> ids) {
+        this.ids = ids;
+    }
+
+    /**
+     * Adds a member to the roster. The member must have an id
+     * @param member
+     *      The member to add
+     */
+    synchronized void add(T member) {
+        int id = ids.applyAsInt(member);
+        if (id >= slots.length) {
+            int oldLength = slots.length;
+            slots = Arrays.copyOf(slots, Math.max(id + 1, oldLength * 2));
+            Arrays.fill(slots, oldLength, slots.length, ABSENT);
+        }
+        if (slots[id] != ABSENT) {
+            return;
+        }
+        if (size == members.length) {
+            members = Arrays.copyOf(members, size * 2);
+        }
+        members[size] = member;
+        slots[id] = size++;
+        view = null;
+    }
+
+    /**
+     * Removes a member from the roster, moving the last member to its slot
+     * @param member
+     *      The member to remove
+     * @return
+     *      true if the member was in the roster
+     */
+    @SuppressWarnings("unchecked")
+    synchronized boolean remove(T member) {
+        int slot = slotOf(member);
+        if (slot == ABSENT) {
+            return false;
+        }
+        T last = (T) members[--size];
+        members[slot] = last;
+        slots[ids.applyAsInt(last)] = slot;
+        members[size] = null;
+        slots[ids.applyAsInt(member)] = ABSENT;
+        view = null;
+        return true;
+    }
+
+    /**
+     * Checks if this exact member is in the roster
+     */
+    synchronized boolean contains(T member) {
+        return slotOf(member) != ABSENT;
+    }
+
+    /**
+     * Gets the member in a slot of the roster
+     * @param index
+     *      The slot, from 0 to the size of the roster
+     */
+    @SuppressWarnings("unchecked")
+    synchronized T get(int index) {
+        if (index >= size) {
+            throw new IndexOutOfBoundsException("Index " + index + " out of bounds for length " + size);
+        }
+        return (T) members[index];
+    }
+
+    synchronized int size() {
+        return size;
+    }
+
+    synchronized boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Gets an unmodifiable list with the members of the roster.
+     * The list doesn't change when the roster does, so it can be iterated without any lock.
+     * It's only copied again the first time it's asked for after a change
+     */
+    @SuppressWarnings("unchecked")
+    List<T> asList() {
+        List<T> list = view;
+        if (list == null) {
+            synchronized (this) {
+                list = view;
+                if (list == null) {
+                    List<?> copy = Arrays.asList(Arrays.copyOf(members, size));
+                    list = (List<T>) Collections.unmodifiableList(copy);
+                    view = list;
+                }
+            }
+        }
+        return list;
+    }
+
+    private int slotOf(T member) {
+        if (member == null) {
+            return ABSENT;
+        }
+        int id = ids.applyAsInt(member);
+        if (id < 0 || id >= slots.length) {
+            return ABSENT;
+        }
+        int slot = slots[id];
+        // Another controller may have given the same id to a different member
+        return slot != ABSENT && members[slot] == member ? slot : ABSENT;
+    }
+}
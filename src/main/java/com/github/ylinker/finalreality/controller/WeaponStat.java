@@ -0,0 +1,48 @@
+package com.github.ylinker.finalreality.controller;
+
+import com.github.ylinker.finalreality.model.weapon.IWeapon;
+import com.github.ylinker.finalreality.model.weapon.Staff;
+
+/**
+ * A stat of the weapons by which the inventory is indexed
+ *
+ * @author Yuval Linker
+ */
+public enum WeaponStat {
+    /**
+     * The weapon's damage
+     */
+    DAMAGE {
+        @Override
+        public int of(IWeapon weapon) {
+            return weapon.getDamage();
+        }
+    },
+    /**
+     * The weapon's weight
+     */
+    WEIGHT {
+        @Override
+        public int of(IWeapon weapon) {
+            return weapon.getWeight();
+        }
+    },
+    /**
+     * The staff's magic damage. It's 0 for every other weapon
+     */
+    MAGIC_DAMAGE {
+        @Override
+        public int of(IWeapon weapon) {
+            return weapon instanceof Staff ? ((Staff) weapon).getMagicDamage() : 0;
+        }
+    };
+
+    /**
+     * Gets this stat of a weapon
+     * @param weapon
+     *      The weapon
+     * @return
+     *      The weapon's value of this stat
+     */
+    public abstract int of(IWeapon weapon);
+}
@@ -0,0 +1,21 @@
+package com.github.ylinker.finalreality.controller.handler;
+
+/**
+ * The events that a character can publish
+ *
+ * @author Yuval Linker
+ */
+public enum CharacterEvent {
+    /**
+     * The character's health reached 0
+     */
+    DEATH,
+    /**
+     * The character's turn began
+     */
+    BEGIN_TURN,
+    /**
+     * The character's health, attack or weight changed
+     */
+    STATS_CHANGED
+}
@@ -1,15 +1,13 @@
 package com.github.ylinker.finalreality.controller.handler;
 
 import com.github.ylinker.finalreality.controller.GameController;
-import com.github.ylinker.finalreality.controller.handler.IEventHandler;
+import com.github.ylinker.finalreality.controller.jfr.DeathEvent;
 import com.github.ylinker.finalreality.model.character.Enemy;
 
-import java.beans.PropertyChangeEvent;
-
 /**
  * Observer for the event of an enemy dying
  */
-public class EnemyDeadHandler implements IEventHandler {
+public class EnemyDeadHandler implements IEventHandler<Enemy> {
     private final GameController controller;
 
     /**
@@ -22,10 +20,19 @@ public class EnemyDeadHandler implements IEventHandler {
     }
 
     @Override
-    public void propertyChange(PropertyChangeEvent evt) {
-        controller.onEnemyDeath((Enemy) evt.getNewValue());
+    public void handle(Enemy enemy) {
+        DeathEvent event = new DeathEvent();
+        event.begin();
+        controller.onEnemyDeath(enemy);
         if (controller.winCondition()) {
             controller.playerWon();
         }
+        event.end();
+        if (event.shouldCommit()) {
+            event.character = enemy.getName();
+            event.characterId = enemy.getId();
+            event.enemy = true;
+            event.commit();
+        }
     }
 }
@@ -1,17 +1,16 @@
 package com.github.ylinker.finalreality.controller.handler;
 
 import com.github.ylinker.finalreality.controller.GameController;
-import com.github.ylinker.finalreality.controller.handler.IEventHandler;
+import com.github.ylinker.finalreality.controller.jfr.TurnStartEvent;
 import com.github.ylinker.finalreality.controller.phase.SelectAttackingTargetPhase;
 import com.github.ylinker.finalreality.model.character.Enemy;
 
-import java.beans.PropertyChangeEvent;
 import java.util.Random;
 
 /**
  * Observer for the event of an enemy's turn beginning
  */
-public class EnemyTurnHandler implements IEventHandler {
+public class EnemyTurnHandler implements IEventHandler<Enemy> {
     private Random random;
     private long seed;
     private final GameController controller;
@@ -26,11 +25,16 @@ public class EnemyTurnHandler implements IEventHandler {
     }
 
     @Override
-    public void propertyChange(PropertyChangeEvent evt) {
-        Enemy enemy = (Enemy) evt.getNewValue();
-
+    public void handle(Enemy enemy) {
         controller.toAttackPhase();
         controller.setPhaseCharacter(enemy);
+        TurnStartEvent event = new TurnStartEvent();
+        if (event.shouldCommit()) {
+            event.character = enemy.getName();
+            event.characterId = enemy.getId();
+            event.enemy = true;
+            event.commit();
+        }
         controller.enemyTurnStarted();
     }
 }
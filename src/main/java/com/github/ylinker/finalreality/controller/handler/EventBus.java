@@ -0,0 +1,73 @@
+package com.github.ylinker.finalreality.controller.handler;
+
+import com.github.ylinker.finalreality.model.character.ICharacter;
+
+import java.util.Arrays;
+
+/**
+ * @author Yuval Linker
+ *
+ * Delivers the events of a kind of character to its handlers.
+ * A controller has one bus for every kind of character and every character of that kind
+ * publishes to it, so the characters don't keep their own listeners.
+ *
+ * Handlers are kept in one array per event, copied when a handler subscribes.
+ * Publishing an event only goes through that array, it doesn't allocate anything.
+ * @param <T>
+ *      The type of character that publishes to this bus
+ */
+public class EventBus<T extends ICharacter> {
+    private static final int EVENTS = CharacterEvent.values().length;
+
+    private volatile IEventHandler<? super T>[][] handlers;
+
+    /**
+     * Creates a bus with no handlers
+     */
+    public EventBus() {
+        @SuppressWarnings("unchecked")
+        IEventHandler<? super T>[][] empty = (IEventHandler<? super T>[][]) new IEventHandler<?>[EVENTS][0];
+        handlers = empty;
+    }
+
+    /**
+     * Adds a handler for an event
+     * @param event
+     *      The event to handle
+     * @param handler
+     *      The handler
+     */
+    public synchronized void subscribe(CharacterEvent event, IEventHandler<? super T> handler) {
+        IEventHandler<? super T>[][] copy = handlers.clone();
+        IEventHandler<? super T>[] eventHandlers = copy[event.ordinal()];
+        eventHandlers = Arrays.copyOf(eventHandlers, eventHandlers.length + 1);
+        eventHandlers[eventHandlers.length - 1] = handler;
+        copy[event.ordinal()] = eventHandlers;
+        handlers = copy;
+    }
+
+    /**
+     * Calls every handler of an event
+     * @param event
+     *      The event that happened
+     * @param character
+     *      The character the event happened to
+     */
+    public void publish(CharacterEvent event, T character) {
+        IEventHandler<? super T>[] eventHandlers = handlers[event.ordinal()];
+        for (int i = 0; i < eventHandlers.length; i++) {
+            eventHandlers[i].handle(character);
+        }
+    }
+
+    /**
+     * Gets the amount of handlers of an event
+     * @param event
+     *      The event
+     * @return
+     *      The amount of handlers subscribed to it
+     */
+    public int getHandlerCount(CharacterEvent event) {
+        return handlers[event.ordinal()].length;
+    }
+}
@@ -1,10 +1,18 @@
 package com.github.ylinker.finalreality.controller.handler;
 
-import java.beans.PropertyChangeListener;
+import com.github.ylinker.finalreality.model.character.ICharacter;
 
 /**
  * Event Handler Interface.
  * Only purpose is to encapsulate every Observer
+ * @param <T>
+ *      The type of character whose events are handled
  */
-public interface IEventHandler extends PropertyChangeListener {
+public interface IEventHandler<T extends ICharacter> {
+    /**
+     * Handles an event published by a character
+     * @param character
+     *      The character that published the event
+     */
+    void handle(T character);
 }
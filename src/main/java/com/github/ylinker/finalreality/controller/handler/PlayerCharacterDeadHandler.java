@@ -1,15 +1,13 @@
 package com.github.ylinker.finalreality.controller.handler;
 
 import com.github.ylinker.finalreality.controller.GameController;
-import com.github.ylinker.finalreality.controller.handler.IEventHandler;
+import com.github.ylinker.finalreality.controller.jfr.DeathEvent;
 import com.github.ylinker.finalreality.model.character.IPlayerCharacter;
 
-import java.beans.PropertyChangeEvent;
-
 /**
  * Observer for the event of a Player Character Dying
  */
-public class PlayerCharacterDeadHandler implements IEventHandler {
+public class PlayerCharacterDeadHandler implements IEventHandler<IPlayerCharacter> {
     private final GameController controller;
 
     /**
@@ -22,10 +20,19 @@ public class PlayerCharacterDeadHandler implements IEventHandler {
     }
 
     @Override
-    public void propertyChange(PropertyChangeEvent evt) {
-        controller.onCharacterDeath((IPlayerCharacter) evt.getNewValue());
+    public void handle(IPlayerCharacter character) {
+        DeathEvent event = new DeathEvent();
+        event.begin();
+        controller.onCharacterDeath(character);
         if (controller.loseCondition()) {
             controller.playerLost();
         }
+        event.end();
+        if (event.shouldCommit()) {
+            event.character = character.getName();
+            event.characterId = character.getId();
+            event.enemy = false;
+            event.commit();
+        }
     }
 }
@@ -1,14 +1,13 @@
 package com.github.ylinker.finalreality.controller.handler;
 
 import com.github.ylinker.finalreality.controller.GameController;
+import com.github.ylinker.finalreality.controller.jfr.TurnStartEvent;
 import com.github.ylinker.finalreality.model.character.IPlayerCharacter;
 
-import java.beans.PropertyChangeEvent;
-
 /**
  * The Observer for the event of the player character's turn beginning
  */
-public class PlayerCharacterTurnHandler implements IEventHandler {
+public class PlayerCharacterTurnHandler implements IEventHandler<IPlayerCharacter> {
     private final GameController controller;
 
     /**
@@ -21,11 +20,17 @@ public class PlayerCharacterTurnHandler implements IEventHandler {
     }
 
     @Override
-    public void propertyChange(PropertyChangeEvent evt) {
-        IPlayerCharacter character = (IPlayerCharacter) evt.getNewValue();
+    public void handle(IPlayerCharacter character) {
         if(controller.getCurrentTurnCharacter() == character) {
             controller.toActionPhase();
             controller.setPhaseCharacter(character);
+            TurnStartEvent event = new TurnStartEvent();
+            if (event.shouldCommit()) {
+                event.character = character.getName();
+                event.characterId = character.getId();
+                event.enemy = false;
+                event.commit();
+            }
             controller.turnStarted();
         }
     }
@@ -0,0 +1,33 @@
+package com.github.ylinker.finalreality.controller.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * @author Yuval Linker
+ *
+ * An attack resolved by the controller, including the death of the target if it died.
+ */
+@Name("finalreality.Attack")
+@Label("Attack")
+@Category({"Final Reality", "Combat"})
+@Description("A character attacked another one")
+@StackTrace(false)
+public final class AttackEvent extends jdk.jfr.Event {
+    @Label("Attacker")
+    public String attacker;
+
+    @Label("Target")
+    public String target;
+
+    @Label("Damage")
+    @Description("The damage done, or -1 if the attacker was dead")
+    public int damage;
+
+    @Label("Target Health")
+    @Description("The target's health after the attack")
+    public int targetHealth;
+}
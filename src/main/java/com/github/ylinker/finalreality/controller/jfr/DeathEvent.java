@@ -0,0 +1,29 @@
+package com.github.ylinker.finalreality.controller.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * @author Yuval Linker
+ *
+ * The handler of a character's death removed it from the game.
+ */
+@Name("finalreality.Death")
+@Label("Death")
+@Category({"Final Reality", "Combat"})
+@Description("A character died and was removed from the game")
+@StackTrace(false)
+public final class DeathEvent extends jdk.jfr.Event {
+    @Label("Character")
+    public String character;
+
+    @Label("Character Id")
+    public int characterId;
+
+    @Label("Enemy")
+    @Description("Whether the character is controlled by the computer")
+    public boolean enemy;
+}
@@ -0,0 +1,32 @@
+package com.github.ylinker.finalreality.controller.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * @author Yuval Linker
+ *
+ * A character tried to equip a weapon of the inventory.
+ */
+@Name("finalreality.Equip")
+@Label("Equip")
+@Category({"Final Reality", "Combat"})
+@Description("A character tried to equip a weapon")
+@StackTrace(false)
+public final class EquipEvent extends jdk.jfr.Event {
+    @Label("Character")
+    public String character;
+
+    @Label("Weapon")
+    public String weapon;
+
+    @Label("Weapon Class")
+    public String weaponClass;
+
+    @Label("Equipped")
+    @Description("Whether the weapon was in the inventory and the character could equip it")
+    public boolean equipped;
+}
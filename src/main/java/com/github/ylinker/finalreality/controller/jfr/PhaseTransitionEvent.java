@@ -0,0 +1,29 @@
+package com.github.ylinker.finalreality.controller.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * @author Yuval Linker
+ *
+ * The controller was asked to change the phase of the turn.
+ */
+@Name("finalreality.PhaseTransition")
+@Label("Phase Transition")
+@Category({"Final Reality", "Turns"})
+@Description("A transition between the phases of a turn was asked for")
+@StackTrace(false)
+public final class PhaseTransitionEvent extends jdk.jfr.Event {
+    @Label("Transition")
+    public String transition;
+
+    @Label("From")
+    public String from;
+
+    @Label("To")
+    @Description("The new phase, or null if the transition isn't valid from the current one")
+    public String to;
+}
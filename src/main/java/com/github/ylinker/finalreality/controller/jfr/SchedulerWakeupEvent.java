@@ -0,0 +1,43 @@
+package com.github.ylinker.finalreality.controller.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+/**
+ * @author Yuval Linker
+ *
+ * A character's waiting time ended and the scheduler brought it back to the queue.
+ * The difference between the delay it had to wait and the time it really waited is the scheduler's lateness,
+ * in the scheduler's clock (which for a virtual scheduler isn't real time).
+ */
+@Name("finalreality.SchedulerWakeup")
+@Label("Scheduler Wakeup")
+@Category({"Final Reality", "Scheduler"})
+@Description("A waiting character was brought back to the queue")
+@StackTrace(false)
+public final class SchedulerWakeupEvent extends jdk.jfr.Event {
+    @Label("Character")
+    public String character;
+
+    @Label("Character Id")
+    public int characterId;
+
+    @Label("Delay")
+    @Description("The time the character had to wait")
+    @Timespan(Timespan.NANOSECONDS)
+    public long delay;
+
+    @Label("Waited")
+    @Description("The time that passed until the scheduler brought it back")
+    @Timespan(Timespan.NANOSECONDS)
+    public long waited;
+
+    @Label("Lateness")
+    @Description("How much longer than its delay the character waited")
+    @Timespan(Timespan.NANOSECONDS)
+    public long lateness;
+}
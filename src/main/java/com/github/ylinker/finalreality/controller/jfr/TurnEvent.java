@@ -0,0 +1,30 @@
+package com.github.ylinker.finalreality.controller.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * @author Yuval Linker
+ *
+ * A character's turn, from the moment the controller begins it until the character attacks.
+ * For the player's characters it includes the time the player took to choose.
+ */
+@Name("finalreality.Turn")
+@Label("Turn")
+@Category({"Final Reality", "Turns"})
+@Description("A character's turn, from its beginning until its attack")
+@StackTrace(false)
+public final class TurnEvent extends jdk.jfr.Event {
+    @Label("Character")
+    public String character;
+
+    @Label("Character Id")
+    public int characterId;
+
+    @Label("Enemy")
+    @Description("Whether the character is controlled by the computer")
+    public boolean enemy;
+}
@@ -0,0 +1,29 @@
+package com.github.ylinker.finalreality.controller.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * @author Yuval Linker
+ *
+ * The handler of a character's turn started it, asking the player or the computer what to do.
+ */
+@Name("finalreality.TurnStart")
+@Label("Turn Start")
+@Category({"Final Reality", "Turns"})
+@Description("A turn handler started a character's turn")
+@StackTrace(false)
+public final class TurnStartEvent extends jdk.jfr.Event {
+    @Label("Character")
+    public String character;
+
+    @Label("Character Id")
+    public int characterId;
+
+    @Label("Enemy")
+    @Description("Whether the character is controlled by the computer")
+    public boolean enemy;
+}
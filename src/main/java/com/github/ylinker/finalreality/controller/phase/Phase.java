@@ -4,16 +4,28 @@ import com.github.ylinker.finalreality.controller.GameController;
 import com.github.ylinker.finalreality.controller.phase.exceptions.InvalidActionException;
 import com.github.ylinker.finalreality.controller.phase.exceptions.InvalidTransitionException;
 import com.github.ylinker.finalreality.model.character.ICharacter;
+import com.github.ylinker.finalreality.model.character.IPlayerCharacter;
 import com.github.ylinker.finalreality.model.weapon.IWeapon;
 
 /**
  * @author Yuval Linker
  *
  * Class that represents a generic turn Phase.
+ * The controller keeps its phase as a {@link TurnState} and changes it with status codes.
+ * A phase is the exception based view of one of those states, where every invalid transition
+ * or action throws. The controller keeps one phase per state, so a phase can be kept after its
+ * controller moved to another state: it only acts while it's the controller's current phase.
  */
-public class Phase {
+public abstract class Phase {
     protected GameController controller;
-    protected ICharacter character;
+    private ICharacter character;
+
+    /**
+     * Gets the state of the turn that this phase represents
+     * @return
+     *      The phase's state
+     */
+    public abstract TurnState getState();
 
     /**
      * Game Controller setter
@@ -24,13 +36,21 @@ public class Phase {
         this.controller = controller;
     }
 
+    private boolean isCurrent() {
+        return controller != null && controller.getPhase() == this;
+    }
+
     /**
      * Character setter
      * @param character
      *      The current turn character
      */
     public void setCharacter(ICharacter character) {
-        this.character = character;
+        if (isCurrent()) {
+            controller.setPhaseCharacter(character);
+        } else {
+            this.character = character;
+        }
     }
 
     /**
@@ -48,16 +68,19 @@ public class Phase {
      *      The current turn's character.
      */
     public ICharacter getCharacter() {
-        return character;
+        return isCurrent() ? controller.getPhaseCharacter() : character;
     }
 
-    /**
-     * Changes the controller's phase
-     * @param phase
-     *      The phase that is being transitioned to
-     */
-    protected void changePhase(Phase phase) {
-        controller.setPhase(phase);
+    private void change(Transition transition, String message) throws InvalidTransitionException {
+        if (controller == null) {
+            throw new InvalidTransitionException(message);
+        }
+        synchronized (controller) {
+            if (!isCurrent() || getState().next(transition) == null
+                    || controller.changePhase(transition) != PhaseStatus.OK) {
+                throw new InvalidTransitionException(message);
+            }
+        }
     }
 
     /**
@@ -66,7 +89,7 @@ public class Phase {
      *      When it is an invalid transition
      */
     public void toBeginTurnPhase() throws InvalidTransitionException {
-        throw new InvalidTransitionException("Can't change to beginning turn phase");
+        change(Transition.TO_BEGIN_TURN, "Can't change to beginning turn phase");
     }
 
     /**
@@ -75,7 +98,7 @@ public class Phase {
      *      When it is an invalid transition
      */
     public void toSelectAttackingTargetPhase() throws InvalidTransitionException {
-        throw new InvalidTransitionException("Can't change to attacking turn phase");
+        change(Transition.TO_ATTACK, "Can't change to attacking turn phase");
     }
 
     /**
@@ -84,7 +107,7 @@ public class Phase {
      *      When it is an invalid transition
      */
     public void toSelectWeaponPhase() throws InvalidTransitionException {
-        throw new InvalidTransitionException("Can't change to equipping weapon phase");
+        change(Transition.TO_EQUIP, "Can't change to equipping weapon phase");
     }
 
     /**
@@ -93,7 +116,7 @@ public class Phase {
      *      When it is an invalid transition
      */
     public void toSelectActionPhase() throws InvalidTransitionException {
-        throw new InvalidTransitionException("Can't change to select action phase");
+        change(Transition.TO_ACTION, "Can't change to select action phase");
     }
 
     /**
@@ -103,9 +126,18 @@ public class Phase {
      * @throws InvalidActionException
      *      When attacking is not a valid action in the current phase
      * @return
+     *      The damage done
      */
     public int selectTarget(ICharacter character) throws InvalidActionException {
-        throw new InvalidActionException("Can't select a target to attack in this phase");
+        if (controller == null) {
+            throw new InvalidActionException("Can't select a target to attack in this phase");
+        }
+        synchronized (controller) {
+            if (!isCurrent() || !getState().canSelectTarget()) {
+                throw new InvalidActionException("Can't select a target to attack in this phase");
+            }
+            return controller.attack(getCharacter(), character);
+        }
     }
 
     /**
@@ -116,7 +148,15 @@ public class Phase {
      *      When equipping is not a valid action in the current phase
      */
     public void selectWeapon(IWeapon weapon) throws InvalidActionException {
-        throw new InvalidActionException("Can't select a weapon to equip in this phase");
+        if (controller == null) {
+            throw new InvalidActionException("Can't select a weapon to equip in this phase");
+        }
+        synchronized (controller) {
+            if (!isCurrent() || !getState().canSelectWeapon()) {
+                throw new InvalidActionException("Can't select a weapon to equip in this phase");
+            }
+            controller.equip((IPlayerCharacter) getCharacter(), weapon);
+        }
     }
 
     /**
@@ -124,6 +164,14 @@ public class Phase {
      * If it's not a valid phase to start a turn then it does nothing.
      */
     public void beginTurn() {
+        if (controller == null) {
+            return;
+        }
+        synchronized (controller) {
+            if (isCurrent() && getState().canBeginTurn()) {
+                controller.beginTurn();
+            }
+        }
     }
 
     /**
@@ -132,6 +180,6 @@ public class Phase {
      *      When going back is not a valid transition
      */
     public void goBack() throws InvalidTransitionException {
-        throw new InvalidTransitionException("Can't go to a previous phase");
+        change(Transition.GO_BACK, "Can't go to a previous phase");
     }
 }
@@ -0,0 +1,21 @@
+package com.github.ylinker.finalreality.controller.phase;
+
+/**
+ * The result of asking the controller for a phase transition or an action
+ *
+ * @author Yuval Linker
+ */
+public enum PhaseStatus {
+    /**
+     * The transition or action was done
+     */
+    OK,
+    /**
+     * The transition can't be done from the current phase
+     */
+    INVALID_TRANSITION,
+    /**
+     * The action can't be done in the current phase
+     */
+    INVALID_ACTION
+}
@@ -0,0 +1,14 @@
+package com.github.ylinker.finalreality.controller.phase;
+
+/**
+ * The phase transitions that the player can ask the controller for
+ *
+ * @author Yuval Linker
+ */
+public enum Transition {
+    TO_EQUIP,
+    TO_ATTACK,
+    TO_ACTION,
+    GO_BACK,
+    TO_BEGIN_TURN
+}
@@ -0,0 +1,104 @@
+package com.github.ylinker.finalreality.controller.phase;
+
+/**
+ * @author Yuval Linker
+ *
+ * The states of a character's turn. The phase of a controller is one of these states, and the
+ * transitions between them are looked up in a table built once, so changing phase doesn't
+ * allocate or throw. The {@link Phase} classes are kept on top of them for the old API.
+ */
+public enum TurnState {
+    BEGIN_TURN(false, false, true),
+    SELECT_ACTION(false, false, false),
+    SELECT_WEAPON(false, true, false),
+    SELECT_ATTACKING_TARGET(true, false, false);
+
+    static {
+        BEGIN_TURN.allow(Transition.TO_ATTACK, SELECT_ATTACKING_TARGET);
+        BEGIN_TURN.allow(Transition.TO_ACTION, SELECT_ACTION);
+        SELECT_ACTION.allow(Transition.TO_ATTACK, SELECT_ATTACKING_TARGET);
+        SELECT_ACTION.allow(Transition.TO_EQUIP, SELECT_WEAPON);
+        SELECT_WEAPON.allow(Transition.TO_ACTION, SELECT_ACTION);
+        SELECT_WEAPON.allow(Transition.GO_BACK, SELECT_ACTION);
+        SELECT_ATTACKING_TARGET.allow(Transition.GO_BACK, SELECT_ACTION);
+        SELECT_ATTACKING_TARGET.allow(Transition.TO_BEGIN_TURN, BEGIN_TURN);
+    }
+
+    private final TurnState[] next = new TurnState[Transition.values().length];
+    private final boolean canSelectTarget;
+    private final boolean canSelectWeapon;
+    private final boolean canBeginTurn;
+
+    TurnState(boolean canSelectTarget, boolean canSelectWeapon, boolean canBeginTurn) {
+        this.canSelectTarget = canSelectTarget;
+        this.canSelectWeapon = canSelectWeapon;
+        this.canBeginTurn = canBeginTurn;
+    }
+
+    private void allow(Transition transition, TurnState state) {
+        next[transition.ordinal()] = state;
+    }
+
+    /**
+     * Looks up where a transition goes from this state
+     * @param transition
+     *      The transition
+     * @return
+     *      The next state, or null if the transition is not valid from this state
+     */
+    public TurnState next(Transition transition) {
+        return next[transition.ordinal()];
+    }
+
+    /**
+     * Checks if the turn's character stays the same when going to another state.
+     * The character is set by the controller after leaving the begin turn state, and
+     * there is no character when going back to it.
+     * @param state
+     *      The next state
+     * @return
+     *      True if the next state keeps the character, False otherwise
+     */
+    public boolean keepsCharacter(TurnState state) {
+        return this != BEGIN_TURN && state != BEGIN_TURN;
+    }
+
+    /**
+     * Checks if a target can be attacked in this state
+     */
+    public boolean canSelectTarget() {
+        return canSelectTarget;
+    }
+
+    /**
+     * Checks if a weapon can be equipped in this state
+     */
+    public boolean canSelectWeapon() {
+        return canSelectWeapon;
+    }
+
+    /**
+     * Checks if a character's turn can begin in this state
+     */
+    public boolean canBeginTurn() {
+        return canBeginTurn;
+    }
+
+    /**
+     * Creates the phase object of this state, for the classes that use the old phase API
+     * @return
+     *      A new phase
+     */
+    public Phase createPhase() {
+        switch (this) {
+            case SELECT_ACTION:
+                return new SelectActionPhase();
+            case SELECT_WEAPON:
+                return new SelectWeaponPhase();
+            case SELECT_ATTACKING_TARGET:
+                return new SelectAttackingTargetPhase();
+            default:
+                return new BeginTurnPhase();
+        }
+    }
+}
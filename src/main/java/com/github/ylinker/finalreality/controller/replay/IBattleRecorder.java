@@ -0,0 +1,89 @@
+package com.github.ylinker.finalreality.controller.replay;
+
+import com.github.ylinker.finalreality.controller.phase.Transition;
+import com.github.ylinker.finalreality.model.character.ICharacter;
+import com.github.ylinker.finalreality.model.character.IPlayerCharacter;
+import com.github.ylinker.finalreality.model.weapon.IWeapon;
+
+import java.util.List;
+
+/**
+ * Receives everything that happens in a battle, in the order it happens.
+ * The controller only reports the commands it was given and the characters the scheduler brought back.
+ * What the controller does by itself in reaction to those (like beginning a turn) isn't reported,
+ * since giving the same commands to another controller makes it react the same way.
+ *
+ * The controller calls the recorder while holding its lock, so it's never called by two threads at once.
+ *
+ * @author Yuval Linker
+ */
+public interface IBattleRecorder {
+    /**
+     * A character was created and added to its roster
+     * @param character
+     *      The new character
+     */
+    void characterCreated(ICharacter character);
+
+    /**
+     * A weapon was created and added to the inventory
+     * @param weapon
+     *      The new weapon
+     */
+    void weaponCreated(IWeapon weapon);
+
+    /**
+     * A weapon of the inventory was equipped to a character
+     * @param character
+     *      The character
+     * @param weapon
+     *      The weapon it equipped
+     */
+    void weaponEquipped(IPlayerCharacter character, IWeapon weapon);
+
+    /**
+     * The turns started with every character in the queue
+     * @param order
+     *      The characters in the order they were queued
+     * @param readyTime
+     *      The time at which all of them were ready
+     */
+    void turnsStarted(List<? extends ICharacter> order, long readyTime);
+
+    /**
+     * A character was added to the turns queue
+     * @param character
+     *      The character
+     * @param readyTime
+     *      The time at which it became ready
+     */
+    void characterQueued(ICharacter character, long readyTime);
+
+    /**
+     * The phase changed because the player asked for it
+     * @param transition
+     *      The transition that was made
+     */
+    void phaseChanged(Transition transition);
+
+    /**
+     * A weapon was selected in the equip phase
+     * @param weapon
+     *      The weapon
+     */
+    void weaponSelected(IWeapon weapon);
+
+    /**
+     * A character was selected as the target of an attack
+     * @param target
+     *      The attacked character
+     */
+    void targetSelected(ICharacter target);
+
+    /**
+     * A random target was chosen for an enemy
+     * @param target
+     *      The chosen character
+     */
+    void randomTargetChosen(ICharacter target);
+}
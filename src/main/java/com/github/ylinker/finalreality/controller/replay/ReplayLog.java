@@ -0,0 +1,330 @@
+package com.github.ylinker.finalreality.controller.replay;
+
+import com.github.ylinker.finalreality.controller.phase.Transition;
+import com.github.ylinker.finalreality.model.character.Enemy;
+import com.github.ylinker.finalreality.model.character.ICharacter;
+import com.github.ylinker.finalreality.model.character.IPlayerCharacter;
+import com.github.ylinker.finalreality.model.character.player.common.Engineer;
+import com.github.ylinker.finalreality.model.character.player.common.Knight;
+import com.github.ylinker.finalreality.model.character.player.common.Thief;
+import com.github.ylinker.finalreality.model.character.player.mage.BlackMage;
+import com.github.ylinker.finalreality.model.character.player.mage.IMage;
+import com.github.ylinker.finalreality.model.character.player.mage.WhiteMage;
+import com.github.ylinker.finalreality.model.weapon.Axe;
+import com.github.ylinker.finalreality.model.weapon.Bow;
+import com.github.ylinker.finalreality.model.weapon.IWeapon;
+import com.github.ylinker.finalreality.model.weapon.Knife;
+import com.github.ylinker.finalreality.model.weapon.Staff;
+import com.github.ylinker.finalreality.model.weapon.Sword;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * @author Yuval Linker
+ *
+ * Records a battle in a binary file that {@link Replayer} can play again.
+ *
+ * Every record is an operation code followed by its values written as varints, so most records
+ * take two or three bytes. Characters and weapons are written as the order in which they were created,
+ * and times as the difference with the previous time in the log.
+ * Records are collected in a buffer that is written to the file when it fills up, when {@link #flush()}
+ * is called or when the log is closed. The file is only synced to the disk once, when it's closed.
+ */
+public class ReplayLog implements IBattleRecorder, Closeable {
+    static final int MAGIC = 0x46524c47;
+    static final int VERSION = 1;
+
+    static final byte CHARACTER = 1;
+    static final byte WEAPON = 2;
+    static final byte EQUIP = 3;
+    static final byte TURNS_STARTED = 4;
+    static final byte QUEUED = 5;
+    static final byte PHASE = 6;
+    static final byte SELECT_WEAPON = 7;
+    static final byte SELECT_TARGET = 8;
+    static final byte RANDOM_TARGET = 9;
+
+    static final byte KNIGHT = 0;
+    static final byte ENGINEER = 1;
+    static final byte THIEF = 2;
+    static final byte WHITE_MAGE = 3;
+    static final byte BLACK_MAGE = 4;
+    static final byte ENEMY = 5;
+
+    static final byte AXE = 0;
+    static final byte BOW = 1;
+    static final byte KNIFE = 2;
+    static final byte SWORD = 3;
+    static final byte STAFF = 4;
+
+    private static final int BUFFER_SIZE = 1 << 16;
+    /**
+     * The longest record that isn't a name or a list of characters
+     */
+    private static final int MAX_RECORD = 32;
+
+    private final FileChannel channel;
+    private final ByteBuffer buffer;
+    private final Map<ICharacter, Integer> characterIds = new IdentityHashMap<>();
+    private final Map<IWeapon, Integer> weaponIds = new IdentityHashMap<>();
+    private long lastTime;
+    private boolean closed;
+
+    /**
+     * Creates a log that writes to a file, replacing it if it exists
+     * @param file
+     *      The file of the log
+     * @throws IOException
+     *      If the file can't be opened
+     */
+    public ReplayLog(@NotNull Path file) throws IOException {
+        channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING);
+        buffer = ByteBuffer.allocate(BUFFER_SIZE);
+        buffer.putInt(MAGIC);
+        putVarInt(VERSION);
+    }
+
+    @Override
+    public synchronized void characterCreated(ICharacter character) {
+        byte kind = characterKind(character);
+        String name = character.getName();
+        reserve(MAX_RECORD);
+        buffer.put(CHARACTER);
+        buffer.put(kind);
+        putSignedVarInt(character.getHealth());
+        putSignedVarInt(character.getAttack());
+        putSignedVarInt(character.getDefense());
+        if (kind == ENEMY) {
+            putSignedVarInt(character.getWeight());
+        } else if (character instanceof IMage) {
+            putSignedVarInt(((IMage) character).getMana());
+        }
+        putString(name);
+        characterIds.put(character, characterIds.size());
+    }
+
+    @Override
+    public synchronized void weaponCreated(IWeapon weapon) {
+        byte kind = weaponKind(weapon);
+        reserve(MAX_RECORD);
+        buffer.put(WEAPON);
+        buffer.put(kind);
+        putSignedVarInt(weapon.getDamage());
+        putSignedVarInt(weapon.getWeight());
+        if (kind == STAFF) {
+            putSignedVarInt(((Staff) weapon).getMagicDamage());
+        }
+        putString(weapon.getName());
+        weaponIds.put(weapon, weaponIds.size());
+    }
+
+    @Override
+    public synchronized void weaponEquipped(IPlayerCharacter character, IWeapon weapon) {
+        reserve(MAX_RECORD);
+        buffer.put(EQUIP);
+        putVarInt(idOf(character));
+        putVarInt(idOf(weapon));
+    }
+
+    @Override
+    public synchronized void turnsStarted(List<? extends ICharacter> order, long readyTime) {
+        reserve(MAX_RECORD);
+        buffer.put(TURNS_STARTED);
+        putTime(readyTime);
+        putVarInt(order.size());
+        for (ICharacter character : order) {
+            reserve(5);
+            putVarInt(idOf(character));
+        }
+    }
+
+    @Override
+    public synchronized void characterQueued(ICharacter character, long readyTime) {
+        reserve(MAX_RECORD);
+        buffer.put(QUEUED);
+        putVarInt(idOf(character));
+        putTime(readyTime);
+    }
+
+    @Override
+    public synchronized void phaseChanged(Transition transition) {
+        reserve(2);
+        buffer.put(PHASE);
+        buffer.put((byte) transition.ordinal());
+    }
+
+    @Override
+    public synchronized void weaponSelected(IWeapon weapon) {
+        reserve(MAX_RECORD);
+        buffer.put(SELECT_WEAPON);
+        putVarInt(idOf(weapon));
+    }
+
+    @Override
+    public synchronized void targetSelected(ICharacter target) {
+        reserve(MAX_RECORD);
+        buffer.put(SELECT_TARGET);
+        putVarInt(idOf(target));
+    }
+
+    @Override
+    public synchronized void randomTargetChosen(ICharacter target) {
+        reserve(MAX_RECORD);
+        buffer.put(RANDOM_TARGET);
+        putVarInt(idOf(target));
+    }
+
+    /**
+     * Writes every buffered record to the file, without syncing it to the disk
+     * @throws IOException
+     *      If the file can't be written
+     */
+    public synchronized void flush() throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+
+    /**
+     * Writes the buffered records, syncs the file to the disk and closes it
+     * @throws IOException
+     *      If the file can't be written
+     */
+    @Override
+    public synchronized void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        try {
+            flush();
+            channel.force(false);
+        } finally {
+            channel.close();
+        }
+    }
+
+    private int idOf(ICharacter character) {
+        Integer id = characterIds.get(character);
+        if (id == null) {
+            throw new IllegalArgumentException(character.getName() + " wasn't created while recording");
+        }
+        return id;
+    }
+
+    private int idOf(IWeapon weapon) {
+        Integer id = weaponIds.get(weapon);
+        if (id == null) {
+            throw new IllegalArgumentException(weapon.getName() + " wasn't created while recording");
+        }
+        return id;
+    }
+
+    private static byte characterKind(ICharacter character) {
+        if (character instanceof Knight) {
+            return KNIGHT;
+        } else if (character instanceof Engineer) {
+            return ENGINEER;
+        } else if (character instanceof Thief) {
+            return THIEF;
+        } else if (character instanceof WhiteMage) {
+            return WHITE_MAGE;
+        } else if (character instanceof BlackMage) {
+            return BLACK_MAGE;
+        } else if (character instanceof Enemy) {
+            return ENEMY;
+        }
+        throw new IllegalArgumentException("Unknown character class " + character.getClass().getSimpleName());
+    }
+
+    private static byte weaponKind(IWeapon weapon) {
+        if (weapon instanceof Axe) {
+            return AXE;
+        } else if (weapon instanceof Bow) {
+            return BOW;
+        } else if (weapon instanceof Knife) {
+            return KNIFE;
+        } else if (weapon instanceof Sword) {
+            return SWORD;
+        } else if (weapon instanceof Staff) {
+            return STAFF;
+        }
+        throw new IllegalArgumentException("Unknown weapon class " + weapon.getClass().getSimpleName());
+    }
+
+    /**
+     * Makes sure the buffer has room for some bytes, writing it to the file if it doesn't
+     */
+    private void reserve(int bytes) {
+        if (closed) {
+            throw new IllegalStateException("The replay log is closed");
+        }
+        if (buffer.remaining() < bytes) {
+            try {
+                flush();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+
+    private void putTime(long time) {
+        long delta = time - lastTime;
+        lastTime = time;
+        putVarLong((delta << 1) ^ (delta >> 63));
+    }
+
+    private void putString(String value) {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        reserve(5 + bytes.length);
+        putVarInt(bytes.length);
+        if (bytes.length <= buffer.remaining()) {
+            buffer.put(bytes);
+            return;
+        }
+        // Longer than the whole buffer
+        try {
+            flush();
+            ByteBuffer name = ByteBuffer.wrap(bytes);
+            while (name.hasRemaining()) {
+                channel.write(name);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void putSignedVarInt(int value) {
+        putVarInt((value << 1) ^ (value >> 31));
+    }
+
+    private void putVarInt(int value) {
+        while ((value & ~0x7f) != 0) {
+            buffer.put((byte) ((value & 0x7f) | 0x80));
+            value >>>= 7;
+        }
+        buffer.put((byte) value);
+    }
+
+    private void putVarLong(long value) {
+        while ((value & ~0x7fL) != 0) {
+            buffer.put((byte) ((value & 0x7f) | 0x80));
+            value >>>= 7;
+        }
+        buffer.put((byte) value);
+    }
+}
@@ -0,0 +1,52 @@
+package com.github.ylinker.finalreality.controller.replay;
+
+import com.github.ylinker.finalreality.controller.scheduler.ITurnHandle;
+import com.github.ylinker.finalreality.controller.scheduler.ITurnScheduler;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Scheduler of a replayed battle.
+ * It never runs the turns it's given: characters get back to the queue when the log says so.
+ * Its clock is set by the replayer to the time written in the log.
+ *
+ * @author Yuval Linker
+ */
+class ReplayScheduler implements ITurnScheduler {
+    private long time;
+
+    @Override
+    public ITurnHandle schedule(Runnable command, long delay, TimeUnit unit) {
+        return new ITurnHandle() {
+            private boolean cancelled;
+
+            @Override
+            public void cancel() {
+                cancelled = true;
+            }
+
+            @Override
+            public boolean isDone() {
+                return cancelled;
+            }
+        };
+    }
+
+    @Override
+    public long currentTime() {
+        return time;
+    }
+
+    /**
+     * Moves the clock
+     * @param time
+     *      The new time in nanoseconds
+     */
+    void setTime(long time) {
+        this.time = time;
+    }
+
+    @Override
+    public void shutdown() {
+    }
+}
@@ -0,0 +1,279 @@
+package com.github.ylinker.finalreality.controller.replay;
+
+import com.github.ylinker.finalreality.controller.GameController;
+import com.github.ylinker.finalreality.controller.phase.Transition;
+import com.github.ylinker.finalreality.model.character.ICharacter;
+import com.github.ylinker.finalreality.model.character.IPlayerCharacter;
+import com.github.ylinker.finalreality.model.weapon.IWeapon;
+import com.github.ylinker.finalreality.simulator.HeadlessScene;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * @author Yuval Linker
+ *
+ * Plays a battle recorded by a {@link ReplayLog} on a new game controller.
+ * Every command of the log is given again to the new controller, and the characters get back to
+ * the queue when the log says they did, so the controller ends in the same state as the recorded one.
+ * A record cut in half at the end of the log (like when the game crashed while writing it) is ignored.
+ */
+public class Replayer {
+    private static final Transition[] TRANSITIONS = Transition.values();
+
+    private final ByteBuffer log;
+    private final ReplayScheduler clock;
+    private final GameController controller;
+    private final List<ICharacter> characters = new ArrayList<>();
+    private final List<IWeapon> weapons = new ArrayList<>();
+    private long lastTime;
+    private int records;
+
+    /**
+     * Creates a replayer for a log
+     * @param log
+     *      The contents of the log
+     */
+    public Replayer(@NotNull ByteBuffer log) {
+        this.log = log;
+        clock = new ReplayScheduler();
+        controller = new GameController(clock);
+        controller.setScene(new HeadlessScene());
+        if (log.getInt() != ReplayLog.MAGIC) {
+            throw new IllegalArgumentException("Not a replay log");
+        }
+        int version = getVarInt();
+        if (version != ReplayLog.VERSION) {
+            throw new IllegalArgumentException("Unknown replay log version " + version);
+        }
+    }
+
+    /**
+     * Plays a recorded battle
+     * @param file
+     *      The file of the log
+     * @return
+     *      A controller in the state in which the recorded battle ended
+     * @throws IOException
+     *      If the file can't be read
+     */
+    public static GameController replay(@NotNull Path file) throws IOException {
+        Replayer replayer = new Replayer(ByteBuffer.wrap(Files.readAllBytes(file)));
+        replayer.replayAll();
+        return replayer.getController();
+    }
+
+    /**
+     * Plays every record of the log
+     */
+    public void replayAll() {
+        while (replayNext()) {
+        }
+    }
+
+    /**
+     * Plays the next record of the log
+     * @return
+     *      True if a record was played, False if the log has ended
+     */
+    public boolean replayNext() {
+        if (!log.hasRemaining()) {
+            return false;
+        }
+        int start = log.position();
+        try {
+            replay(log.get());
+            records++;
+            return true;
+        } catch (BufferUnderflowException e) {
+            log.position(start);
+            return false;
+        }
+    }
+
+    public GameController getController() {
+        return controller;
+    }
+
+    /**
+     * Gets the amount of records played so far
+     * @return
+     *      The amount of records
+     */
+    public int getRecords() {
+        return records;
+    }
+
+    private void replay(byte operation) {
+        switch (operation) {
+            case ReplayLog.CHARACTER:
+                createCharacter();
+                break;
+            case ReplayLog.WEAPON:
+                createWeapon();
+                break;
+            case ReplayLog.EQUIP: {
+                IPlayerCharacter character = (IPlayerCharacter) characters.get(getVarInt());
+                controller.equip(character, weapons.get(getVarInt()));
+                break;
+            }
+            case ReplayLog.TURNS_STARTED: {
+                clock.setTime(getTime());
+                int count = getVarInt();
+                List<ICharacter> order = new ArrayList<>(count);
+                for (int i = 0; i < count; i++) {
+                    order.add(characters.get(getVarInt()));
+                }
+                controller.initTurns(order);
+                break;
+            }
+            case ReplayLog.QUEUED: {
+                ICharacter character = characters.get(getVarInt());
+                clock.setTime(getTime());
+                controller.addToQueue(character);
+                break;
+            }
+            case ReplayLog.PHASE:
+                changePhase(TRANSITIONS[log.get()]);
+                break;
+            case ReplayLog.SELECT_WEAPON:
+                controller.tryToEquip(weapons.get(getVarInt()));
+                break;
+            case ReplayLog.SELECT_TARGET:
+                controller.tryToAttack(characters.get(getVarInt()));
+                break;
+            case ReplayLog.RANDOM_TARGET:
+                // The attack that follows repeats the damage, only the choice has to be restored
+                controller.setLastAttackedCharacter((IPlayerCharacter) characters.get(getVarInt()));
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown replay record " + operation + " at " + (log.position() - 1));
+        }
+    }
+
+    private void createCharacter() {
+        byte kind = log.get();
+        int health = getSignedVarInt();
+        int attack = getSignedVarInt();
+        int defense = getSignedVarInt();
+        int extra = kind >= ReplayLog.WHITE_MAGE ? getSignedVarInt() : 0;
+        String name = getString();
+        switch (kind) {
+            case ReplayLog.KNIGHT:
+                controller.createKnight(name, health, attack, defense);
+                break;
+            case ReplayLog.ENGINEER:
+                controller.createEngineer(name, health, attack, defense);
+                break;
+            case ReplayLog.THIEF:
+                controller.createThief(name, health, attack, defense);
+                break;
+            case ReplayLog.WHITE_MAGE:
+                controller.createWhiteMage(name, health, attack, defense, extra);
+                break;
+            case ReplayLog.BLACK_MAGE:
+                controller.createBlackMage(name, health, attack, defense, extra);
+                break;
+            case ReplayLog.ENEMY:
+                controller.createEnemy(name, health, attack, defense, extra);
+                characters.add(controller.getEnemies().get(controller.getEnemies().size() - 1));
+                return;
+            default:
+                throw new IllegalArgumentException("Unknown character kind " + kind);
+        }
+        characters.add(controller.getCharacters().get(controller.getCharacters().size() - 1));
+    }
+
+    private void createWeapon() {
+        byte kind = log.get();
+        int damage = getSignedVarInt();
+        int weight = getSignedVarInt();
+        int magicDamage = kind == ReplayLog.STAFF ? getSignedVarInt() : 0;
+        String name = getString();
+        switch (kind) {
+            case ReplayLog.AXE:
+                controller.createAxe(name, damage, weight);
+                break;
+            case ReplayLog.BOW:
+                controller.createBow(name, damage, weight);
+                break;
+            case ReplayLog.KNIFE:
+                controller.createKnife(name, damage, weight);
+                break;
+            case ReplayLog.SWORD:
+                controller.createSword(name, damage, weight);
+                break;
+            case ReplayLog.STAFF:
+                controller.createStaff(name, damage, weight, magicDamage);
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown weapon kind " + kind);
+        }
+        weapons.add(controller.getInventory().get(controller.getInventory().size() - 1));
+    }
+
+    private void changePhase(Transition transition) {
+        switch (transition) {
+            case TO_EQUIP:
+                controller.toEquipPhase();
+                break;
+            case TO_ATTACK:
+                controller.toAttackPhase();
+                break;
+            case TO_ACTION:
+                controller.toActionPhase();
+                break;
+            case GO_BACK:
+                controller.goBack();
+                break;
+            default:
+                controller.toBeginTurnPhase();
+        }
+    }
+
+    private long getTime() {
+        long zigZag = getVarLong();
+        lastTime += (zigZag >>> 1) ^ -(zigZag & 1);
+        return lastTime;
+    }
+
+    private String getString() {
+        byte[] bytes = new byte[getVarInt()];
+        log.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private int getSignedVarInt() {
+        int zigZag = getVarInt();
+        return (zigZag >>> 1) ^ -(zigZag & 1);
+    }
+
+    private int getVarInt() {
+        int value = 0;
+        for (int shift = 0; ; shift += 7) {
+            byte b = log.get();
+            value |= (b & 0x7f) << shift;
+            if (b >= 0) {
+                return value;
+            }
+        }
+    }
+
+    private long getVarLong() {
+        long value = 0;
+        for (int shift = 0; ; shift += 7) {
+            byte b = log.get();
+            value |= (long) (b & 0x7f) << shift;
+            if (b >= 0) {
+                return value;
+            }
+        }
+    }
+}
@@ -0,0 +1,22 @@
+package com.github.ylinker.finalreality.controller.scheduler;
+
+/**
+ * @author Yuval Linker
+ *
+ * Handle to a turn that was scheduled on an {@link ITurnScheduler}.
+ * It lets the controller cancel a character's pending turn (for example when it dies).
+ */
+public interface ITurnHandle {
+    /**
+     * Cancels the scheduled turn if it hasn't run yet.
+     * Cancelling an already finished or cancelled turn does nothing.
+     */
+    void cancel();
+
+    /**
+     * Checks if the scheduled turn already ran or was cancelled
+     * @return
+     *      True if the turn is no longer pending, False otherwise
+     */
+    boolean isDone();
+}
@@ -0,0 +1,46 @@
+package com.github.ylinker.finalreality.controller.scheduler;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @author Yuval Linker
+ *
+ * Scheduler used by the game controller to wake characters up after their turn delay.
+ * A single scheduler can be shared by many controllers.
+ */
+public interface ITurnScheduler {
+    /**
+     * Schedules a command to be run after a delay
+     * @param command
+     *      The command to run
+     * @param delay
+     *      The delay before running the command
+     * @param unit
+     *      The time unit of the delay
+     * @return
+     *      A handle that can be used to cancel the command
+     */
+    ITurnHandle schedule(Runnable command, long delay, TimeUnit unit);
+
+    /**
+     * Gets the current time of the scheduler's clock
+     * @return
+     *      The current time in nanoseconds
+     */
+    long currentTime();
+
+    /**
+     * Called by the controller when no character is ready to play.
+     * Schedulers that control their own clock may use it to jump straight to the next pending turn.
+     * @return
+     *      True if a pending turn was run, False otherwise
+     */
+    default boolean onIdle() {
+        return false;
+    }
+
+    /**
+     * Stops the scheduler. Pending commands are discarded.
+     */
+    void shutdown();
+}
@@ -0,0 +1,274 @@
+package com.github.ylinker.finalreality.controller.scheduler;
+
+import com.github.ylinker.finalreality.model.character.ICharacter;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.*;
+import java.util.function.LongSupplier;
+
+/**
+ * @author Yuval Linker
+ *
+ * Turns queue ordered by the time each character became ready to play.
+ * Characters that became ready at the same time keep the order in which they were added.
+ * It's an indexed binary min-heap, so adding, polling and removing a character are O(log n).
+ */
+public class TurnQueue {
+    private static final int INITIAL_CAPACITY = 16;
+
+    private final LongSupplier clock;
+    private final Map<ICharacter, Entry> entries;
+    private Entry[] heap;
+    private int size;
+    private long sequence;
+
+    /**
+     * Creates an empty turns queue
+     * @param clock
+     *      The clock used to get the ready time of characters added without one
+     */
+    public TurnQueue(@NotNull LongSupplier clock) {
+        this.clock = clock;
+        entries = new IdentityHashMap<>();
+        heap = new Entry[INITIAL_CAPACITY];
+        size = 0;
+        sequence = 0;
+    }
+
+    /**
+     * Adds a character that is ready right now
+     * @param character
+     *      The character to be added
+     * @return
+     *      True if it was added, False if the character was already in the queue
+     */
+    public synchronized boolean add(@NotNull ICharacter character) {
+        return add(character, clock.getAsLong());
+    }
+
+    /**
+     * Adds a character to the queue
+     * @param character
+     *      The character to be added
+     * @param readyTime
+     *      The time at which the character became ready to play
+     * @return
+     *      True if it was added, False if the character was already in the queue
+     */
+    public synchronized boolean add(@NotNull ICharacter character, long readyTime) {
+        if (entries.containsKey(character)) {
+            return false;
+        }
+        if (size == heap.length) {
+            heap = Arrays.copyOf(heap, size * 2);
+        }
+        Entry entry = new Entry(character, readyTime, sequence++);
+        entries.put(character, entry);
+        entry.index = size;
+        heap[size++] = entry;
+        siftUp(entry.index);
+        return true;
+    }
+
+    /**
+     * Adds every character of a collection, all ready right now and in the collection's order
+     * @param characters
+     *      The characters to be added
+     */
+    public synchronized void addAll(@NotNull Collection<? extends ICharacter> characters) {
+        long now = clock.getAsLong();
+        for (ICharacter character : characters) {
+            add(character, now);
+        }
+    }
+
+    /**
+     * Gets the next character to play without removing it
+     * @return
+     *      The next character, or null if the queue is empty
+     */
+    public synchronized ICharacter peek() {
+        return size == 0 ? null : heap[0].character;
+    }
+
+    /**
+     * Removes the next character to play
+     * @return
+     *      The next character, or null if the queue is empty
+     */
+    public synchronized ICharacter poll() {
+        if (size == 0) {
+            return null;
+        }
+        ICharacter character = heap[0].character;
+        removeAt(0);
+        return character;
+    }
+
+    /**
+     * Removes a character from the queue
+     * @param character
+     *      The character to remove
+     * @return
+     *      True if the character was in the queue, False otherwise
+     */
+    public synchronized boolean remove(ICharacter character) {
+        Entry entry = entries.get(character);
+        if (entry == null) {
+            return false;
+        }
+        removeAt(entry.index);
+        return true;
+    }
+
+    /**
+     * Checks if a character is in the queue
+     * @param character
+     *      The character
+     * @return
+     *      True if the character is waiting in the queue, False otherwise
+     */
+    public synchronized boolean contains(ICharacter character) {
+        return entries.containsKey(character);
+    }
+
+    /**
+     * Gets the time at which a queued character became ready
+     * @param character
+     *      The character
+     * @return
+     *      Its ready time, or Long.MIN_VALUE if it isn't in the queue
+     */
+    public synchronized long getReadyTime(ICharacter character) {
+        Entry entry = entries.get(character);
+        return entry == null ? Long.MIN_VALUE : entry.readyTime;
+    }
+
+    /**
+     * Gets the amount of characters in the queue
+     * @return
+     *      The queue's size
+     */
+    public synchronized int size() {
+        return size;
+    }
+
+    /**
+     * Checks if the queue is empty
+     * @return
+     *      True if there are no characters in the queue, False otherwise
+     */
+    public synchronized boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Removes every character from the queue
+     */
+    public synchronized void clear() {
+        Arrays.fill(heap, 0, size, null);
+        entries.clear();
+        size = 0;
+    }
+
+    /**
+     * Gets the next characters to play, in order, without changing the queue.
+     * Only the nodes of the heap that can be part of the answer are visited.
+     * @param k
+     *      The amount of turns to look ahead
+     * @return
+     *      A list with at most k characters, ordered by their turn
+     */
+    public synchronized List<ICharacter> peekNextTurns(int k) {
+        List<ICharacter> nextTurns = new ArrayList<>(Math.max(0, Math.min(k, size)));
+        if (k <= 0 || size == 0) {
+            return nextTurns;
+        }
+        PriorityQueue<Entry> frontier = new PriorityQueue<>();
+        frontier.add(heap[0]);
+        while (nextTurns.size() < k && !frontier.isEmpty()) {
+            Entry entry = frontier.poll();
+            nextTurns.add(entry.character);
+            int child = 2 * entry.index + 1;
+            if (child < size) {
+                frontier.add(heap[child]);
+            }
+            if (child + 1 < size) {
+                frontier.add(heap[child + 1]);
+            }
+        }
+        return nextTurns;
+    }
+
+    private void removeAt(int index) {
+        Entry removed = heap[index];
+        entries.remove(removed.character);
+        Entry last = heap[--size];
+        heap[size] = null;
+        if (index != size) {
+            last.index = index;
+            heap[index] = last;
+            siftDown(index);
+            if (heap[index] == last) {
+                siftUp(index);
+            }
+        }
+    }
+
+    private void siftUp(int index) {
+        Entry entry = heap[index];
+        while (index > 0) {
+            int parent = (index - 1) / 2;
+            if (heap[parent].compareTo(entry) <= 0) {
+                break;
+            }
+            move(heap[parent], index);
+            index = parent;
+        }
+        move(entry, index);
+    }
+
+    private void siftDown(int index) {
+        Entry entry = heap[index];
+        int half = size / 2;
+        while (index < half) {
+            int child = 2 * index + 1;
+            if (child + 1 < size && heap[child + 1].compareTo(heap[child]) < 0) {
+                child++;
+            }
+            if (entry.compareTo(heap[child]) <= 0) {
+                break;
+            }
+            move(heap[child], index);
+            index = child;
+        }
+        move(entry, index);
+    }
+
+    private void move(Entry entry, int index) {
+        heap[index] = entry;
+        entry.index = index;
+    }
+
+    /**
+     * A character waiting in the queue
+     */
+    private static class Entry implements Comparable<Entry> {
+        private final ICharacter character;
+        private final long readyTime;
+        private final long order;
+        private int index;
+
+        private Entry(ICharacter character, long readyTime, long order) {
+            this.character = character;
+            this.readyTime = readyTime;
+            this.order = order;
+        }
+
+        @Override
+        public int compareTo(@NotNull Entry other) {
+            int byTime = Long.compare(readyTime, other.readyTime);
+            return byTime != 0 ? byTime : Long.compare(order, other.order);
+        }
+    }
+}
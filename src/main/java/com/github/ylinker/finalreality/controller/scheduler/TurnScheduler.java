@@ -0,0 +1,102 @@
+package com.github.ylinker.finalreality.controller.scheduler;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * @author Yuval Linker
+ *
+ * Turn scheduler backed by a small, fixed pool of timer threads.
+ * Every controller that uses the same instance shares its threads, so the amount of threads
+ * doesn't grow with the amount of characters or battles.
+ */
+public class TurnScheduler implements ITurnScheduler {
+    private static TurnScheduler sharedInstance;
+
+    private final ScheduledThreadPoolExecutor executor;
+
+    /**
+     * Creates a turn scheduler with a single timer thread
+     */
+    public TurnScheduler() {
+        this(1);
+    }
+
+    /**
+     * Creates a turn scheduler
+     * @param threads
+     *      The amount of timer threads
+     */
+    public TurnScheduler(int threads) {
+        executor = new ScheduledThreadPoolExecutor(threads, new TimerThreadFactory());
+        // Cancelled turns are dropped right away instead of waiting for their delay
+        executor.setRemoveOnCancelPolicy(true);
+    }
+
+    /**
+     * Gets the scheduler shared by every controller that doesn't get one of its own
+     * @return
+     *      The shared turn scheduler
+     */
+    public static synchronized TurnScheduler getSharedInstance() {
+        if (sharedInstance == null) {
+            sharedInstance = new TurnScheduler();
+        }
+        return sharedInstance;
+    }
+
+    @Override
+    public ITurnHandle schedule(@NotNull Runnable command, long delay, @NotNull TimeUnit unit) {
+        return new FutureTurnHandle(executor.schedule(command, delay, unit));
+    }
+
+    @Override
+    public long currentTime() {
+        return System.nanoTime();
+    }
+
+    @Override
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Handle that wraps the future returned by the executor
+     */
+    private static class FutureTurnHandle implements ITurnHandle {
+        private final ScheduledFuture<?> future;
+
+        private FutureTurnHandle(ScheduledFuture<?> future) {
+            this.future = future;
+        }
+
+        @Override
+        public void cancel() {
+            future.cancel(false);
+        }
+
+        @Override
+        public boolean isDone() {
+            return future.isDone();
+        }
+    }
+
+    /**
+     * Makes daemon threads so a pending turn never keeps the application alive
+     */
+    private static class TimerThreadFactory implements ThreadFactory {
+        private static final AtomicInteger count = new AtomicInteger();
+
+        @Override
+        public Thread newThread(@NotNull Runnable r) {
+            Thread thread = new Thread(r, "turn-scheduler-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
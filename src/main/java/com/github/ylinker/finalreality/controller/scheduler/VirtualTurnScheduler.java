@@ -0,0 +1,145 @@
+package com.github.ylinker.finalreality.controller.scheduler;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.PriorityQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @author Yuval Linker
+ *
+ * Discrete event turn scheduler that runs on a virtual clock.
+ * Nothing runs on its own: pending turns are run in order of due time when the clock is advanced,
+ * and turns that are due at the same time run in the order they were scheduled.
+ * When it advances on idle, the controller jumps straight to the next pending turn whenever no
+ * character is ready, so a whole battle plays out without waiting any real time.
+ *
+ * It is not thread safe, it must be driven by the same thread that drives its controller.
+ */
+public class VirtualTurnScheduler implements ITurnScheduler {
+    private final PriorityQueue<VirtualTurn> pending;
+    private final boolean advanceWhenIdle;
+    private long time;
+    private long sequence;
+
+    /**
+     * Creates a virtual scheduler that advances to the next turn whenever the controller is idle
+     */
+    public VirtualTurnScheduler() {
+        this(true);
+    }
+
+    /**
+     * Creates a virtual scheduler
+     * @param advanceWhenIdle
+     *      If the clock should jump to the next turn when the controller is idle.
+     *      If False the clock only moves through {@link #runNext()} and {@link #advanceBy(long, TimeUnit)}
+     */
+    public VirtualTurnScheduler(boolean advanceWhenIdle) {
+        this.advanceWhenIdle = advanceWhenIdle;
+        pending = new PriorityQueue<>();
+        time = 0;
+        sequence = 0;
+    }
+
+    @Override
+    public ITurnHandle schedule(@NotNull Runnable command, long delay, @NotNull TimeUnit unit) {
+        VirtualTurn turn = new VirtualTurn(command, time + unit.toNanos(delay), sequence++);
+        pending.add(turn);
+        return turn;
+    }
+
+    @Override
+    public long currentTime() {
+        return time;
+    }
+
+    @Override
+    public boolean onIdle() {
+        return advanceWhenIdle && runNext();
+    }
+
+    /**
+     * Moves the clock to the next pending turn and runs it
+     * @return
+     *      True if there was a pending turn, False otherwise
+     */
+    public boolean runNext() {
+        VirtualTurn turn = pending.poll();
+        if (turn == null) {
+            return false;
+        }
+        run(turn);
+        return true;
+    }
+
+    /**
+     * Moves the clock forward, running every turn that becomes due on the way
+     * @param delay
+     *      The amount of time to move forward
+     * @param unit
+     *      The time unit of the delay
+     */
+    public void advanceBy(long delay, @NotNull TimeUnit unit) {
+        long target = time + unit.toNanos(delay);
+        while (!pending.isEmpty() && pending.peek().dueTime <= target) {
+            run(pending.poll());
+        }
+        time = target;
+    }
+
+    /**
+     * Gets the amount of turns waiting to be run
+     * @return
+     *      The amount of pending turns
+     */
+    public int getPendingTurns() {
+        return pending.size();
+    }
+
+    @Override
+    public void shutdown() {
+        pending.clear();
+    }
+
+    private void run(VirtualTurn turn) {
+        time = turn.dueTime;
+        turn.done = true;
+        turn.command.run();
+    }
+
+    /**
+     * A turn waiting on the virtual clock
+     */
+    private class VirtualTurn implements ITurnHandle, Comparable<VirtualTurn> {
+        private final Runnable command;
+        private final long dueTime;
+        private final long order;
+        private boolean done;
+
+        private VirtualTurn(Runnable command, long dueTime, long order) {
+            this.command = command;
+            this.dueTime = dueTime;
+            this.order = order;
+        }
+
+        @Override
+        public void cancel() {
+            if (!done) {
+                done = true;
+                pending.remove(this);
+            }
+        }
+
+        @Override
+        public boolean isDone() {
+            return done;
+        }
+
+        @Override
+        public int compareTo(@NotNull VirtualTurn other) {
+            int byTime = Long.compare(dueTime, other.dueTime);
+            return byTime != 0 ? byTime : Long.compare(order, other.order);
+        }
+    }
+}
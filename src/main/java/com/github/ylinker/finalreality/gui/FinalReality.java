@@ -1,15 +1,22 @@
 package com.github.ylinker.finalreality.gui;
 
+import com.github.ylinker.finalreality.controller.BattleRandom;
 import com.github.ylinker.finalreality.controller.GameController;
+import com.github.ylinker.finalreality.controller.scheduler.TurnScheduler;
+import com.github.ylinker.finalreality.controller.replay.ReplayLog;
+import com.github.ylinker.finalreality.gui.nodes.ImageCache;
+import com.github.ylinker.finalreality.gui.resources.Resources;
 import com.github.ylinker.finalreality.gui.scenes.ChooseInventoryScene;
 import com.github.ylinker.finalreality.gui.scenes.ChooseUIScene;
+import com.github.ylinker.finalreality.gui.scenes.EndScreenScene;
 import com.github.ylinker.finalreality.gui.scenes.MainScene;
 import javafx.application.Application;
 import javafx.stage.Stage;
 
 import javax.sound.sampled.*;
-import java.io.File;
+import java.io.FileNotFoundException;
 import java.io.IOException;
+import java.nio.file.Paths;
 import java.util.*;
 
 /**
@@ -20,8 +27,10 @@ import java.util.*;
  * @author Yuval Linker
  */
 public class FinalReality extends Application {
+  private static final String MUSIC = "prfvr.wav";
 
   private Stage stage;
+  private ReplayLog replayLog;
 
   public static void main(String[] args) {
     launch(args);
@@ -33,10 +42,10 @@ public class FinalReality extends Application {
    *    The game controller
    */
   private void initEnemies(GameController controller) {
-    Random rand = new Random();
+    BattleRandom rand = controller.getRandom();
     List<String> names = Arrays.asList("Drazzadol", "Rag'Dros", "Brogthomoth", "Irthroxir", "Trostras", "Rarran",
             "Drustrun", "Egannen", "Tilmozul", "Sozrith");
-    Collections.shuffle(names);
+    rand.shuffle(names);
     for (int i = 0; i < 5; i++) {
       int health = rand.nextInt(40) + 10;
       int attack = rand.nextInt(25) + 10;
@@ -46,17 +55,79 @@ public class FinalReality extends Application {
     }
   }
 
-  private void startSound() {
-    String path = "src/main/resources/Heroic_Demise.wav";
+  /**
+   * Reads every file of the game in parallel and then decodes the sprites of the battle,
+   * while the first scenes are shown
+   */
+  @Override
+  public void init() {
+    List<String> assets = new ArrayList<>(MainScene.getSprites());
+    assets.add(EndScreenScene.BACKGROUND);
+    assets.add(MUSIC);
+    Resources.getShared().preload(assets).thenRun(this::preloadImages);
+  }
+
+  /**
+   * Decodes the sprites of the battle before it starts
+   */
+  private void preloadImages() {
+    try {
+      MainScene.preloadImages(ImageCache.getShared());
+    } catch (FileNotFoundException e) {
+      System.err.println("Can't load the sprites: " + e.getMessage());
+    }
+  }
 
+  private void startSound() {
     try {
       System.out.println("Starting sound");
       Clip sound = AudioSystem.getClip();
-      try (AudioInputStream audioInputStream = AudioSystem.getAudioInputStream(new File(path))) {
+      try (AudioInputStream audioInputStream = AudioSystem.getAudioInputStream(Resources.getShared().open(MUSIC))) {
         sound.open(audioInputStream);
         sound.start();
       }
     } catch (LineUnavailableException | IOException | UnsupportedAudioFileException e) {
+      System.err.println("Can't play the music: " + e.getMessage());
+    }
+  }
+
+  /**
+   * Creates the game's controller. Its random decisions use the seed given with the
+   * finalreality.seed system property, so a game can be played again. The seed is shown in the window's title
+   * @return
+   *    The game controller
+   */
+  private GameController createController() {
+    String seed = System.getProperty("finalreality.seed");
+    BattleRandom random = seed == null ? new BattleRandom() : new BattleRandom(Long.parseLong(seed));
+    return new GameController(TurnScheduler.getSharedInstance(), random);
+  }
+
+  /**
+   * Records the battle if a replay file was given with the finalreality.replay system property
+   * @param controller
+   *    The game controller
+   */
+  private void startReplayLog(GameController controller) {
+    String path = System.getProperty("finalreality.replay");
+    if (path == null) {
+      return;
+    }
+    try {
+      replayLog = new ReplayLog(Paths.get(path));
+      controller.setRecorder(replayLog);
+    } catch (IOException e) {
+      System.err.println("Can't record the battle in " + path + ": " + e.getMessage());
+    }
+  }
+
+  /**
+   * Writes what's left of the replay log when the application closes
+   */
+  @Override
+  public void stop() throws IOException {
+    if (replayLog != null) {
+      replayLog.close();
     }
   }
 
@@ -69,9 +140,10 @@ public class FinalReality extends Application {
   @Override
   public void start(Stage primaryStage) {
     stage = primaryStage;
-    GameController controller = new GameController();
+    GameController controller = createController();
+    startReplayLog(controller);
     initEnemies(controller);
-    primaryStage.setTitle("Final reality");
+    primaryStage.setTitle("Final reality (seed " + controller.getRandom().getSeed() + ")");
 
     MainScene mainScene = new MainScene(controller, primaryStage);
     controller.setScene(mainScene);
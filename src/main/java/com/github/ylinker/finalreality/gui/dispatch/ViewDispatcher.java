@@ -0,0 +1,142 @@
+package com.github.ylinker.finalreality.gui.dispatch;
+
+import com.github.ylinker.finalreality.metrics.LatencyHistogram;
+import com.github.ylinker.finalreality.metrics.MetricsRegistry;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * @author Yuval Linker
+ *
+ * Queues the commands that change the view and applies them on the view's thread, in batches.
+ * Commands can be submitted from any thread. The first command of a batch schedules a single task on the
+ * view's executor ({@code Platform::runLater} for JavaFX), and every command submitted until that task runs
+ * is applied by it, in the order they were submitted.
+ *
+ * A command can have a key. A command with the same key as one still in the queue replaces it, since only the
+ * last one would be seen: the screens of the center of a scene, or the refreshes of the same character.
+ * The replaced command is dropped and the new one is applied where it was submitted.
+ *
+ * The dispatcher records in a {@link MetricsRegistry}:
+ *      gui.dispatch.submitted, gui.dispatch.collapsed, gui.dispatch.batches: how many times each happened
+ *      gui.dispatch.depth: the commands waiting in the queue right now, it goes down when they are applied
+ *      gui.dispatch.latency: how long a command's key waited from its first submission until it was applied
+ *      gui.dispatch.apply.time: how long every batch took to apply
+ */
+public class ViewDispatcher {
+    private final Executor executor;
+    private final LongAdder submitted;
+    private final LongAdder collapsed;
+    private final LongAdder batches;
+    private final LongAdder depth;
+    private final LatencyHistogram latency;
+    private final LatencyHistogram applyTime;
+    private Map<Object, Command> pending = new LinkedHashMap<>();
+    private boolean scheduled;
+
+    /**
+     * Creates a dispatcher with an empty queue
+     * @param executor
+     *      The executor that runs tasks on the view's thread
+     * @param registry
+     *      The registry where the dispatcher's metrics are recorded
+     */
+    public ViewDispatcher(@NotNull Executor executor, @NotNull MetricsRegistry registry) {
+        this.executor = executor;
+        submitted = registry.getCounter("gui.dispatch.submitted");
+        collapsed = registry.getCounter("gui.dispatch.collapsed");
+        batches = registry.getCounter("gui.dispatch.batches");
+        depth = registry.getCounter("gui.dispatch.depth");
+        latency = registry.getHistogram("gui.dispatch.latency");
+        applyTime = registry.getHistogram("gui.dispatch.apply.time");
+    }
+
+    /**
+     * Queues a command that is always applied
+     * @param command
+     *      The command
+     */
+    public void submit(@NotNull Runnable command) {
+        submit(new Object(), command);
+    }
+
+    /**
+     * Queues a command, replacing the one with the same key if it wasn't applied yet
+     * @param key
+     *      The key of the command, compared with equals
+     * @param command
+     *      The command
+     */
+    public void submit(@NotNull Object key, @NotNull Runnable command) {
+        boolean schedule;
+        synchronized (this) {
+            long submittedAt = System.nanoTime();
+            Command previous = pending.remove(key);
+            if (previous == null) {
+                depth.increment();
+            } else {
+                collapsed.increment();
+                submittedAt = previous.submittedAt;
+            }
+            pending.put(key, new Command(command, submittedAt));
+            schedule = !scheduled;
+            scheduled = true;
+        }
+        submitted.increment();
+        if (schedule) {
+            executor.execute(this::applyPending);
+        }
+    }
+
+    /**
+     * Gets the amount of commands waiting to be applied
+     */
+    public synchronized int getDepth() {
+        return pending.size();
+    }
+
+    /**
+     * Applies every queued command. The commands submitted while they are applied go to the next batch.
+     * A command that throws doesn't stop the rest of the batch, the first exception is thrown at the end
+     */
+    private void applyPending() {
+        Map<Object, Command> batch;
+        synchronized (this) {
+            batch = pending;
+            pending = new LinkedHashMap<>();
+            scheduled = false;
+        }
+        depth.add(-batch.size());
+        batches.increment();
+        long start = System.nanoTime();
+        RuntimeException failure = null;
+        for (Command command : batch.values()) {
+            try {
+                command.action.run();
+            } catch (RuntimeException e) {
+                if (failure == null) {
+                    failure = e;
+                }
+            }
+            latency.record(System.nanoTime() - command.submittedAt);
+        }
+        applyTime.record(System.nanoTime() - start);
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    private static final class Command {
+        private final Runnable action;
+        private final long submittedAt;
+
+        private Command(Runnable action, long submittedAt) {
+            this.action = action;
+            this.submittedAt = submittedAt;
+        }
+    }
+}
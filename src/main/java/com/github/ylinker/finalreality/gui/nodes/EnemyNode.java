@@ -3,13 +3,11 @@ package com.github.ylinker.finalreality.gui.nodes;
 import com.github.ylinker.finalreality.model.character.Enemy;
 import javafx.scene.Scene;
 import javafx.scene.control.Label;
-import javafx.scene.image.Image;
 import javafx.scene.image.ImageView;
 import javafx.scene.layout.HBox;
 import javafx.scene.layout.VBox;
 import org.jetbrains.annotations.NotNull;
 
-import java.io.FileInputStream;
 import java.io.FileNotFoundException;
 import java.util.HashMap;
 import java.util.Map;
@@ -17,7 +15,7 @@ import java.util.Map;
 /**
  * Class that represents a GUI Node with an image and enemy's info
  */
-public class EnemyNode {
+public class EnemyNode implements ICharacterNode {
     private final int imgHeight;
     private final int imgWidth;
     private ImageView sprite;
@@ -25,9 +23,9 @@ public class EnemyNode {
     private int hPos;
     private int vPos;
     private final String name;
-    private final int health;
-    private final int defense;
-    private final int attack;
+    private int health;
+    private int defense;
+    private int attack;
     private HBox enemyNode;
     private Map<String, Label> labels;
 
@@ -76,8 +74,7 @@ public class EnemyNode {
     }
 
     private void addSprite(final String spritePath) throws FileNotFoundException {
-        FileInputStream spriteImage = new FileInputStream(spritePath);
-        sprite = new ImageView(new Image(spriteImage));
+        sprite = new ImageView(ImageCache.getShared().get(spritePath, imgWidth, imgHeight));
         sprite.setX(hPos);
         sprite.setY(vPos);
         sprite.setFitWidth(imgWidth);
@@ -108,7 +105,24 @@ public class EnemyNode {
      * @return
      *      The enemy node
      */
+    @Override
     public HBox getNode() {
         return enemyNode;
     }
+
+    @Override
+    public void update(final int health, final int attack, final int defense) {
+        if (health != this.health) {
+            this.health = health;
+            labels.get("health").setText("HP: " + health);
+        }
+        if (attack != this.attack) {
+            this.attack = attack;
+            labels.get("attack").setText("ATK: " + attack);
+        }
+        if (defense != this.defense) {
+            this.defense = defense;
+            labels.get("defense").setText("DEF: " + defense);
+        }
+    }
 }
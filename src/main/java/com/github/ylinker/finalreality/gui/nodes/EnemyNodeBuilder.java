@@ -89,6 +89,17 @@ public class EnemyNodeBuilder {
      *      When the image is not found
      */
     public HBox build() throws FileNotFoundException {
-        return new EnemyNode(name, health, attack, defense, hPos, vPos, height, width, imagePath).getNode();
+        return buildNode().getNode();
+    }
+
+    /**
+     * Builds an enemy node that can be updated later
+     * @return
+     *      The enemy node
+     * @throws FileNotFoundException
+     *      When the image is not found
+     */
+    public EnemyNode buildNode() throws FileNotFoundException {
+        return new EnemyNode(name, health, attack, defense, hPos, vPos, height, width, imagePath);
     }
 }
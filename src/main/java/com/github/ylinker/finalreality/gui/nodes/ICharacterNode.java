@@ -0,0 +1,26 @@
+package com.github.ylinker.finalreality.gui.nodes;
+
+import javafx.scene.layout.HBox;
+
+/**
+ * A GUI node that shows a character's info and can be updated when the character changes
+ */
+public interface ICharacterNode {
+    /**
+     * Gets the node already built
+     * @return
+     *      The node
+     */
+    HBox getNode();
+
+    /**
+     * Updates the labels of the stats that changed, leaving the rest of the node as it is
+     * @param health
+     *      The character's health
+     * @param attack
+     *      The character's attack
+     * @param defense
+     *      The character's defense
+     */
+    void update(int health, int attack, int defense);
+}
@@ -0,0 +1,206 @@
+package com.github.ylinker.finalreality.gui.nodes;
+
+import com.github.ylinker.finalreality.gui.resources.Resources;
+import com.github.ylinker.finalreality.metrics.MetricsRegistry;
+import javafx.scene.image.Image;
+
+import java.io.FileNotFoundException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * @author Yuval Linker
+ *
+ * Images decoded once and shared by every node that shows them.
+ * An image is kept by its resource and the size it was decoded to, so every sprite of the same kind uses the same
+ * {@link Image}, already scaled, instead of decoding the file again. The files are read through {@link Resources}. An {@code Image} can be shown by
+ * any amount of {@code ImageView}s at once.
+ *
+ * The cache holds a bounded amount of images and evicts the least recently used one when it's full.
+ * Hits, misses and evictions are counted in a {@link MetricsRegistry}, as gui.images.hits, gui.images.misses
+ * and gui.images.evictions.
+ */
+public class ImageCache {
+    private static final ImageCache SHARED = new ImageCache(64, MetricsRegistry.getShared());
+
+    private final int capacity;
+    private final Map<Key, Image> images;
+    private final LongAdder hits;
+    private final LongAdder misses;
+    private final LongAdder evictions;
+
+    /**
+     * Creates an empty cache
+     * @param capacity
+     *      The most images it keeps
+     * @param registry
+     *      The registry where the hits and misses are counted
+     */
+    public ImageCache(int capacity, MetricsRegistry registry) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("The capacity has to be positive");
+        }
+        this.capacity = capacity;
+        hits = registry.getCounter("gui.images.hits");
+        misses = registry.getCounter("gui.images.misses");
+        evictions = registry.getCounter("gui.images.evictions");
+        // In access order, so the eldest entry is the least recently used
+        images = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key, Image> eldest) {
+                if (size() > ImageCache.this.capacity) {
+                    evictions.increment();
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    /**
+     * Gets the cache shared by every scene of the application
+     * @return
+     *      The shared cache
+     */
+    public static ImageCache getShared() {
+        return SHARED;
+    }
+
+    /**
+     * Gets an image in its original size
+     * @param name
+     *      The image's resource, like "enemy.png"
+     * @return
+     *      The decoded image
+     * @throws FileNotFoundException
+     *      When there is no such image
+     */
+    public Image get(String name) throws FileNotFoundException {
+        return get(name, 0, 0);
+    }
+
+    /**
+     * Gets an image decoded to a size, decoding it only if it's not in the cache
+     * @param name
+     *      The image's resource, like "enemy.png"
+     * @param width
+     *      The width to decode it to, or 0 for its own width
+     * @param height
+     *      The height to decode it to, or 0 for its own height
+     * @return
+     *      The decoded image
+     * @throws FileNotFoundException
+     *      When there is no such image
+     */
+    public Image get(String name, int width, int height) throws FileNotFoundException {
+        Key key = new Key(name, width, height);
+        synchronized (this) {
+            Image image = images.get(key);
+            if (image != null) {
+                hits.increment();
+                return image;
+            }
+        }
+        misses.increment();
+        // Decoding is slow, so it's done without the lock. If two threads decode the same image the first one wins
+        Image decoded = decode(name, width, height);
+        synchronized (this) {
+            Image image = images.putIfAbsent(key, decoded);
+            return image == null ? decoded : image;
+        }
+    }
+
+    /**
+     * Decodes an image before it's needed, so the first node that shows it doesn't wait for it
+     * @param name
+     *      The image's resource, like "enemy.png"
+     * @param width
+     *      The width to decode it to, or 0 for its own width
+     * @param height
+     *      The height to decode it to, or 0 for its own height
+     * @throws FileNotFoundException
+     *      When there is no such image
+     */
+    public void preload(String name, int width, int height) throws FileNotFoundException {
+        get(name, width, height);
+    }
+
+    private static Image decode(String name, int width, int height) throws FileNotFoundException {
+        return new Image(Resources.getShared().open(name), width, height, false, true);
+    }
+
+    /**
+     * Gets the amount of images in the cache
+     */
+    public synchronized int size() {
+        return images.size();
+    }
+
+    /**
+     * Gets the most images the cache keeps
+     */
+    public int getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * Gets how many times an image was found in the cache
+     */
+    public long getHits() {
+        return hits.sum();
+    }
+
+    /**
+     * Gets how many times an image had to be decoded
+     */
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    /**
+     * Gets how many images were evicted to make room for others
+     */
+    public long getEvictions() {
+        return evictions.sum();
+    }
+
+    @Override
+    public String toString() {
+        return "ImageCache{" + size() + "/" + capacity + " images, " + getHits() + " hits, "
+                + getMisses() + " misses, " + getEvictions() + " evictions}";
+    }
+
+    /**
+     * An image and the size it's decoded to
+     */
+    private static final class Key {
+        private final String name;
+        private final int width;
+        private final int height;
+
+        private Key(String name, int width, int height) {
+            this.name = name;
+            this.width = width;
+            this.height = height;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Key)) {
+                return false;
+            }
+            Key key = (Key) o;
+            return width == key.width && height == key.height && name.equals(key.name);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(name, width, height);
+        }
+    }
+}
@@ -2,13 +2,11 @@ package com.github.ylinker.finalreality.gui.nodes;
 
 import javafx.geometry.Pos;
 import javafx.scene.control.Label;
-import javafx.scene.image.Image;
 import javafx.scene.image.ImageView;
 import javafx.scene.layout.HBox;
 import javafx.scene.layout.VBox;
 import org.jetbrains.annotations.NotNull;
 
-import java.io.FileInputStream;
 import java.io.FileNotFoundException;
 import java.util.HashMap;
 import java.util.Map;
@@ -16,7 +14,7 @@ import java.util.Map;
 /**
  * Class that represents a GUI node with an image and a player's character info
  */
-public class PlayerNode {
+public class PlayerNode implements ICharacterNode {
     private final int imgHeight;
     private final int imgWidth;
     private ImageView sprite;
@@ -24,9 +22,9 @@ public class PlayerNode {
     private int hPos;
     private int vPos;
     private final String name;
-    private final int health;
-    private final int defense;
-    private final int attack;
+    private int health;
+    private int defense;
+    private int attack;
     private HBox playerNode;
     private Map<String, Label> labels;
     private String charClass;
@@ -81,8 +79,7 @@ public class PlayerNode {
     }
 
     private void addSprite(final String spritePath) throws FileNotFoundException {
-        FileInputStream spriteImage = new FileInputStream(spritePath);
-        sprite = new ImageView(new Image(spriteImage));
+        sprite = new ImageView(ImageCache.getShared().get(spritePath, imgWidth, imgHeight));
         sprite.setX(hPos);
         sprite.setY(vPos);
         sprite.setFitWidth(imgWidth);
@@ -124,8 +121,25 @@ public class PlayerNode {
      * @return
      *      The player node
      */
+    @Override
     public HBox getNode() {
         return playerNode;
     }
+
+    @Override
+    public void update(final int health, final int attack, final int defense) {
+        if (health != this.health) {
+            this.health = health;
+            labels.get("health").setText("HP: " + health);
+        }
+        if (attack != this.attack) {
+            this.attack = attack;
+            labels.get("attack").setText("ATK: " + attack);
+        }
+        if (defense != this.defense) {
+            this.defense = defense;
+            labels.get("defense").setText("DEF: " + defense);
+        }
+    }
 }
 
@@ -93,6 +93,17 @@ public class PlayerNodeBuilder {
      *      When the image is not found
      */
     public HBox build() throws FileNotFoundException {
-        return new PlayerNode(name, health, attack, defense, className, hPos, vPos, height, width, imagePath).getNode();
+        return buildNode().getNode();
+    }
+
+    /**
+     * Builds a player node that can be updated later
+     * @return
+     *      The player node created
+     * @throws FileNotFoundException
+     *      When the image is not found
+     */
+    public PlayerNode buildNode() throws FileNotFoundException {
+        return new PlayerNode(name, health, attack, defense, className, hPos, vPos, height, width, imagePath);
     }
 }
\ No newline at end of file
@@ -0,0 +1,106 @@
+package com.github.ylinker.finalreality.gui.nodes;
+
+import javafx.geometry.Pos;
+import javafx.scene.Node;
+import javafx.scene.layout.VBox;
+
+import java.util.Arrays;
+
+/**
+ * Class that represents a column with one node for every character of a roster.
+ * The column is built once and stays on screen for the whole battle, and the nodes are kept by the
+ * characters' ids, so updating or removing one doesn't touch the others.
+ */
+public class RosterPanel {
+    private final VBox column;
+    private ICharacterNode[] nodes = new ICharacterNode[16];
+
+    /**
+     * Creates an empty panel
+     * @param title
+     *      The node shown on top of the characters
+     * @param position
+     *      The alignment of the column
+     * @param spacing
+     *      The space between the characters
+     */
+    public RosterPanel(Node title, Pos position, int spacing) {
+        column = new VBox();
+        column.setSpacing(spacing);
+        column.setAlignment(position);
+        column.getChildren().add(title);
+    }
+
+    /**
+     * Adds the node of a character at the end of the column
+     * @param id
+     *      The character's id
+     * @param node
+     *      The character's node
+     */
+    public void add(int id, ICharacterNode node) {
+        if (id >= nodes.length) {
+            nodes = Arrays.copyOf(nodes, Math.max(nodes.length * 2, id + 1));
+        }
+        nodes[id] = node;
+        column.getChildren().add(node.getNode());
+    }
+
+    /**
+     * Updates the stats shown for a character
+     * @param id
+     *      The character's id
+     * @param health
+     *      The character's health
+     * @param attack
+     *      The character's attack
+     * @param defense
+     *      The character's defense
+     */
+    public void update(int id, int health, int attack, int defense) {
+        ICharacterNode node = get(id);
+        if (node != null) {
+            node.update(health, attack, defense);
+        }
+    }
+
+    /**
+     * Removes a character from the panel.
+     * Its node is hidden and left out of the layout instead of taken out of the column,
+     * since taking it out would shift every node after it
+     * @param id
+     *      The character's id
+     */
+    public void remove(int id) {
+        ICharacterNode node = get(id);
+        if (node != null) {
+            nodes[id] = null;
+            node.getNode().setVisible(false);
+            node.getNode().setManaged(false);
+        }
+    }
+
+    /**
+     * Checks if a character is shown in the panel
+     * @param id
+     *      The character's id
+     * @return
+     *      True if it was added and not removed, False otherwise
+     */
+    public boolean contains(int id) {
+        return get(id) != null;
+    }
+
+    private ICharacterNode get(int id) {
+        return id >= 0 && id < nodes.length ? nodes[id] : null;
+    }
+
+    /**
+     * Gets the column with the characters' nodes
+     * @return
+     *      The column
+     */
+    public VBox getNode() {
+        return column;
+    }
+}
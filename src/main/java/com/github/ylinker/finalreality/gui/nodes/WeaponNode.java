@@ -2,13 +2,11 @@ package com.github.ylinker.finalreality.gui.nodes;
 
 import javafx.geometry.Pos;
 import javafx.scene.control.Label;
-import javafx.scene.image.Image;
 import javafx.scene.image.ImageView;
 import javafx.scene.layout.HBox;
 import javafx.scene.layout.VBox;
 import org.jetbrains.annotations.NotNull;
 
-import java.io.FileInputStream;
 import java.io.FileNotFoundException;
 import java.util.HashMap;
 import java.util.Map;
@@ -77,8 +75,7 @@ public class WeaponNode {
     }
 
     private void addSprite(final String spritePath) throws FileNotFoundException {
-        FileInputStream spriteImage = new FileInputStream(spritePath);
-        sprite = new ImageView(new Image(spriteImage));
+        sprite = new ImageView(ImageCache.getShared().get(spritePath, imgWidth, imgHeight));
         sprite.setX(hPos);
         sprite.setY(vPos);
         sprite.setFitWidth(imgWidth);
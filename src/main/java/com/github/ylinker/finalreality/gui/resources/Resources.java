@@ -0,0 +1,180 @@
+package com.github.ylinker.finalreality.gui.resources;
+
+import java.io.ByteArrayInputStream;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Collection;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * @author Yuval Linker
+ *
+ * The files of the game, like the sprites and the music, read from the module with {@code getResourceAsStream}
+ * so the game runs from its jar no matter the working directory. The files are in this package, which the module
+ * opens so other modules can read them too.
+ *
+ * Every file is read once, in a single buffered read, and its bytes are kept in memory. The files can be
+ * preloaded in parallel when the application starts. When the game runs from the source tree, where the
+ * resources aren't in the module, they are read from {@link #SOURCE_PATH}.
+ */
+public class Resources {
+    /**
+     * Where the resources are in the source tree
+     */
+    public static final String SOURCE_PATH = "src/main/resources/com/github/ylinker/finalreality/gui/resources/";
+
+    private static final Resources SHARED = new Resources(Resources.class, Paths.get(SOURCE_PATH));
+
+    private final Class<?> anchor;
+    private final Path sourceDirectory;
+    private final ConcurrentMap<String, CompletableFuture<byte[]>> files = new ConcurrentHashMap<>();
+
+    /**
+     * Creates a loader of the resources next to a class
+     * @param anchor
+     *      The class whose package has the resources
+     * @param sourceDirectory
+     *      The directory where the resources are looked for when they aren't next to the class
+     */
+    public Resources(Class<?> anchor, Path sourceDirectory) {
+        this.anchor = anchor;
+        this.sourceDirectory = sourceDirectory;
+    }
+
+    /**
+     * Gets the loader of the game's resources
+     * @return
+     *      The shared loader
+     */
+    public static Resources getShared() {
+        return SHARED;
+    }
+
+    /**
+     * Gets the bytes of a resource, reading it only the first time
+     * @param name
+     *      The resource's name, like "enemy.png"
+     * @return
+     *      The resource's bytes, which must not be changed
+     * @throws FileNotFoundException
+     *      When there's no resource with that name
+     */
+    public byte[] getBytes(String name) throws FileNotFoundException {
+        CompletableFuture<byte[]> file = files.get(name);
+        if (file == null) {
+            CompletableFuture<byte[]> created = new CompletableFuture<>();
+            file = files.putIfAbsent(name, created);
+            if (file == null) {
+                file = created;
+                load(name, created);
+            }
+        }
+        try {
+            return file.join();
+        } catch (CompletionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof FileNotFoundException) {
+                throw new FileNotFoundException(cause.getMessage());
+            }
+            if (cause instanceof IOException) {
+                throw new UncheckedIOException((IOException) cause);
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Opens a resource from the bytes kept in memory
+     * @param name
+     *      The resource's name
+     * @return
+     *      A stream with the resource's bytes, which supports mark and reset
+     * @throws FileNotFoundException
+     *      When there's no resource with that name
+     */
+    public InputStream open(String name) throws FileNotFoundException {
+        return new ByteArrayInputStream(getBytes(name));
+    }
+
+    /**
+     * Reads resources in parallel in the common pool, so they are in memory when they are needed
+     * @param names
+     *      The names of the resources
+     * @return
+     *      A future that completes when every resource was read or found to be missing
+     */
+    public CompletableFuture<Void> preload(Collection<String> names) {
+        return preload(names, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Reads resources in parallel, so they are in memory when they are needed.
+     * A missing resource doesn't stop the others, it fails later when it's asked for
+     * @param names
+     *      The names of the resources
+     * @param executor
+     *      The executor that reads them
+     * @return
+     *      A future that completes when every resource was read or found to be missing
+     */
+    public CompletableFuture<Void> preload(Collection<String> names, Executor executor) {
+        CompletableFuture<?>[] reads = new CompletableFuture<?>[names.size()];
+        int i = 0;
+        for (String name : names) {
+            reads[i++] = CompletableFuture.runAsync(() -> {
+                try {
+                    getBytes(name);
+                } catch (FileNotFoundException | RuntimeException e) {
+                    // It's reported when it's used
+                }
+            }, executor);
+        }
+        return CompletableFuture.allOf(reads);
+    }
+
+    /**
+     * Checks if a resource was already read
+     * @param name
+     *      The resource's name
+     * @return
+     *      True if its bytes are in memory, False otherwise
+     */
+    public boolean isLoaded(String name) {
+        CompletableFuture<byte[]> file = files.get(name);
+        return file != null && file.isDone() && !file.isCompletedExceptionally();
+    }
+
+    private void load(String name, CompletableFuture<byte[]> file) {
+        try {
+            file.complete(read(name));
+        } catch (IOException | RuntimeException e) {
+            // A failed read isn't kept, so it's tried again the next time
+            files.remove(name, file);
+            file.completeExceptionally(e);
+        }
+    }
+
+    private byte[] read(String name) throws IOException {
+        try (InputStream input = anchor.getResourceAsStream(name)) {
+            if (input != null) {
+                return input.readAllBytes();
+            }
+        }
+        try {
+            return Files.readAllBytes(sourceDirectory.resolve(name));
+        } catch (NoSuchFileException e) {
+            throw new FileNotFoundException("Resource not found: " + name);
+        }
+    }
+}
@@ -1,5 +1,6 @@
 package com.github.ylinker.finalreality.gui.scenes;
 
+import com.github.ylinker.finalreality.controller.BattleRandom;
 import com.github.ylinker.finalreality.controller.GameController;
 import javafx.geometry.Insets;
 import javafx.scene.Scene;
@@ -19,7 +20,7 @@ import java.util.*;
  */
 public class ChooseInventoryScene {
     private GameController controller;
-    private Random random;
+    private BattleRandom random;
     private MainScene nextScene;
     private Stage primaryStage;
     private List<String> classes;
@@ -39,9 +40,8 @@ public class ChooseInventoryScene {
         this.controller = controller;
         classes = Arrays.asList("Knife", "Axe", "Bow", "Staff", "Sword");
         names = Arrays.asList("Dyrnwyn", "Sharur", "Halayudha", "Zulfiqar", "Tyrfing", "Gram", "Kusanagi", "Tonbogiri");
-        Collections.shuffle(names);
-        Random seed = new Random();
-        random = new Random(seed.nextInt());
+        random = controller.getRandom();
+        random.shuffle(names);
         this.nextScene = nextScene;
         this.primaryStage = primaryStage;
     }
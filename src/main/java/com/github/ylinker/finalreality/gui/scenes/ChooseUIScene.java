@@ -1,5 +1,6 @@
 package com.github.ylinker.finalreality.gui.scenes;
 
+import com.github.ylinker.finalreality.controller.BattleRandom;
 import com.github.ylinker.finalreality.controller.GameController;
 import javafx.geometry.Insets;
 import javafx.scene.Scene;
@@ -23,7 +24,7 @@ import java.util.*;
 public class ChooseUIScene {
     private GameController controller;
     private final List<String> classes;
-    private Random random;
+    private BattleRandom random;
     private TextArea nameArea;
     private ChooseInventoryScene nextScene;
     private Stage primaryStage;
@@ -41,8 +42,7 @@ public class ChooseUIScene {
     public ChooseUIScene(GameController controller, Stage primaryStage, ChooseInventoryScene nextScene) {
         this.controller = controller;
         classes = Arrays.asList("Knight", "Engineer", "Black Mage", "White Mage", "Thief");
-        Random seed = new Random();
-        random = new Random(seed.nextInt());
+        random = controller.getRandom();
         this.nextScene = nextScene;
         this.primaryStage = primaryStage;
     }
@@ -1,5 +1,6 @@
 package com.github.ylinker.finalreality.gui.scenes;
 
+import com.github.ylinker.finalreality.gui.nodes.ImageCache;
 import javafx.geometry.Pos;
 import javafx.scene.Group;
 import javafx.scene.Scene;
@@ -10,14 +11,16 @@ import javafx.scene.paint.Color;
 import javafx.scene.text.Font;
 import org.jetbrains.annotations.Nullable;
 
-import java.io.FileInputStream;
 import java.io.FileNotFoundException;
 
 /**
  * Class that creates the ending screen scene
  */
 public class EndScreenScene {
-    private static final String RESOURCE_PATH = "src/main/resources/endScreen.png";
+    /**
+     * The resource with the background of the screen
+     */
+    public static final String BACKGROUND = "endScreen.png";
 
     /**
      * Builds the Victory screen
@@ -56,8 +59,7 @@ public class EndScreenScene {
     }
 
     private void setBackground(BorderPane pane) throws FileNotFoundException {
-        FileInputStream sprite = new FileInputStream(RESOURCE_PATH);
-        Image img = new Image(sprite);
+        Image img = ImageCache.getShared().get(BACKGROUND);
         BackgroundSize bSize = new BackgroundSize(1280, 720, false, false, true, true);
         Background background = new Background(new BackgroundImage(img,
                 BackgroundRepeat.NO_REPEAT,
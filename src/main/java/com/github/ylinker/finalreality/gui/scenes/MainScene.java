@@ -1,11 +1,18 @@
 package com.github.ylinker.finalreality.gui.scenes;
 
 import com.github.ylinker.finalreality.controller.GameController;
+import com.github.ylinker.finalreality.controller.handler.CharacterEvent;
+import com.github.ylinker.finalreality.gui.dispatch.ViewDispatcher;
 import com.github.ylinker.finalreality.gui.nodes.EnemyNodeBuilder;
+import com.github.ylinker.finalreality.gui.nodes.ImageCache;
 import com.github.ylinker.finalreality.gui.nodes.PlayerNodeBuilder;
+import com.github.ylinker.finalreality.gui.nodes.RosterPanel;
 import com.github.ylinker.finalreality.gui.nodes.WeaponNodeBuilder;
+import com.github.ylinker.finalreality.metrics.MetricsRegistry;
+import com.github.ylinker.finalreality.model.character.Enemy;
+import com.github.ylinker.finalreality.model.character.ICharacter;
 import com.github.ylinker.finalreality.model.character.IPlayerCharacter;
-import javafx.animation.AnimationTimer;
+import javafx.application.Platform;
 import javafx.event.EventHandler;
 import javafx.geometry.Insets;
 import javafx.geometry.Pos;
@@ -22,19 +29,31 @@ import javafx.stage.Stage;
 import java.io.FileNotFoundException;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.Random;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
 
 /**
  * Class that makes and controls the main scene of the game
  */
 public class MainScene implements IScene {
-    private static final String RESOURCE_PATH = "src/main/resources/";
+    private static final String ENEMY_SPRITE = "enemy.png";
+    private static final String WEAPON_SPRITE = "weapon1.png";
+    private static final String[] CHARACTER_CLASSES = {"Engineer", "Knight", "Thief", "White Mage", "Black Mage"};
+    private static final int SPRITE_HEIGHT = 75;
+    private static final int SPRITE_WIDTH = 90;
+    // The keys of the commands that replace the center of the scene and the whole scene
+    private static final Object CENTER = "center";
+    private static final Object STAGE = "stage";
     private final GameController controller;
     private final Stage primaryStage;
     private Label currentTurn;
     private BorderPane root;
     private BorderPane center;
     private Group main;
+    private RosterPanel enemyPanel;
+    private RosterPanel playerPanel;
+    private final ViewDispatcher dispatcher;
+    private final Executor gameExecutor;
     private EndScreenScene endScreenScene = new EndScreenScene();
 
     /**
@@ -45,8 +64,27 @@ public class MainScene implements IScene {
      *      The Application stage
      */
     public MainScene(GameController controller, Stage stage) {
+        this(controller, stage, Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "game-logic");
+            thread.setDaemon(true);
+            return thread;
+        }));
+    }
+
+    /**
+     * Creates the main scene controller
+     * @param controller
+     *      The game controller
+     * @param stage
+     *      The Application stage
+     * @param gameExecutor
+     *      The executor where the enemies play their turns, outside of the FX thread
+     */
+    public MainScene(GameController controller, Stage stage, Executor gameExecutor) {
         this.controller = controller;
         this.primaryStage = stage;
+        this.gameExecutor = gameExecutor;
+        this.dispatcher = new ViewDispatcher(Platform::runLater, MetricsRegistry.getShared());
     }
 
     /**
@@ -77,18 +115,6 @@ public class MainScene implements IScene {
         return top;
     }
 
-    private VBox makeColumn(List<HBox> enemies, Text title, Pos position, int spacing) {
-        VBox column = new VBox();
-        column.setSpacing(spacing);
-        column.setAlignment(position);
-        column.getChildren().add(title);
-
-        for (var enemy: enemies) {
-            column.getChildren().add(enemy);
-        }
-        return column;
-    }
-
     private void makeTurnLabel(String msg) {
         currentTurn = new Label(msg);
         currentTurn.setFont(Font.font("suruma", 30));
@@ -99,51 +125,83 @@ public class MainScene implements IScene {
         currentTurn.setMinWidth(800);
     }
 
-    private ArrayList<HBox> initEnemyNodes() throws FileNotFoundException {
+    /**
+     * Gets the resource with the sprite of a class of player character
+     * @param characterClass
+     *      The character's class
+     * @return
+     *      The name of its image
+     */
+    private static String spritePath(String characterClass) {
+        String imgName;
+        switch (characterClass){
+            case "White Mage":
+                imgName = "wMage";
+                break;
+            case "Black Mage":
+                imgName = "bMage";
+                break;
+            default:
+                imgName = characterClass;
+        }
+        return imgName + ".gif";
+    }
+
+    /**
+     * Decodes every sprite of the scene at the size it's shown, so building the scene doesn't read any file
+     * @param cache
+     *      The cache where the sprites are kept
+     * @throws FileNotFoundException
+     *      When an image is not found on resources
+     */
+    public static void preloadImages(ImageCache cache) throws FileNotFoundException {
+        for (String sprite : getSprites()) {
+            cache.preload(sprite, SPRITE_WIDTH, SPRITE_HEIGHT);
+        }
+    }
+
+    /**
+     * Gets the resources of every sprite the scene can show
+     * @return
+     *      The names of the images
+     */
+    public static List<String> getSprites() {
+        List<String> sprites = new ArrayList<>();
+        sprites.add(ENEMY_SPRITE);
+        sprites.add(WEAPON_SPRITE);
+        for (String characterClass : CHARACTER_CLASSES) {
+            sprites.add(spritePath(characterClass));
+        }
+        return sprites;
+    }
+
+    private void initEnemyNodes(RosterPanel panel) throws FileNotFoundException {
         EnemyNodeBuilder nodeBuilder = new EnemyNodeBuilder();
-        nodeBuilder.setImagePath(RESOURCE_PATH + "enemy.png");
+        nodeBuilder.setImagePath(ENEMY_SPRITE);
         nodeBuilder.setPosition(10, 10);
-        nodeBuilder.setSize(75, 90);
-        ArrayList<HBox> enemies = new ArrayList<>();
+        nodeBuilder.setSize(SPRITE_HEIGHT, SPRITE_WIDTH);
         for (var e: controller.getEnemies()) {
             nodeBuilder.setInfo(controller.getCharacterName(e),
                     controller.getCharacterHealth(e),
                     controller.getCharacterAttack(e),
                     controller.getCharacterDefense(e));
-            enemies.add(nodeBuilder.build());
+            panel.add(e.getId(), nodeBuilder.buildNode());
         }
-        return enemies;
     }
 
-    private ArrayList<HBox> initPlayerNodes() throws FileNotFoundException {
-        Random random = new Random();
+    private void initPlayerNodes(RosterPanel panel) throws FileNotFoundException {
         PlayerNodeBuilder nodeBuilder = new PlayerNodeBuilder();
         nodeBuilder.setPosition(10, 10);
-        nodeBuilder.setSize(75, 90);
-        ArrayList<HBox> playerCharacters = new ArrayList<>();
-        int i = 0;
+        nodeBuilder.setSize(SPRITE_HEIGHT, SPRITE_WIDTH);
         for (var e: controller.getCharacters()) {
-            String imgName;
-            switch (controller.getCharacterClass(e)){
-                case "White Mage":
-                    imgName = "wMage";
-                    break;
-                case "Black Mage":
-                    imgName = "bMage";
-                    break;
-                default:
-                    imgName = controller.getCharacterClass(e);
-            }
-            nodeBuilder.setImagePath(RESOURCE_PATH + imgName + ".gif");
+            nodeBuilder.setImagePath(spritePath(controller.getCharacterClass(e)));
             nodeBuilder.setInfo(controller.getCharacterName(e),
                     controller.getCharacterHealth(e),
                     controller.getCharacterAttack(e),
                     controller.getCharacterDefense(e),
                     controller.getCharacterClass(e));
-            playerCharacters.add(nodeBuilder.build());
-            i++;
+            panel.add(e.getId(), nodeBuilder.buildNode());
         }
-        return playerCharacters;
     }
 
     private VBox left() throws FileNotFoundException {
@@ -151,7 +209,9 @@ public class MainScene implements IScene {
         enemyTitle.setFont(Font.font("Gubbi", FontWeight.BOLD, 30));
         enemyTitle.setStroke(Color.DARKRED);
 
-        VBox enemies = makeColumn(initEnemyNodes(), enemyTitle, Pos.TOP_RIGHT, 20);
+        enemyPanel = new RosterPanel(enemyTitle, Pos.TOP_RIGHT, 20);
+        initEnemyNodes(enemyPanel);
+        VBox enemies = enemyPanel.getNode();
         enemies.setPadding(new Insets(100, 0, 0, 50));
         enemies.setStyle("-fx-border-width: 0 2 0 0; " +
                 "-fx-border-color: red black green yellow;" +
@@ -174,7 +234,9 @@ public class MainScene implements IScene {
         playerTitle.setFont(Font.font("Gubbi", FontWeight.BOLD, 30));
         playerTitle.setStroke(Color.DARKBLUE);
 
-        VBox players = makeColumn(initPlayerNodes(), playerTitle, Pos.TOP_LEFT, 5);
+        playerPanel = new RosterPanel(playerTitle, Pos.TOP_LEFT, 5);
+        initPlayerNodes(playerPanel);
+        VBox players = playerPanel.getNode();
         players.setPadding(new Insets(0, 50, 0, 0));
         players.setStyle("-fx-border-width: 0 0 0 2; " +
                 "-fx-border-color: red black blue black;" +
@@ -192,29 +254,99 @@ public class MainScene implements IScene {
         root.setLeft(left());
         root.setRight(right());
         root.setCenter(initialCenter());
+        subscribeToCharacters();
         controller.initTurns();
-        setUpTimer();
         return new Scene(root, 1280, 720);
     }
 
-    private void setUpTimer() {
-        AnimationTimer timer = new AnimationTimer() {
-            @Override
-            public void handle(long now) {
-                root.setCenter(main);
+    /**
+     * Keeps the rosters up to date with the characters: only the labels of a character whose
+     * stats changed are updated, and a dead character's node is removed
+     */
+    private void subscribeToCharacters() {
+        controller.subscribeToEnemies(CharacterEvent.STATS_CHANGED, enemy -> updateNode(enemyPanel, enemy));
+        controller.subscribeToEnemies(CharacterEvent.DEATH, enemy -> removeNode(enemyPanel, enemy));
+        controller.subscribeToCharacters(CharacterEvent.STATS_CHANGED, character -> updateNode(playerPanel, character));
+        controller.subscribeToCharacters(CharacterEvent.DEATH, character -> removeNode(playerPanel, character));
+    }
+
+    private void updateNode(RosterPanel panel, ICharacter character) {
+        // The stats are read when they change, the turns can be played outside of the FX thread
+        int id = character.getId();
+        int health = controller.getCharacterHealth(character);
+        int attack = controller.getCharacterAttack(character);
+        int defense = controller.getCharacterDefense(character);
+        // Only the last stats of a character are shown, and its removal replaces them
+        dispatcher.submit(List.of(panel, id), () -> panel.update(id, health, attack, defense));
+    }
+
+    private void removeNode(RosterPanel panel, ICharacter character) {
+        int id = character.getId();
+        dispatcher.submit(List.of(panel, id), () -> panel.remove(id));
+    }
+
+    /**
+     * Shows a screen in the center of the scene, on the FX thread.
+     * It can be called from any thread. The screens asked for before the FX thread gets to show them are
+     * coalesced: only the last one is built and shown
+     * @param screen
+     *      The screen to show
+     */
+    private void showLater(Screen screen) {
+        dispatcher.submit(CENTER, () -> {
+            try {
+                screen.show();
+            } catch (FileNotFoundException e) {
             }
-        };
-        timer.start();
+        });
+    }
+
+    /**
+     * Changes the center node to show the player's turn screen.
+     * It's called by the controller, from the thread where the turn began
+     */
+    @Override
+    public void playerTurn() {
+        showLater(this::showPlayerTurn);
+    }
+
+    /**
+     * Plays the enemy's turn and then changes the center node to show what it did.
+     * It's called by the controller, from the thread where the turn began, which holds the controller's lock,
+     * so the turn is played on the game's executor once the lock is released
+     */
+    @Override
+    public void enemyTurn() {
+        gameExecutor.execute(this::playEnemyTurn);
     }
 
+    /**
+     * Chooses the enemy's target and attacks it, on the game's executor.
+     * Only the outcome is handed to the FX thread, which shows it
+     */
+    private void playEnemyTurn() {
+        String enemyName;
+        String targetName;
+        int damage;
+        synchronized (controller) {
+            ICharacter enemy = controller.getCurrentTurnCharacter();
+            if (!(enemy instanceof Enemy)) {
+                return;
+            }
+            enemyName = controller.getCharacterName(enemy);
+            ICharacter target = controller.chooseRandomTarget();
+            targetName = controller.getCharacterName(target);
+            damage = controller.tryToAttack(target);
+        }
+        showLater(() -> showEnemyTurn(enemyName, damage, targetName));
+    }
 
     /**
-     * Changes the center node to show the player's turn screen
+     * Shows the player's turn screen, on the FX thread
      * @throws FileNotFoundException
      *      When an image is not found on resources
      */
-    @Override
-    public void playerTurn() throws FileNotFoundException {
+    private void showPlayerTurn() throws FileNotFoundException {
         main = new Group();
         BorderPane playerTurn = new BorderPane();
         playerTurn.setPadding(new Insets(0, 0, 100, 0));
@@ -265,6 +397,7 @@ public class MainScene implements IScene {
         playerTurn.setCenter(dialog);
         center = playerTurn;
         main.getChildren().add(playerTurn);
+        root.setCenter(main);
     }
 
     private void chooseWeapon() throws FileNotFoundException {
@@ -298,7 +431,7 @@ public class MainScene implements IScene {
                     (event -> {
                         controller.tryToEquip(w);
                         try {
-                            playerTurn();
+                            showPlayerTurn();
                         } catch (FileNotFoundException e) {
                         }
                     })
@@ -309,7 +442,7 @@ public class MainScene implements IScene {
         goBack.setOnAction(event -> {
             controller.goBack();
             try {
-                playerTurn();
+                showPlayerTurn();
             } catch (FileNotFoundException e) {
             }
         });
@@ -320,14 +453,15 @@ public class MainScene implements IScene {
         equipTurn.setCenter(content);
         center = equipTurn;
         main.getChildren().add(center);
+        root.setCenter(main);
     }
 
     private Button makeWeaponButton(String name, int weight, int damage, String className, EventHandler function) throws FileNotFoundException {
         Button b = new Button();
         WeaponNodeBuilder wb = new WeaponNodeBuilder();
-        wb.setImagePath(RESOURCE_PATH + "weapon1.png");
+        wb.setImagePath(WEAPON_SPRITE);
         wb.setPosition(10, 10);
-        wb.setSize(75, 90);
+        wb.setSize(SPRITE_HEIGHT, SPRITE_WIDTH);
         wb.setInfo(name,
                 weight,
                 damage,
@@ -373,7 +507,7 @@ public class MainScene implements IScene {
         back.setOnAction(event -> {
             controller.goBack();
             try {
-                playerTurn();
+                showPlayerTurn();
             } catch (FileNotFoundException e) {
             }
         });
@@ -384,43 +518,44 @@ public class MainScene implements IScene {
         targetTurn.setCenter(content);
         center = targetTurn;
         main.getChildren().add(center);
+        root.setCenter(main);
     }
 
     private Button makeEnemyButton(String name, int health, int attack, int defense, EventHandler function) throws FileNotFoundException {
         Button enemy = new Button();
         enemy.setOnAction(function);
         EnemyNodeBuilder eb = new EnemyNodeBuilder();
-        eb.setImagePath(RESOURCE_PATH + "enemy.png");
+        eb.setImagePath(ENEMY_SPRITE);
         eb.setPosition(10, 10);
-        eb.setSize(75, 90);
+        eb.setSize(SPRITE_HEIGHT, SPRITE_WIDTH);
         eb.setInfo(name, health, attack, defense);
         enemy.setGraphic(eb.build());
         return enemy;
     }
 
     /**
-     * Changes the center node to show the screen when its the enemy's turn
+     * Shows what an enemy did on its turn, on the FX thread
+     * @param enemyName
+     *      The name of the enemy that played
+     * @param damage
+     *      The damage it did
+     * @param targetName
+     *      The name of the character it attacked
      * @throws FileNotFoundException
      *      When an image is not found on resources
      */
-    @Override
-    public void enemyTurn() throws FileNotFoundException {
+    private void showEnemyTurn(String enemyName, int damage, String targetName) throws FileNotFoundException {
         main = new Group();
         BorderPane enemyTurn = new BorderPane();
         enemyTurn.setPadding(new Insets(0, 0, 100, 0));
-        makeTurnLabel("It's " + controller.getCharacterName(controller.getCurrentTurnCharacter()) + "'s Turn!");
+        makeTurnLabel("It's " + enemyName + "'s Turn!");
         enemyTurn.setTop(currentTurn);
 
-        int damage = controller.tryToAttack(controller.chooseRandomTarget());
         VBox dialog = new VBox();
         dialog.setSpacing(10);
-        Label text = new Label(controller.getCharacterName(controller.getCurrentTurnCharacter()) +
-                " did " + damage + " damage to " +
-                controller.getCharacterName(controller.getLastAttackedCharacter()));
+        Label text = new Label(enemyName + " did " + damage + " damage to " + targetName);
         Button cont = new Button("Continue");
-        cont.setOnAction(event -> {
-            controller.toBeginTurnPhase();
-        });
+        cont.setOnAction(event -> waitNextTurn());
         cont.setAlignment(Pos.BOTTOM_RIGHT);
         text.setFont(Font.font(15));
         dialog.getChildren().add(text);
@@ -429,7 +564,7 @@ public class MainScene implements IScene {
         enemyTurn.setCenter(dialog);
         center = enemyTurn;
         main.getChildren().add(center);
-        updatePlayer();
+        root.setCenter(main);
     }
 
     private void dialogTurn(int damage, String enemyName) throws FileNotFoundException {
@@ -445,15 +580,7 @@ public class MainScene implements IScene {
                 " did " + damage + " damage to " +
                 enemyName);
         Button cont = new Button("Continue");
-        cont.setOnAction(event -> {
-            controller.toBeginTurnPhase();
-            if (controller.getCurrentTurnCharacter() == null) {
-                try {
-                    initialCenter();
-                } catch (FileNotFoundException e) {
-                }
-            }
-        });
+        cont.setOnAction(event -> waitNextTurn());
         cont.setAlignment(Pos.BOTTOM_RIGHT);
         text.setFont(Font.font(15));
         dialog.getChildren().add(text);
@@ -462,15 +589,16 @@ public class MainScene implements IScene {
         dialogTurn.setCenter(dialog);
         center = dialogTurn;
         main.getChildren().add(center);
-        updateEnemies();
+        root.setCenter(main);
     }
 
-    private void updateEnemies() throws FileNotFoundException {
-        root.setLeft(left());
-    }
-
-    private void updatePlayer() throws FileNotFoundException {
-        root.setRight(right());
+    /**
+     * Ends the turn and shows the waiting screen until the next one begins.
+     * The waiting screen is asked for first, so a turn that begins right away replaces it before it's shown
+     */
+    private void waitNextTurn() {
+        showLater(() -> root.setCenter(initialCenter()));
+        controller.toBeginTurnPhase();
     }
 
     /**
@@ -478,8 +606,7 @@ public class MainScene implements IScene {
      */
     @Override
     public void winScene() {
-        Scene scene = endScreenScene.buildWinScreen();
-        primaryStage.setScene(scene);
+        dispatcher.submit(STAGE, () -> primaryStage.setScene(endScreenScene.buildWinScreen()));
     }
 
     /**
@@ -487,8 +614,13 @@ public class MainScene implements IScene {
      */
     @Override
     public void loseScene() {
-        Scene scene = endScreenScene.buildLoseScreen();
-        primaryStage.setScene(scene);
+        dispatcher.submit(STAGE, () -> primaryStage.setScene(endScreenScene.buildLoseScreen()));
     }
 
+    /**
+     * A screen of the center of the scene
+     */
+    private interface Screen {
+        void show() throws FileNotFoundException;
+    }
 }
@@ -0,0 +1,274 @@
+package com.github.ylinker.finalreality.host;
+
+import com.github.ylinker.finalreality.controller.BattleRandom;
+import com.github.ylinker.finalreality.controller.GameController;
+import com.github.ylinker.finalreality.controller.scheduler.ITurnHandle;
+import com.github.ylinker.finalreality.controller.scheduler.ITurnScheduler;
+import com.github.ylinker.finalreality.simulator.BattleSpec;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * @author Yuval Linker
+ *
+ * Serves many independent battles in the same process. Every battle is a {@link BattleSession}
+ * with its own controller, but all of them share one turn scheduler for their delays and one
+ * executor for the enemies' turns, so the amount of threads doesn't grow with the sessions.
+ *
+ * A session is evicted when no turn was played in it for the idle timeout. The amount of sessions
+ * and the size of every battle are limited, so the memory used by the host is bounded.
+ */
+public class BattleHost {
+    public static final long DEFAULT_IDLE_TIMEOUT_SECONDS = 300;
+    public static final int DEFAULT_MAX_SESSIONS = 100_000;
+    public static final int DEFAULT_MAX_ENTRIES_PER_SESSION = 64;
+
+    private final ITurnScheduler scheduler;
+    private final Executor executor;
+    private final Map<Long, BattleSession> sessions = new ConcurrentHashMap<>();
+    private final AtomicLong nextId = new AtomicLong();
+    private final AtomicInteger openSessions = new AtomicInteger();
+    private final HostMetrics metrics = new HostMetrics();
+    private long idleTimeout = TimeUnit.SECONDS.toNanos(DEFAULT_IDLE_TIMEOUT_SECONDS);
+    private int maxSessions = DEFAULT_MAX_SESSIONS;
+    private int maxEntriesPerSession = DEFAULT_MAX_ENTRIES_PER_SESSION;
+    private ITurnHandle eviction;
+    private boolean stopped;
+
+    /**
+     * Creates a host
+     * @param scheduler
+     *      The scheduler shared by every session for the characters' delays and the evictions
+     * @param executor
+     *      The executor shared by every session to play the enemies' turns
+     */
+    public BattleHost(@NotNull ITurnScheduler scheduler, @NotNull Executor executor) {
+        this.scheduler = scheduler;
+        this.executor = executor;
+    }
+
+    /**
+     * Sets how long a session can go without playing a turn before it's evicted
+     * @param timeout
+     *      The idle timeout
+     * @param unit
+     *      The time unit of the timeout
+     * @return
+     *      This host
+     */
+    public BattleHost setIdleTimeout(long timeout, @NotNull TimeUnit unit) {
+        idleTimeout = unit.toNanos(timeout);
+        return this;
+    }
+
+    /**
+     * Sets the maximum amount of sessions open at the same time
+     * @param maxSessions
+     *      The maximum amount of sessions
+     * @return
+     *      This host
+     */
+    public BattleHost setMaxSessions(int maxSessions) {
+        this.maxSessions = maxSessions;
+        return this;
+    }
+
+    /**
+     * Sets the maximum amount of characters, enemies and weapons of a session's battle
+     * @param maxEntries
+     *      The maximum size of a battle spec
+     * @return
+     *      This host
+     */
+    public BattleHost setMaxEntriesPerSession(int maxEntries) {
+        this.maxEntriesPerSession = maxEntries;
+        return this;
+    }
+
+    /**
+     * Starts evicting idle sessions periodically, every half of the idle timeout
+     */
+    public synchronized void startEviction() {
+        if (eviction == null && !stopped) {
+            scheduleEviction();
+        }
+    }
+
+    private void scheduleEviction() {
+        eviction = scheduler.schedule(() -> {
+            evictIdleSessions();
+            synchronized (this) {
+                if (!stopped) {
+                    scheduleEviction();
+                }
+            }
+        }, Math.max(idleTimeout / 2, 1), TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Creates a session and starts its battle
+     * @param spec
+     *      The characters, enemies and weapons of the battle
+     * @return
+     *      The new session
+     * @throws IllegalArgumentException
+     *      When the battle is bigger than the maximum size of a session
+     * @throws IllegalStateException
+     *      When the host already has the maximum amount of sessions or was shut down
+     */
+    public BattleSession createSession(@NotNull BattleSpec spec) {
+        return createSession(spec, new BattleRandom());
+    }
+
+    /**
+     * Creates a session whose random decisions come from the given generator and starts its battle
+     * @param spec
+     *      The characters, enemies and weapons of the battle
+     * @param random
+     *      The generator of the battle, used by this session only
+     * @return
+     *      The new session
+     * @throws IllegalArgumentException
+     *      When the battle is bigger than the maximum size of a session
+     * @throws IllegalStateException
+     *      When the host already has the maximum amount of sessions or was shut down
+     */
+    public BattleSession createSession(@NotNull BattleSpec spec, @NotNull BattleRandom random) {
+        if (spec.size() > maxEntriesPerSession) {
+            throw new IllegalArgumentException("A session can't have more than " + maxEntriesPerSession +
+                    " characters, enemies and weapons");
+        }
+        if (stopped) {
+            throw new IllegalStateException("The host was shut down");
+        }
+        if (openSessions.incrementAndGet() > maxSessions) {
+            openSessions.decrementAndGet();
+            throw new IllegalStateException("The host already has " + maxSessions + " sessions");
+        }
+        GameController controller;
+        BattleSession session;
+        try {
+            controller = new GameController(scheduler, random);
+            session = new BattleSession(nextId.incrementAndGet(), this, controller);
+            controller.setScene(session);
+            spec.applyTo(controller);
+        } catch (RuntimeException e) {
+            // The session was never opened, so its slot is given back
+            openSessions.decrementAndGet();
+            throw e;
+        }
+        sessions.put(session.getId(), session);
+        metrics.sessionCreated();
+        controller.initTurns();
+        return session;
+    }
+
+    /**
+     * Gets an open session
+     * @param id
+     *      The id of the session
+     * @return
+     *      The session, or null if there is no open session with that id
+     */
+    public BattleSession getSession(long id) {
+        return sessions.get(id);
+    }
+
+    /**
+     * Gets every open session
+     * @return
+     *      A view of the open sessions
+     */
+    public Collection<BattleSession> getSessions() {
+        return Collections.unmodifiableCollection(sessions.values());
+    }
+
+    /**
+     * Closes a session and stops its battle
+     * @param id
+     *      The id of the session
+     * @return
+     *      True if the session was open, False otherwise
+     */
+    public boolean closeSession(long id) {
+        BattleSession session = sessions.get(id);
+        return session != null && close(session, false);
+    }
+
+    private boolean close(BattleSession session, boolean evicted) {
+        if (!sessions.remove(session.getId(), session)) {
+            return false;
+        }
+        session.close();
+        openSessions.decrementAndGet();
+        metrics.sessionClosed(evicted);
+        return true;
+    }
+
+    /**
+     * Closes every session where no turn was played for the idle timeout
+     * @return
+     *      The amount of evicted sessions
+     */
+    public int evictIdleSessions() {
+        long now = scheduler.currentTime();
+        int evicted = 0;
+        for (BattleSession session : sessions.values()) {
+            if (now - session.getLastActivity() >= idleTimeout && close(session, true)) {
+                evicted++;
+            }
+        }
+        return evicted;
+    }
+
+    /**
+     * Closes every session and stops the evictions. The scheduler and executor are not shut down,
+     * since they may be shared with other hosts
+     */
+    public void shutdown() {
+        synchronized (this) {
+            stopped = true;
+            if (eviction != null) {
+                eviction.cancel();
+            }
+        }
+        for (BattleSession session : sessions.values()) {
+            close(session, false);
+        }
+    }
+
+    /**
+     * Gets the metrics of this host
+     * @return
+     *      The host's metrics
+     */
+    public HostMetrics getMetrics() {
+        return metrics;
+    }
+
+    /**
+     * Gets the scheduler shared by the sessions
+     * @return
+     *      The turn scheduler
+     */
+    public ITurnScheduler getScheduler() {
+        return scheduler;
+    }
+
+    /**
+     * Gets the executor where the enemies' turns are played
+     * @return
+     *      The executor
+     */
+    Executor getExecutor() {
+        return executor;
+    }
+}
@@ -0,0 +1,167 @@
+package com.github.ylinker.finalreality.host;
+
+import com.github.ylinker.finalreality.controller.GameController;
+import com.github.ylinker.finalreality.gui.scenes.IScene;
+import com.github.ylinker.finalreality.model.character.Enemy;
+import com.github.ylinker.finalreality.model.character.IPlayerCharacter;
+import com.github.ylinker.finalreality.simulator.BattleOutcome;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.function.Consumer;
+
+/**
+ * @author Yuval Linker
+ *
+ * One battle served by a {@link BattleHost}. The session is the controller's view: it plays
+ * the enemies' turns on the host's executor and remembers how the battle ended.
+ * The player's turns are played by the client with {@link #playTurn(Consumer)}.
+ */
+public class BattleSession implements IScene {
+    private final long id;
+    private final BattleHost host;
+    private final GameController controller;
+    private volatile BattleOutcome outcome;
+    private volatile long lastActivity;
+
+    /**
+     * Creates a session. Sessions are only created by the host
+     * @param id
+     *      The id of the session in its host
+     * @param host
+     *      The host of the session
+     * @param controller
+     *      The controller of the session's battle
+     */
+    BattleSession(long id, BattleHost host, GameController controller) {
+        this.id = id;
+        this.host = host;
+        this.controller = controller;
+        touch();
+    }
+
+    private void touch() {
+        lastActivity = host.getScheduler().currentTime();
+    }
+
+    /**
+     * Gets the id of the session in its host
+     * @return
+     *      The session's id
+     */
+    public long getId() {
+        return id;
+    }
+
+    /**
+     * Gets the controller of the session's battle
+     * @return
+     *      The game controller
+     */
+    public GameController getController() {
+        return controller;
+    }
+
+    /**
+     * Gets how the battle ended
+     * @return
+     *      The outcome of the battle, or null if it hasn't ended
+     */
+    public BattleOutcome getOutcome() {
+        return outcome;
+    }
+
+    /**
+     * Gets the last time a turn was played in this session, in the clock of the host's scheduler
+     * @return
+     *      The time of the last activity in nanoseconds
+     */
+    public long getLastActivity() {
+        return lastActivity;
+    }
+
+    /**
+     * Checks if it's the turn of a player character, so the client can play it
+     * @return
+     *      True if a player character is waiting for a command, False otherwise
+     */
+    public boolean isPlayerTurn() {
+        return outcome == null && controller.getCurrentTurnCharacter() instanceof IPlayerCharacter;
+    }
+
+    /**
+     * Plays the current player character's turn and begins the next one
+     * @param turn
+     *      The commands given to the controller during the turn, for example going to
+     *      the attack phase and attacking an enemy
+     * @return
+     *      True if the turn was played, False if it's not the turn of a player character
+     */
+    public boolean playTurn(@NotNull Consumer<GameController> turn) {
+        synchronized (controller) {
+            if (!isPlayerTurn()) {
+                return false;
+            }
+            long start = System.nanoTime();
+            turn.accept(controller);
+            endTurn(start);
+            return true;
+        }
+    }
+
+    /**
+     * Plays the current enemy's turn, attacking a random player character
+     */
+    void playEnemyTurn() {
+        synchronized (controller) {
+            if (outcome != null || !(controller.getCurrentTurnCharacter() instanceof Enemy)) {
+                return;
+            }
+            long start = System.nanoTime();
+            controller.tryToAttack(controller.chooseRandomTarget());
+            endTurn(start);
+        }
+    }
+
+    private void endTurn(long start) {
+        if (outcome == null) {
+            controller.toBeginTurnPhase();
+        }
+        host.getMetrics().turnPlayed(System.nanoTime() - start);
+        touch();
+    }
+
+    /**
+     * Stops the battle so none of its turns stay on the scheduler
+     */
+    void close() {
+        controller.stopTurns();
+    }
+
+    @Override
+    public void playerTurn() {
+        // The client polls the session and plays the turn
+    }
+
+    @Override
+    public void enemyTurn() {
+        // The turn begins while the controller is locked, so it's played after the lock is released
+        host.getExecutor().execute(this::playEnemyTurn);
+    }
+
+    @Override
+    public void winScene() {
+        endBattle(BattleOutcome.WON);
+    }
+
+    @Override
+    public void loseScene() {
+        endBattle(BattleOutcome.LOST);
+    }
+
+    private void endBattle(BattleOutcome battleOutcome) {
+        if (outcome == null) {
+            outcome = battleOutcome;
+            host.getMetrics().battleEnded(battleOutcome == BattleOutcome.WON);
+        }
+    }
+}
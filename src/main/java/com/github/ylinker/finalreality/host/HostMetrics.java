@@ -0,0 +1,140 @@
+package com.github.ylinker.finalreality.host;
+
+import com.github.ylinker.finalreality.metrics.LatencyHistogram;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * @author Yuval Linker
+ *
+ * Counters of a {@link BattleHost}: the sessions that were created, closed and evicted,
+ * the battles that ended and the turns that were played with their latency.
+ * Every counter can be updated from any thread without locking.
+ */
+public class HostMetrics {
+    private final long startTime = System.nanoTime();
+    private final LongAdder sessionsCreated = new LongAdder();
+    private final LongAdder sessionsClosed = new LongAdder();
+    private final LongAdder sessionsEvicted = new LongAdder();
+    private final LongAdder battlesWon = new LongAdder();
+    private final LongAdder battlesLost = new LongAdder();
+    private final LatencyHistogram turnLatency = new LatencyHistogram();
+
+    void sessionCreated() {
+        sessionsCreated.increment();
+    }
+
+    void sessionClosed(boolean evicted) {
+        sessionsClosed.increment();
+        if (evicted) {
+            sessionsEvicted.increment();
+        }
+    }
+
+    void battleEnded(boolean won) {
+        if (won) {
+            battlesWon.increment();
+        } else {
+            battlesLost.increment();
+        }
+    }
+
+    void turnPlayed(long nanos) {
+        turnLatency.record(nanos);
+    }
+
+    /**
+     * Gets the amount of sessions that are open
+     * @return
+     *      The amount of live sessions
+     */
+    public long getLiveSessions() {
+        return sessionsCreated.sum() - sessionsClosed.sum();
+    }
+
+    /**
+     * Gets the amount of sessions created since the host started
+     * @return
+     *      The amount of sessions
+     */
+    public long getSessionsCreated() {
+        return sessionsCreated.sum();
+    }
+
+    /**
+     * Gets the amount of sessions that were closed for being idle
+     * @return
+     *      The amount of evicted sessions
+     */
+    public long getSessionsEvicted() {
+        return sessionsEvicted.sum();
+    }
+
+    /**
+     * Gets the amount of battles won by the players
+     * @return
+     *      The amount of battles
+     */
+    public long getBattlesWon() {
+        return battlesWon.sum();
+    }
+
+    /**
+     * Gets the amount of battles lost by the players
+     * @return
+     *      The amount of battles
+     */
+    public long getBattlesLost() {
+        return battlesLost.sum();
+    }
+
+    /**
+     * Gets the amount of turns played in every session
+     * @return
+     *      The amount of turns
+     */
+    public long getTurns() {
+        return turnLatency.getCount();
+    }
+
+    /**
+     * Gets how many turns were played each second since the host started
+     * @return
+     *      The throughput in turns per second
+     */
+    public double getTurnsPerSecond() {
+        long elapsed = System.nanoTime() - startTime;
+        return elapsed == 0 ? 0 : getTurns() * 1e9 / elapsed;
+    }
+
+    /**
+     * Gets the histogram of the time it takes to play a turn, from the command until the next turn begins
+     * @return
+     *      The turn latency histogram
+     */
+    public LatencyHistogram getTurnLatency() {
+        return turnLatency;
+    }
+
+    /**
+     * Makes a human readable summary of the metrics
+     * @return
+     *      The summary
+     */
+    public String summary() {
+        return String.format("Live sessions: %d (%d created, %d evicted)%n" +
+                        "Battles: %d won, %d lost%n" +
+                        "Turns: %d (%.1f turns/s)%n" +
+                        "Turn latency: mean %.1f us, p99 %.1f us, max %.1f us%n",
+                getLiveSessions(), getSessionsCreated(), getSessionsEvicted(),
+                getBattlesWon(), getBattlesLost(),
+                getTurns(), getTurnsPerSecond(),
+                turnLatency.getMean() / 1e3, micros(turnLatency.getPercentile(0.99)),
+                micros(turnLatency.getMax()));
+    }
+
+    private static double micros(long nanos) {
+        return nanos / (double) TimeUnit.MICROSECONDS.toNanos(1);
+    }
+}
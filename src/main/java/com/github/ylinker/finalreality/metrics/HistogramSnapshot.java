@@ -0,0 +1,62 @@
+package com.github.ylinker.finalreality.metrics;
+
+/**
+ * @author Yuval Linker
+ *
+ * The statistics of a {@link LatencyHistogram} at some moment. Every latency is in nanoseconds.
+ */
+public class HistogramSnapshot {
+    private final long count;
+    private final double mean;
+    private final long median;
+    private final long p99;
+    private final long max;
+
+    HistogramSnapshot(LatencyHistogram histogram) {
+        count = histogram.getCount();
+        mean = histogram.getMean();
+        median = histogram.getPercentile(0.5);
+        p99 = histogram.getPercentile(0.99);
+        max = histogram.getMax();
+    }
+
+    /**
+     * Gets the amount of recorded latencies
+     */
+    public long getCount() {
+        return count;
+    }
+
+    /**
+     * Gets the mean latency
+     */
+    public double getMean() {
+        return mean;
+    }
+
+    /**
+     * Gets the 50th percentile
+     */
+    public long getMedian() {
+        return median;
+    }
+
+    /**
+     * Gets the 99th percentile
+     */
+    public long getP99() {
+        return p99;
+    }
+
+    /**
+     * Gets the highest latency
+     */
+    public long getMax() {
+        return max;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("count=%d mean=%.0fns p50=%dns p99=%dns max=%dns", count, mean, median, p99, max);
+    }
+}
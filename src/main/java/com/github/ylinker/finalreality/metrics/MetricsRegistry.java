@@ -0,0 +1,71 @@
+package com.github.ylinker.finalreality.metrics;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * @author Yuval Linker
+ *
+ * Named counters and latency histograms, updated without locking from any thread.
+ * Looking a metric up by its name is only done once: the code that records keeps the counter or histogram,
+ * so recording is a single increment. Every controller records to the shared registry unless it's given
+ * another one, and {@link #snapshot()} reads every metric at once.
+ */
+public class MetricsRegistry {
+    private static final MetricsRegistry SHARED = new MetricsRegistry();
+
+    private final ConcurrentMap<String, LongAdder> counters = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, LatencyHistogram> histograms = new ConcurrentHashMap<>();
+
+    /**
+     * Gets the registry shared by every controller of the process
+     * @return
+     *      The shared registry
+     */
+    public static MetricsRegistry getShared() {
+        return SHARED;
+    }
+
+    /**
+     * Gets a counter, creating it the first time it's asked for
+     * @param name
+     *      The counter's name
+     * @return
+     *      The counter
+     */
+    public LongAdder getCounter(String name) {
+        return counters.computeIfAbsent(name, n -> new LongAdder());
+    }
+
+    /**
+     * Gets a latency histogram, creating it the first time it's asked for
+     * @param name
+     *      The histogram's name
+     * @return
+     *      The histogram
+     */
+    public LatencyHistogram getHistogram(String name) {
+        return histograms.computeIfAbsent(name, n -> new LatencyHistogram());
+    }
+
+    /**
+     * Reads every metric of the registry.
+     * Metrics keep being recorded while they are read, so the snapshot isn't atomic between metrics
+     * @return
+     *      A snapshot with the value of every counter and the statistics of every histogram
+     */
+    public MetricsSnapshot snapshot() {
+        Map<String, Long> counterValues = new TreeMap<>();
+        for (Map.Entry<String, LongAdder> entry : counters.entrySet()) {
+            counterValues.put(entry.getKey(), entry.getValue().sum());
+        }
+        Map<String, HistogramSnapshot> histogramValues = new TreeMap<>();
+        for (Map.Entry<String, LatencyHistogram> entry : histograms.entrySet()) {
+            histogramValues.put(entry.getKey(), new HistogramSnapshot(entry.getValue()));
+        }
+        return new MetricsSnapshot(counterValues, histogramValues);
+    }
+}
@@ -0,0 +1,71 @@
+package com.github.ylinker.finalreality.metrics;
+
+import java.util.Collections;
+import java.util.Map;
+
+/**
+ * @author Yuval Linker
+ *
+ * The value of every metric of a {@link MetricsRegistry} at some moment, sorted by name.
+ */
+public class MetricsSnapshot {
+    private final Map<String, Long> counters;
+    private final Map<String, HistogramSnapshot> histograms;
+
+    MetricsSnapshot(Map<String, Long> counters, Map<String, HistogramSnapshot> histograms) {
+        this.counters = Collections.unmodifiableMap(counters);
+        this.histograms = Collections.unmodifiableMap(histograms);
+    }
+
+    /**
+     * Gets the value of a counter
+     * @param name
+     *      The counter's name
+     * @return
+     *      Its value, or 0 if nothing was counted with that name
+     */
+    public long getCounter(String name) {
+        return counters.getOrDefault(name, 0L);
+    }
+
+    /**
+     * Gets the statistics of a histogram
+     * @param name
+     *      The histogram's name
+     * @return
+     *      Its statistics, or null if there's no histogram with that name
+     */
+    public HistogramSnapshot getHistogram(String name) {
+        return histograms.get(name);
+    }
+
+    /**
+     * Gets every counter by name
+     */
+    public Map<String, Long> getCounters() {
+        return counters;
+    }
+
+    /**
+     * Gets every histogram by name
+     */
+    public Map<String, HistogramSnapshot> getHistograms() {
+        return histograms;
+    }
+
+    /**
+     * Writes every metric, one per line
+     * @return
+     *      The metrics as text
+     */
+    public String summary() {
+        StringBuilder builder = new StringBuilder();
+        for (Map.Entry<String, Long> entry : counters.entrySet()) {
+            builder.append(entry.getKey()).append(' ').append(entry.getValue()).append('\n');
+        }
+        for (Map.Entry<String, HistogramSnapshot> entry : histograms.entrySet()) {
+            builder.append(entry.getKey()).append(' ').append(entry.getValue()).append('\n');
+        }
+        return builder.toString();
+    }
+}
@@ -1,11 +1,8 @@
 package com.github.ylinker.finalreality.model.character;
 
-import com.github.ylinker.finalreality.controller.handler.IEventHandler;
+import com.github.ylinker.finalreality.controller.handler.CharacterEvent;
 import org.jetbrains.annotations.NotNull;
 
-import java.util.concurrent.ScheduledExecutorService;
-import java.beans.PropertyChangeSupport;
-
 
 /**
  * An abstract class that holds the common behaviour of all the characters in the game.
@@ -20,9 +17,7 @@ public abstract class AbstractCharacter implements ICharacter {
     protected int health;
     protected int baseAttack;
     protected int defense;
-    protected ScheduledExecutorService scheduledExecutor;
-    protected final PropertyChangeSupport characterDeadEvent = new PropertyChangeSupport(this);
-    protected final PropertyChangeSupport beginTurnEvent = new PropertyChangeSupport(this);
+    private int id = NO_ID;
 
 
     /**
@@ -46,6 +41,16 @@ public abstract class AbstractCharacter implements ICharacter {
         this.defense = defense;
     }
 
+    @Override
+    public int getId() {
+        return id;
+    }
+
+    @Override
+    public void setId(final int id) {
+        this.id = id;
+    }
+
     /**
      * Gets the character's weight
      * @return the character's weight
@@ -88,16 +93,6 @@ public abstract class AbstractCharacter implements ICharacter {
         return health;
     }
 
-    /**
-     * Gets the Scheduled Executor of this character
-     * @return
-     *    The scheduled executor
-     */
-    @Override
-    public ScheduledExecutorService getScheduledExecutor() {
-        return scheduledExecutor;
-    }
-
     /**
      * Returns the character's delay based on their weight and turns formula
      * @return
@@ -105,35 +100,32 @@ public abstract class AbstractCharacter implements ICharacter {
      */
     @Override
     public int getDelay() {
-        return getWeight()/10;
-    }
-
-    /**
-     * Sets the Schedule Executor of this character
-     * @param schedule
-     *    The scheduled executor value
-     */
-    @Override
-    public void setScheduledExecutor(ScheduledExecutorService schedule) {
-        scheduledExecutor = schedule;
+        return delayOf(getWeight());
     }
 
     /**
-     * Shuts down the Scheduled Executor of this character
+     * The turns formula: the delay of a character with some weight
+     * @param weight
+     *    The character's weight, with its weapon
+     * @return
+     *    The amount of seconds of delay between turns
      */
-    @Override
-    public void shutdownScheduledExecutor() {
-        scheduledExecutor.shutdown();
+    public static int delayOf(int weight) {
+        return weight/10;
     }
 
     private void setHealth(final int newHealth) {
-        this.health = newHealth;
+        if (newHealth != this.health) {
+            this.health = newHealth;
+            publish(CharacterEvent.STATS_CHANGED);
+        }
         if(!isAlive()) {
-            characterDeadEvent.firePropertyChange("Is Dead", null, this);
+            publish(CharacterEvent.DEATH);
         }
     }
 
-    private void receiveDamage(final int damage) {
+    @Override
+    public void receiveDamage(final int damage) {
         setHealth(Math.max(this.health - damage, 0));
     }
 
@@ -167,24 +159,11 @@ public abstract class AbstractCharacter implements ICharacter {
     }
 
     /**
-     * Adds an observer for the character's death event
-     * @param handler
-     *    The Death Listener
+     * Publishes an event of this character to the event bus of its controller, if it has one
+     * @param event
+     *    The event that happened
      */
-    @Override
-    public void addDeathListener(IEventHandler handler) {
-        characterDeadEvent.addPropertyChangeListener(handler);
-    }
-
-    /**
-     * Adds an observer for the character's turn beginning
-     * @param handler
-     *    The Turn Listener
-     */
-    @Override
-    public void addBeginTurnListener(IEventHandler handler) {
-        beginTurnEvent.addPropertyChangeListener(handler);
-    }
+    protected abstract void publish(CharacterEvent event);
 
     /**
      * Warns for the event of starting this character's turn
@@ -192,6 +171,6 @@ public abstract class AbstractCharacter implements ICharacter {
      */
     @Override
     public void beginTurn() {
-        beginTurnEvent.firePropertyChange("Begin Turn", null, this);
+        publish(CharacterEvent.BEGIN_TURN);
     }
 }
@@ -1,11 +1,9 @@
 package com.github.ylinker.finalreality.model.character;
 
 import java.util.Objects;
-import java.util.concurrent.BlockingQueue;
-import java.util.concurrent.Executors;
-import java.util.concurrent.ScheduledExecutorService;
-import java.util.concurrent.TimeUnit;
 
+import com.github.ylinker.finalreality.controller.handler.CharacterEvent;
+import com.github.ylinker.finalreality.controller.handler.EventBus;
 import org.jetbrains.annotations.NotNull;
 
 /**
@@ -15,6 +13,7 @@ import org.jetbrains.annotations.NotNull;
  * @author Yuval Linker
  */
 public class Enemy extends AbstractCharacter {
+  private EventBus<Enemy> events;
 
   /**
    * Creates a new enemy
@@ -36,6 +35,22 @@ public class Enemy extends AbstractCharacter {
     this.baseWeight = weight;
   }
 
+  /**
+   * Sets the bus where this enemy publishes its death and the beginning of its turns
+   * @param events
+   *    The event bus of the enemies
+   */
+  public void setEventBus(EventBus<Enemy> events) {
+    this.events = events;
+  }
+
+  @Override
+  protected void publish(CharacterEvent event) {
+    if (events != null) {
+      events.publish(event, this);
+    }
+  }
+
   /**
    * Test another object to see if it is equal to this enemy
     * @param o
@@ -1,8 +1,5 @@
 package com.github.ylinker.finalreality.model.character;
 
-import com.github.ylinker.finalreality.controller.handler.IEventHandler;
-
-import java.util.concurrent.ScheduledExecutorService;
 
 /**
  * This represents a character from the game.
@@ -12,6 +9,25 @@ import java.util.concurrent.ScheduledExecutorService;
  * @author Yuval Linker
  */
 public interface ICharacter {
+  /**
+   * The id of a character that doesn't belong to any controller
+   */
+  int NO_ID = -1;
+
+  /**
+   * Returns this character's id in its controller.
+   * Ids are given in creation order starting from 0, so they can be used as array indexes.
+   */
+  int getId();
+
+  /**
+   * Sets this character's id. It's given by the controller that creates the character
+   *
+   * @param id
+   *      The character's id
+   */
+  void setId(int id);
+
   /**
    * Returns this character's name.
    */
@@ -37,13 +53,6 @@ public interface ICharacter {
    */
   int getHealth();
 
-  /**
-   * Gets the Scheduled Executor of this character
-   * @return
-   *    The scheduled executor
-   */
-  ScheduledExecutorService getScheduledExecutor();
-
   /**
    * Checks if the character is alive (has more than 0 health)
    * @return true if the character has more than 0 health, false otherwise
@@ -74,18 +83,13 @@ public interface ICharacter {
   int defend(int otherAttack);
 
   /**
-   * Adds an observer for the character's death event
-   * @param handler
-   *    The Death Listener
-   */
-  void addDeathListener(IEventHandler handler);
-
-  /**
-   * Adds an observer for the character's turn beginning
-   * @param handler
-   *    The Turn Listener
+   * Loses health without taking defense into account. Health never goes below 0.
+   * Used to apply damage that was calculated somewhere else, like in a simulation.
+   *
+   * @param damage
+   *      The amount of health to lose
    */
-  void addBeginTurnListener(IEventHandler handler);
+  void receiveDamage(int damage);
 
   /**
    * Warns for the event of starting this character's turn
@@ -99,16 +103,4 @@ public interface ICharacter {
    *    The amount of seconds of delay between turns
    */
   int getDelay();
-
-  /**
-   * Sets the Schedule Executor of this character
-   * @param schedule
-   *    The scheduled executor value
-   */
-  void setScheduledExecutor(ScheduledExecutorService schedule);
-
-  /**
-   * Shuts down the Scheduled Executor of this character
-   */
-  void shutdownScheduledExecutor();
 }
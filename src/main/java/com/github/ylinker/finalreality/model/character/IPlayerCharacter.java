@@ -1,5 +1,6 @@
 package com.github.ylinker.finalreality.model.character;
 
+import com.github.ylinker.finalreality.controller.handler.EventBus;
 import com.github.ylinker.finalreality.model.weapon.IWeapon;
 
 /**
@@ -20,4 +21,11 @@ public interface IPlayerCharacter extends ICharacter {
      * Return this character's equipped weapon.
      */
     IWeapon getEquippedWeapon();
+
+    /**
+     * Sets the bus where this character publishes its death and the beginning of its turns
+     * @param events
+     *      The event bus of the player characters
+     */
+    void setEventBus(EventBus<IPlayerCharacter> events);
 }
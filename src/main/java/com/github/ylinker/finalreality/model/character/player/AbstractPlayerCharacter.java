@@ -1,12 +1,13 @@
 package com.github.ylinker.finalreality.model.character.player;
 
+import com.github.ylinker.finalreality.controller.handler.CharacterEvent;
+import com.github.ylinker.finalreality.controller.handler.EventBus;
 import com.github.ylinker.finalreality.model.character.AbstractCharacter;
 import com.github.ylinker.finalreality.model.character.IPlayerCharacter;
 import com.github.ylinker.finalreality.model.weapon.IWeapon;
 import org.jetbrains.annotations.NotNull;
 
 import java.util.ArrayList;
-import java.util.Random;
 
 /**
  * An abstract class that holds the common behaviour of all the playable characters in the game.
@@ -19,6 +20,7 @@ public abstract class AbstractPlayerCharacter extends AbstractCharacter implemen
     protected IWeapon equippedWeapon = null;
     protected int attack;
     protected int weight;
+    private EventBus<IPlayerCharacter> events;
 
     /**
      * The base constructor of every Playable Character.
@@ -35,7 +37,6 @@ public abstract class AbstractPlayerCharacter extends AbstractCharacter implemen
                                       final int attack, final int defense) {
         super(name, health, attack, defense);
         this.attack = attack;
-        Random random = new Random();
         this.weight = this.baseWeight;
     }
 
@@ -76,4 +77,28 @@ public abstract class AbstractPlayerCharacter extends AbstractCharacter implemen
      */
     @Override
     public abstract boolean equip(IWeapon weapon);
+
+    /**
+     * Sets the weapon the character has equipped and the stats that depend on it
+     * @param weapon
+     *      The weapon, already accepted by the character's class
+     */
+    protected void setEquippedWeapon(@NotNull IWeapon weapon) {
+        this.equippedWeapon = weapon;
+        this.attack = this.baseAttack + weapon.getDamage();
+        this.weight = this.baseWeight + weapon.getWeight();
+        publish(CharacterEvent.STATS_CHANGED);
+    }
+
+    @Override
+    public void setEventBus(EventBus<IPlayerCharacter> events) {
+        this.events = events;
+    }
+
+    @Override
+    protected void publish(CharacterEvent event) {
+        if (events != null) {
+            events.publish(event, this);
+        }
+    }
 }
@@ -35,9 +35,7 @@ public class Engineer extends AbstractPlayerCharacter {
         if(isAlive()) {
             IWeapon myWeapon = weapon.equipToEngineer();
             if (myWeapon != null) {
-                this.equippedWeapon = myWeapon;
-                this.attack = this.baseAttack + myWeapon.getDamage();
-                this.weight = this.baseWeight + myWeapon.getWeight();
+                setEquippedWeapon(myWeapon);
                 return true;
             }
         }
@@ -63,9 +63,7 @@ public class Thief extends AbstractPlayerCharacter {
         if(isAlive()) {
             IWeapon myWeapon = weapon.equipToThief();
             if (myWeapon != null) {
-                this.equippedWeapon = myWeapon;
-                this.attack = this.baseAttack + myWeapon.getDamage();
-                this.weight = this.baseWeight + myWeapon.getWeight();
+                setEquippedWeapon(myWeapon);
                 return true;
             }
         }
@@ -66,9 +66,7 @@ public class BlackMage extends AbstractMage {
         if(isAlive()) {
             IWeapon myWeapon = weapon.equipToBlackMage();
             if (myWeapon != null) {
-                this.equippedWeapon = myWeapon;
-                this.attack = this.baseAttack + myWeapon.getDamage();
-                this.weight = this.baseWeight + myWeapon.getWeight();
+                setEquippedWeapon(myWeapon);
                 return true;
             }
         }
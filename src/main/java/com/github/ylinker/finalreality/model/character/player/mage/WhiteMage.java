@@ -69,9 +69,7 @@ public class WhiteMage extends AbstractMage {
         if(isAlive()) {
             IWeapon myWeapon = weapon.equipToWhiteMage();
             if (myWeapon != null) {
-                this.equippedWeapon = myWeapon;
-                this.attack = this.baseAttack + myWeapon.getDamage();
-                this.weight = this.baseWeight + myWeapon.getWeight();
+                setEquippedWeapon(myWeapon);
                 return true;
             }
         }
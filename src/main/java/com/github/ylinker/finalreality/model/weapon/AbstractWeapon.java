@@ -13,6 +13,8 @@ public abstract class AbstractWeapon implements IWeapon {
   private final String name;
   private final int damage;
   private final int weight;
+  private final int hash;
+  private int id = NO_ID;
 
   /**
    * Creates a weapon with a name, a base damage and it's weight
@@ -28,6 +30,18 @@ public abstract class AbstractWeapon implements IWeapon {
     this.name = name;
     this.damage = damage;
     this.weight = weight;
+    // Every field of the hash is final, so it's only computed once
+    this.hash = Objects.hash(name, damage, weight);
+  }
+
+  @Override
+  public int getId() {
+    return id;
+  }
+
+  @Override
+  public void setId(final int id) {
+    this.id = id;
   }
 
   /**
@@ -72,7 +86,7 @@ public abstract class AbstractWeapon implements IWeapon {
    */
   @Override
   public int hashCode() {
-    return Objects.hash(getName(), getDamage(), getWeight());
+    return hash;
   }
 
   /**
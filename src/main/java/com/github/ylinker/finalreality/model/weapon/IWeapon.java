@@ -1,6 +1,24 @@
 package com.github.ylinker.finalreality.model.weapon;
 
 public interface IWeapon {
+    /**
+     * The id of a weapon that doesn't belong to any controller
+     */
+    int NO_ID = -1;
+
+    /**
+     * Returns this weapon's id in its controller.
+     * Ids are given in creation order starting from 0, so they can be used as array indexes.
+     */
+    int getId();
+
+    /**
+     * Sets this weapon's id. It's given by the controller that creates the weapon
+     * @param id
+     *      The weapon's id
+     */
+    void setId(int id);
+
     /**
      * Returns this weapon's name
      */
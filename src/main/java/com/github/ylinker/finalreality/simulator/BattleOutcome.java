@@ -0,0 +1,21 @@
+package com.github.ylinker.finalreality.simulator;
+
+/**
+ * @author Yuval Linker
+ *
+ * The possible endings of a simulated battle
+ */
+public enum BattleOutcome {
+    /**
+     * Every enemy died
+     */
+    WON,
+    /**
+     * Every player character died
+     */
+    LOST,
+    /**
+     * The battle reached the turn limit without a winner
+     */
+    TIMEOUT
+}
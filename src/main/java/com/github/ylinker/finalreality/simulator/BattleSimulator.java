@@ -0,0 +1,204 @@
+package com.github.ylinker.finalreality.simulator;
+
+import com.github.ylinker.finalreality.controller.BattleRandom;
+import com.github.ylinker.finalreality.controller.GameController;
+import com.github.ylinker.finalreality.controller.scheduler.VirtualTurnScheduler;
+import com.github.ylinker.finalreality.model.character.Enemy;
+import com.github.ylinker.finalreality.model.character.ICharacter;
+import com.github.ylinker.finalreality.model.character.IPlayerCharacter;
+import com.github.ylinker.finalreality.model.weapon.IWeapon;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * @author Yuval Linker
+ *
+ * Runs many battles without a GUI, spread across a fork join pool.
+ * Each battle gets its own game controller on a virtual clock, so battles don't wait any real time
+ * and workers never share a controller.
+ *
+ * The player's characters are played by a simple AI: equip the strongest weapon they can hold and
+ * attack a random enemy. Enemies play as they do in the game.
+ */
+public class BattleSimulator {
+    /**
+     * Battles that reach this amount of turns are stopped as timed out
+     */
+    public static final int DEFAULT_MAX_TURNS = 10_000;
+    private static final int BATTLES_PER_TASK = 64;
+
+    private final BattleSpec spec;
+    private final int maxTurns;
+
+    /**
+     * Creates a simulator with the default turn limit
+     * @param spec
+     *      The battle to simulate
+     */
+    public BattleSimulator(@NotNull BattleSpec spec) {
+        this(spec, DEFAULT_MAX_TURNS);
+    }
+
+    /**
+     * Creates a simulator
+     * @param spec
+     *      The battle to simulate
+     * @param maxTurns
+     *      The amount of turns after which a battle is stopped
+     */
+    public BattleSimulator(@NotNull BattleSpec spec, int maxTurns) {
+        this.spec = spec;
+        this.maxTurns = maxTurns;
+    }
+
+    /**
+     * Simulates one battle for every seed in a range
+     * @param firstSeed
+     *      The first seed, inclusive
+     * @param lastSeed
+     *      The last seed, inclusive
+     * @param threads
+     *      The amount of worker threads
+     * @return
+     *      The aggregated results of every battle
+     */
+    public SimulationResult run(long firstSeed, long lastSeed, int threads) {
+        ForkJoinPool pool = new ForkJoinPool(threads);
+        try {
+            long start = System.nanoTime();
+            SimulationResult result = pool.invoke(new BattleTask(firstSeed, lastSeed + 1));
+            result.setElapsedNanos(System.nanoTime() - start);
+            return result;
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    /**
+     * Simulates a single battle. The same seed always plays the same battle
+     * @param seed
+     *      The seed for every random decision of the battle
+     * @param result
+     *      Where the battle's result is recorded
+     */
+    public void runBattle(long seed, @NotNull SimulationResult result) {
+        runBattle(new BattleRandom(seed), result);
+    }
+
+    /**
+     * Simulates a single battle
+     * @param random
+     *      The generator for every random decision of the battle, used by this battle only
+     * @param result
+     *      Where the battle's result is recorded
+     */
+    public void runBattle(@NotNull BattleRandom random, @NotNull SimulationResult result) {
+        GameController controller = new GameController(new VirtualTurnScheduler(), random);
+        HeadlessScene scene = new HeadlessScene();
+        controller.setScene(scene);
+        spec.applyTo(controller);
+
+        int turns = 0;
+        controller.initTurns();
+        while (scene.getOutcome() == null && turns < maxTurns) {
+            ICharacter character = controller.getCurrentTurnCharacter();
+            if (character == null) {
+                // Nobody is left to play
+                break;
+            }
+            if (character instanceof IPlayerCharacter) {
+                playerTurn(controller, (IPlayerCharacter) character, random);
+            } else {
+                controller.tryToAttack(controller.chooseRandomTarget());
+            }
+            turns++;
+            if (scene.getOutcome() == null) {
+                controller.toBeginTurnPhase();
+            }
+        }
+        BattleOutcome outcome = scene.getOutcome();
+        result.record(outcome == null ? BattleOutcome.TIMEOUT : outcome, turns);
+    }
+
+    private void playerTurn(GameController controller, IPlayerCharacter character, BattleRandom random) {
+        equipStrongestWeapon(controller, character);
+        controller.toAttackPhase();
+        List<Enemy> enemies = controller.getEnemies();
+        controller.tryToAttack(enemies.get(random.nextInt(enemies.size())));
+    }
+
+    private void equipStrongestWeapon(GameController controller, IPlayerCharacter character) {
+        IWeapon equipped = controller.getCharacterEquippedWeapon(character);
+        int bestDamage = equipped == null ? 0 : controller.getWeaponDamage(equipped);
+        IWeapon best = null;
+        for (IWeapon weapon : controller.getEquippableWeapons(character)) {
+            if (controller.getWeaponDamage(weapon) > bestDamage) {
+                best = weapon;
+                bestDamage = controller.getWeaponDamage(weapon);
+            }
+        }
+        if (best != null) {
+            controller.toEquipPhase();
+            controller.tryToEquip(best);
+        }
+    }
+
+    /**
+     * Splits a range of seeds until it's small enough to be simulated by one worker
+     */
+    private class BattleTask extends RecursiveTask<SimulationResult> {
+        private static final long serialVersionUID = 1L;
+
+        private final long from;
+        private final long to;
+
+        private BattleTask(long from, long to) {
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected SimulationResult compute() {
+            if (to - from <= BATTLES_PER_TASK) {
+                SimulationResult result = new SimulationResult();
+                for (long seed = from; seed < to; seed++) {
+                    runBattle(seed, result);
+                }
+                return result;
+            }
+            long middle = from + (to - from) / 2;
+            BattleTask left = new BattleTask(from, middle);
+            left.fork();
+            SimulationResult right = new BattleTask(middle, to).compute();
+            return right.merge(left.join());
+        }
+    }
+
+    /**
+     * Runs a batch of simulated battles and prints a summary
+     * @param args
+     *      The battle spec file, the first seed, the last seed and optionally the amount of threads
+     * @throws IOException
+     *      When the spec file can't be read
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length < 3) {
+            System.err.println("Usage: BattleSimulator <spec file> <first seed> <last seed> [threads]");
+            System.exit(1);
+        }
+        BattleSpec spec = BattleSpec.parse(Files.readAllLines(Paths.get(args[0])));
+        long firstSeed = Long.parseLong(args[1]);
+        long lastSeed = Long.parseLong(args[2]);
+        int threads = args.length > 3 ? Integer.parseInt(args[3]) : Runtime.getRuntime().availableProcessors();
+
+        SimulationResult result = new BattleSimulator(spec).run(firstSeed, lastSeed, threads);
+        System.out.printf("Threads: %d%n", threads);
+        System.out.print(result.summary());
+    }
+}
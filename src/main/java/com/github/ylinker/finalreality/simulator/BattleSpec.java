@@ -0,0 +1,229 @@
+package com.github.ylinker.finalreality.simulator;
+
+import com.github.ylinker.finalreality.controller.GameController;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * @author Yuval Linker
+ *
+ * Description of a battle: the player's party, the enemies and the inventory.
+ * Every entry is created through the game controller, exactly like the game does.
+ *
+ * A spec can also be read from text, one entry per line with the same arguments as the controller:
+ * <pre>
+ * knight Arthur 60 20 10
+ * whitemage Merlin 40 5 10 30
+ * enemy Goblin 40 15 10 20
+ * sword Excalibur 20 15
+ * staff Rod 5 10 30
+ * </pre>
+ * Empty lines and lines starting with {@code #} are ignored.
+ */
+public class BattleSpec {
+    private final List<Consumer<GameController>> entries = new ArrayList<>();
+
+    /**
+     * Adds a knight to the party
+     * @return
+     *      This instance of the battle spec
+     */
+    public BattleSpec addKnight(@NotNull String name, int health, int attack, int defense) {
+        entries.add(controller -> controller.createKnight(name, health, attack, defense));
+        return this;
+    }
+
+    /**
+     * Adds an engineer to the party
+     * @return
+     *      This instance of the battle spec
+     */
+    public BattleSpec addEngineer(@NotNull String name, int health, int attack, int defense) {
+        entries.add(controller -> controller.createEngineer(name, health, attack, defense));
+        return this;
+    }
+
+    /**
+     * Adds a thief to the party
+     * @return
+     *      This instance of the battle spec
+     */
+    public BattleSpec addThief(@NotNull String name, int health, int attack, int defense) {
+        entries.add(controller -> controller.createThief(name, health, attack, defense));
+        return this;
+    }
+
+    /**
+     * Adds a white mage to the party
+     * @return
+     *      This instance of the battle spec
+     */
+    public BattleSpec addWhiteMage(@NotNull String name, int health, int attack, int defense, int mana) {
+        entries.add(controller -> controller.createWhiteMage(name, health, attack, defense, mana));
+        return this;
+    }
+
+    /**
+     * Adds a black mage to the party
+     * @return
+     *      This instance of the battle spec
+     */
+    public BattleSpec addBlackMage(@NotNull String name, int health, int attack, int defense, int mana) {
+        entries.add(controller -> controller.createBlackMage(name, health, attack, defense, mana));
+        return this;
+    }
+
+    /**
+     * Adds an enemy to the battle
+     * @return
+     *      This instance of the battle spec
+     */
+    public BattleSpec addEnemy(@NotNull String name, int health, int attack, int defense, int weight) {
+        entries.add(controller -> controller.createEnemy(name, health, attack, defense, weight));
+        return this;
+    }
+
+    /**
+     * Adds an axe to the inventory
+     * @return
+     *      This instance of the battle spec
+     */
+    public BattleSpec addAxe(@NotNull String name, int damage, int weight) {
+        entries.add(controller -> controller.createAxe(name, damage, weight));
+        return this;
+    }
+
+    /**
+     * Adds a bow to the inventory
+     * @return
+     *      This instance of the battle spec
+     */
+    public BattleSpec addBow(@NotNull String name, int damage, int weight) {
+        entries.add(controller -> controller.createBow(name, damage, weight));
+        return this;
+    }
+
+    /**
+     * Adds a knife to the inventory
+     * @return
+     *      This instance of the battle spec
+     */
+    public BattleSpec addKnife(@NotNull String name, int damage, int weight) {
+        entries.add(controller -> controller.createKnife(name, damage, weight));
+        return this;
+    }
+
+    /**
+     * Adds a sword to the inventory
+     * @return
+     *      This instance of the battle spec
+     */
+    public BattleSpec addSword(@NotNull String name, int damage, int weight) {
+        entries.add(controller -> controller.createSword(name, damage, weight));
+        return this;
+    }
+
+    /**
+     * Adds a staff to the inventory
+     * @return
+     *      This instance of the battle spec
+     */
+    public BattleSpec addStaff(@NotNull String name, int damage, int weight, int magicDamage) {
+        entries.add(controller -> controller.createStaff(name, damage, weight, magicDamage));
+        return this;
+    }
+
+    /**
+     * Gets the amount of characters, enemies and weapons of this spec
+     * @return
+     *      The amount of entries
+     */
+    public int size() {
+        return entries.size();
+    }
+
+    /**
+     * Creates every character, enemy and weapon of this spec in a controller
+     * @param controller
+     *      The controller where the battle takes place
+     */
+    public void applyTo(@NotNull GameController controller) {
+        for (Consumer<GameController> entry : entries) {
+            entry.accept(controller);
+        }
+    }
+
+    /**
+     * Reads a battle spec from text
+     * @param lines
+     *      The lines of the spec
+     * @return
+     *      The battle spec
+     * @throws IllegalArgumentException
+     *      When a line is not a valid entry
+     */
+    public static BattleSpec parse(@NotNull List<String> lines) {
+        BattleSpec spec = new BattleSpec();
+        for (String line : lines) {
+            String trimmed = line.trim();
+            if (trimmed.isEmpty() || trimmed.startsWith("#")) {
+                continue;
+            }
+            String[] tokens = trimmed.split("\\s+");
+            try {
+                spec.parseEntry(tokens);
+            } catch (NumberFormatException | ArrayIndexOutOfBoundsException e) {
+                throw new IllegalArgumentException("Invalid battle spec entry: " + trimmed, e);
+            }
+        }
+        return spec;
+    }
+
+    private void parseEntry(String[] tokens) {
+        String name = tokens[1];
+        switch (tokens[0].toLowerCase()) {
+            case "knight":
+                addKnight(name, number(tokens, 2), number(tokens, 3), number(tokens, 4));
+                break;
+            case "engineer":
+                addEngineer(name, number(tokens, 2), number(tokens, 3), number(tokens, 4));
+                break;
+            case "thief":
+                addThief(name, number(tokens, 2), number(tokens, 3), number(tokens, 4));
+                break;
+            case "whitemage":
+                addWhiteMage(name, number(tokens, 2), number(tokens, 3), number(tokens, 4), number(tokens, 5));
+                break;
+            case "blackmage":
+                addBlackMage(name, number(tokens, 2), number(tokens, 3), number(tokens, 4), number(tokens, 5));
+                break;
+            case "enemy":
+                addEnemy(name, number(tokens, 2), number(tokens, 3), number(tokens, 4), number(tokens, 5));
+                break;
+            case "axe":
+                addAxe(name, number(tokens, 2), number(tokens, 3));
+                break;
+            case "bow":
+                addBow(name, number(tokens, 2), number(tokens, 3));
+                break;
+            case "knife":
+                addKnife(name, number(tokens, 2), number(tokens, 3));
+                break;
+            case "sword":
+                addSword(name, number(tokens, 2), number(tokens, 3));
+                break;
+            case "staff":
+                addStaff(name, number(tokens, 2), number(tokens, 3), number(tokens, 4));
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown battle spec entry: " + tokens[0]);
+        }
+    }
+
+    private static int number(String[] tokens, int index) {
+        return Integer.parseInt(tokens[index]);
+    }
+}
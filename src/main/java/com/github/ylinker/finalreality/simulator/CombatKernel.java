@@ -0,0 +1,188 @@
+package com.github.ylinker.finalreality.simulator;
+
+import java.util.Arrays;
+
+/**
+ * @author Yuval Linker
+ *
+ * Combat rules for simulations with thousands of units.
+ * Instead of one object per character, the units' stats are kept in one int array per stat
+ * and a unit is just an index into those arrays.
+ *
+ * The damage rule is the same as {@code attack} and {@code defend} of the characters:
+ * a dead unit can't attack, the damage is {@code max(attack - defense, 0)} and health never goes below 0.
+ */
+public class CombatKernel {
+    private static final int INITIAL_CAPACITY = 16;
+
+    private int[] health;
+    private int[] attack;
+    private int[] defense;
+    private int[] weight;
+    private int size;
+
+    /**
+     * Creates an empty kernel
+     */
+    public CombatKernel() {
+        this(INITIAL_CAPACITY);
+    }
+
+    /**
+     * Creates an empty kernel with room for some units
+     * @param capacity
+     *      The amount of units it can hold before growing
+     */
+    public CombatKernel(int capacity) {
+        capacity = Math.max(capacity, 1);
+        health = new int[capacity];
+        attack = new int[capacity];
+        defense = new int[capacity];
+        weight = new int[capacity];
+    }
+
+    /**
+     * Adds a unit
+     * @param health
+     *      The unit's health
+     * @param attack
+     *      The unit's attack
+     * @param defense
+     *      The unit's defense
+     * @param weight
+     *      The unit's weight
+     * @return
+     *      The index of the new unit
+     */
+    public int add(int health, int attack, int defense, int weight) {
+        if (size == this.health.length) {
+            int capacity = size * 2;
+            this.health = Arrays.copyOf(this.health, capacity);
+            this.attack = Arrays.copyOf(this.attack, capacity);
+            this.defense = Arrays.copyOf(this.defense, capacity);
+            this.weight = Arrays.copyOf(this.weight, capacity);
+        }
+        this.health[size] = health;
+        this.attack[size] = attack;
+        this.defense[size] = defense;
+        this.weight[size] = weight;
+        return size++;
+    }
+
+    /**
+     * Makes one unit attack another
+     * @param attacker
+     *      The index of the attacking unit
+     * @param defender
+     *      The index of the attacked unit
+     * @return
+     *      The damage done, or -1 if the attacker is dead
+     */
+    public int attack(int attacker, int defender) {
+        if (health[attacker] <= 0) {
+            return -1;
+        }
+        int damage = attack[attacker] - defense[defender];
+        if (damage <= 0) {
+            return 0;
+        }
+        health[defender] = Math.max(health[defender] - damage, 0);
+        return damage;
+    }
+
+    /**
+     * Resolves a batch of attacks in order. An attacker killed earlier in the batch doesn't attack.
+     * @param attackers
+     *      The index of the attacking unit of every attack
+     * @param defenders
+     *      The index of the attacked unit of every attack
+     * @param count
+     *      The amount of attacks to resolve
+     * @param damages
+     *      Where the damage of every attack is written, as {@link #attack(int, int)} returns it.
+     *      It can be null if the damages aren't needed
+     * @return
+     *      The total damage done by the batch
+     */
+    public long attackAll(int[] attackers, int[] defenders, int count, int[] damages) {
+        int[] health = this.health;
+        int[] attack = this.attack;
+        int[] defense = this.defense;
+        long total = 0;
+        for (int i = 0; i < count; i++) {
+            int attacker = attackers[i];
+            int defender = defenders[i];
+            int damage;
+            if (health[attacker] <= 0) {
+                damage = -1;
+            } else {
+                damage = Math.max(attack[attacker] - defense[defender], 0);
+                health[defender] = Math.max(health[defender] - damage, 0);
+                total += damage;
+            }
+            if (damages != null) {
+                damages[i] = damage;
+            }
+        }
+        return total;
+    }
+
+    /**
+     * Counts the units that are alive in a range of indexes
+     * @param from
+     *      The first index, inclusive
+     * @param to
+     *      The last index, exclusive
+     * @return
+     *      The amount of units with more than 0 health
+     */
+    public int countAlive(int from, int to) {
+        int alive = 0;
+        for (int i = from; i < to; i++) {
+            if (health[i] > 0) {
+                alive++;
+            }
+        }
+        return alive;
+    }
+
+    /**
+     * Gets the amount of units
+     * @return
+     *      The amount of units
+     */
+    public int size() {
+        return size;
+    }
+
+    public boolean isAlive(int unit) {
+        return health[unit] > 0;
+    }
+
+    public int getHealth(int unit) {
+        return health[unit];
+    }
+
+    public int getAttack(int unit) {
+        return attack[unit];
+    }
+
+    public int getDefense(int unit) {
+        return defense[unit];
+    }
+
+    public int getWeight(int unit) {
+        return weight[unit];
+    }
+
+    /**
+     * Changes the attack of a unit, like equipping a weapon does
+     * @param unit
+     *      The index of the unit
+     * @param attack
+     *      The new attack
+     */
+    public void setAttack(int unit, int attack) {
+        this.attack[unit] = attack;
+    }
+}
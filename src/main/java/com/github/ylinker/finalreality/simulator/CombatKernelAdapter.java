@@ -0,0 +1,111 @@
+package com.github.ylinker.finalreality.simulator;
+
+import com.github.ylinker.finalreality.controller.GameController;
+import com.github.ylinker.finalreality.model.character.Enemy;
+import com.github.ylinker.finalreality.model.character.ICharacter;
+import com.github.ylinker.finalreality.model.character.IPlayerCharacter;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * @author Yuval Linker
+ *
+ * Loads the characters of a game controller into a {@link CombatKernel} and writes the results back.
+ * The player characters get the first indexes of the kernel and the enemies come after them.
+ * The attack loaded for a player character already includes its equipped weapon.
+ */
+public class CombatKernelAdapter {
+    private final GameController controller;
+    private final CombatKernel kernel;
+    private final List<ICharacter> units;
+    private final Map<ICharacter, Integer> indexes;
+    private final int playerCount;
+
+    /**
+     * Loads the alive characters of a controller into a new kernel
+     * @param controller
+     *      The game controller
+     */
+    public CombatKernelAdapter(@NotNull GameController controller) {
+        this.controller = controller;
+        List<IPlayerCharacter> players = controller.getCharacters();
+        List<Enemy> enemies = controller.getEnemies();
+        units = new ArrayList<>(players.size() + enemies.size());
+        units.addAll(players);
+        units.addAll(enemies);
+        playerCount = players.size();
+        kernel = new CombatKernel(units.size());
+        indexes = new IdentityHashMap<>(units.size());
+        for (ICharacter unit : units) {
+            indexes.put(unit, kernel.add(controller.getCharacterHealth(unit),
+                    controller.getCharacterAttack(unit),
+                    controller.getCharacterDefense(unit),
+                    unit.getWeight()));
+        }
+    }
+
+    /**
+     * Writes the health of every unit back to its character.
+     * Characters that died in the kernel die in the game too, so the controller removes them as usual.
+     */
+    public void writeBack() {
+        synchronized (controller) {
+            for (int i = 0; i < units.size(); i++) {
+                ICharacter character = units.get(i);
+                int damage = character.getHealth() - kernel.getHealth(i);
+                if (damage > 0) {
+                    character.receiveDamage(damage);
+                }
+            }
+        }
+    }
+
+    public CombatKernel getKernel() {
+        return kernel;
+    }
+
+    /**
+     * Gets the kernel index of a character
+     * @param character
+     *      The character
+     * @return
+     *      Its index, or -1 if it wasn't loaded
+     */
+    public int indexOf(ICharacter character) {
+        Integer index = indexes.get(character);
+        return index == null ? -1 : index;
+    }
+
+    /**
+     * Gets the character of a kernel index
+     * @param unit
+     *      The index
+     * @return
+     *      The character
+     */
+    public ICharacter getCharacter(int unit) {
+        return units.get(unit);
+    }
+
+    /**
+     * Gets the amount of player characters. They go from index 0 to this amount, exclusive
+     * @return
+     *      The amount of player characters loaded
+     */
+    public int getPlayerCount() {
+        return playerCount;
+    }
+
+    /**
+     * Gets the amount of enemies. They go from {@link #getPlayerCount()} to the end of the kernel
+     * @return
+     *      The amount of enemies loaded
+     */
+    public int getEnemyCount() {
+        return units.size() - playerCount;
+    }
+}
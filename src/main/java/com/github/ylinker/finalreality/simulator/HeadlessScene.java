@@ -0,0 +1,40 @@
+package com.github.ylinker.finalreality.simulator;
+
+import com.github.ylinker.finalreality.gui.scenes.IScene;
+
+/**
+ * @author Yuval Linker
+ *
+ * View used for simulated battles. It draws nothing, it only remembers how the battle ended.
+ * The simulator polls the controller for the current turn character, so the turn callbacks do nothing.
+ */
+public class HeadlessScene implements IScene {
+    private BattleOutcome outcome;
+
+    @Override
+    public void playerTurn() {
+    }
+
+    @Override
+    public void enemyTurn() {
+    }
+
+    @Override
+    public void winScene() {
+        outcome = BattleOutcome.WON;
+    }
+
+    @Override
+    public void loseScene() {
+        outcome = BattleOutcome.LOST;
+    }
+
+    /**
+     * Gets how the battle ended
+     * @return
+     *      The outcome of the battle, or null if it hasn't ended
+     */
+    public BattleOutcome getOutcome() {
+        return outcome;
+    }
+}
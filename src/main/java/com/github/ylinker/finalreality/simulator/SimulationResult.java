@@ -0,0 +1,128 @@
+package com.github.ylinker.finalreality.simulator;
+
+/**
+ * @author Yuval Linker
+ *
+ * Aggregated results of a batch of simulated battles.
+ * Results of different workers are combined with {@link #merge(SimulationResult)}.
+ */
+public class SimulationResult {
+    private long battles;
+    private long wins;
+    private long losses;
+    private long timeouts;
+    private long turns;
+    private long elapsedNanos;
+
+    /**
+     * Records the result of one battle
+     * @param outcome
+     *      How the battle ended
+     * @param battleTurns
+     *      The amount of turns played in the battle
+     */
+    public void record(BattleOutcome outcome, int battleTurns) {
+        battles++;
+        turns += battleTurns;
+        switch (outcome) {
+            case WON:
+                wins++;
+                break;
+            case LOST:
+                losses++;
+                break;
+            default:
+                timeouts++;
+        }
+    }
+
+    /**
+     * Adds the battles of another result to this one
+     * @param other
+     *      The other result
+     * @return
+     *      This result
+     */
+    public SimulationResult merge(SimulationResult other) {
+        battles += other.battles;
+        wins += other.wins;
+        losses += other.losses;
+        timeouts += other.timeouts;
+        turns += other.turns;
+        return this;
+    }
+
+    /**
+     * Sets the wall clock time that the whole batch took
+     * @param elapsedNanos
+     *      The elapsed time in nanoseconds
+     */
+    public void setElapsedNanos(long elapsedNanos) {
+        this.elapsedNanos = elapsedNanos;
+    }
+
+    public long getBattles() {
+        return battles;
+    }
+
+    public long getWins() {
+        return wins;
+    }
+
+    public long getLosses() {
+        return losses;
+    }
+
+    public long getTimeouts() {
+        return timeouts;
+    }
+
+    public long getTurns() {
+        return turns;
+    }
+
+    public long getElapsedNanos() {
+        return elapsedNanos;
+    }
+
+    /**
+     * Gets the fraction of battles won by the player
+     * @return
+     *      A number between 0 and 1
+     */
+    public double getWinRate() {
+        return battles == 0 ? 0 : (double) wins / battles;
+    }
+
+    /**
+     * Gets the mean amount of turns of a battle
+     * @return
+     *      The amount of turns per battle
+     */
+    public double getTurnsPerBattle() {
+        return battles == 0 ? 0 : (double) turns / battles;
+    }
+
+    /**
+     * Gets how many battles were simulated each second of wall clock time
+     * @return
+     *      The throughput in battles per second
+     */
+    public double getBattlesPerSecond() {
+        return elapsedNanos == 0 ? 0 : battles * 1e9 / elapsedNanos;
+    }
+
+    /**
+     * Makes a human readable summary of the results
+     * @return
+     *      The summary
+     */
+    public String summary() {
+        return String.format("Battles: %d%n" +
+                        "Win rate: %.2f%% (%d won, %d lost, %d timed out)%n" +
+                        "Turns per battle: %.2f%n" +
+                        "Throughput: %.1f battles/s%n",
+                battles, getWinRate() * 100, wins, losses, timeouts,
+                getTurnsPerBattle(), getBattlesPerSecond());
+    }
+}
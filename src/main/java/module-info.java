@@ -1,6 +1,8 @@
 module finalreality.main {
   exports com.github.ylinker.finalreality.gui;
+  opens com.github.ylinker.finalreality.gui.resources;
   requires javafx.controls;
   requires org.jetbrains.annotations;
     requires java.desktop;
+    requires jdk.jfr;
 }
\ No newline at end of file
@@ -0,0 +1,132 @@
+package com.github.ylinker.finalreality.controller;
+
+import com.github.ylinker.finalreality.model.character.Enemy;
+import com.github.ylinker.finalreality.model.character.ICharacter;
+import com.github.ylinker.finalreality.model.character.IPlayerCharacter;
+import com.github.ylinker.finalreality.model.character.player.mage.IMage;
+import com.github.ylinker.finalreality.model.weapon.IWeapon;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * The battle that the snapshot and replay tests play, and the description of a controller's state
+ * they compare
+ */
+public final class BattleFixture {
+    private BattleFixture() {
+    }
+
+    /**
+     * Creates the party, the inventory and the enemies of the battle
+     */
+    public static void createParty(GameController controller) {
+        controller.createKnight("Arthur", 60, 12, 5);
+        controller.createThief("Robin", 40, 10, 3);
+        controller.createWhiteMage("Merlin", 35, 6, 2, 30);
+        controller.createBlackMage("Morgana", 35, 7, 2, 40);
+        controller.createEngineer("Cid", 45, 9, 4);
+        controller.createSword("Excalibur", 15, 10);
+        controller.createKnife("Dagger", 8, 5);
+        controller.createStaff("Wand", 5, 5, 20);
+        controller.createAxe("Axe", 12, 20);
+        controller.createBow("Bow", 10, 10);
+        controller.createEnemy("Goblin", 70, 14, 4, 15);
+        controller.createEnemy("Orc", 90, 16, 5, 25);
+        controller.createEnemy("Ñandú", 50, 12, 3, 5);
+    }
+
+    /**
+     * Plays one turn of the current character, trying every kind of command,
+     * without any randomness outside the given generator
+     */
+    public static void playTurn(GameController controller, Random random) {
+        playTurn(controller, random, false);
+    }
+
+    /**
+     * Plays one turn of the current character, trying every kind of command
+     * @param randomTargets
+     *      If the enemies' targets are chosen by the controller's generator instead of the given one
+     */
+    public static void playTurn(GameController controller, Random random, boolean randomTargets) {
+        ICharacter character = controller.getCurrentTurnCharacter();
+        if (character instanceof IPlayerCharacter) {
+            List<IWeapon> inventory = controller.getInventory();
+            if (random.nextBoolean() && !inventory.isEmpty()) {
+                controller.toEquipPhase();
+                controller.tryToEquip(inventory.get(random.nextInt(inventory.size())));
+            }
+            if (random.nextInt(4) == 0) {
+                controller.toAttackPhase();
+                controller.goBack();
+            }
+            controller.toAttackPhase();
+            List<Enemy> enemies = controller.getEnemies();
+            controller.tryToAttack(enemies.get(random.nextInt(enemies.size())));
+        } else if (randomTargets) {
+            controller.tryToAttack(controller.chooseRandomTarget());
+        } else {
+            List<IPlayerCharacter> characters = controller.getCharacters();
+            controller.tryToAttack(characters.get(random.nextInt(characters.size())));
+        }
+    }
+
+    /**
+     * Plays some turns, stopping early if the battle ends
+     */
+    public static void play(GameController controller, Random random, int turns) {
+        for (int turn = 0; turn < turns && !isOver(controller); turn++) {
+            playTurn(controller, random);
+            controller.toBeginTurnPhase();
+        }
+    }
+
+    /**
+     * Checks if the battle ended
+     */
+    public static boolean isOver(GameController controller) {
+        return controller.winCondition() || controller.loseCondition();
+    }
+
+    /**
+     * Describes everything a snapshot or a replay has to reproduce
+     * @return
+     *      One line per character, weapon, queued turn and part of the phase
+     */
+    public static List<String> describe(GameController controller) {
+        List<String> state = new ArrayList<>();
+        List<ICharacter> characters = new ArrayList<>(controller.getCharacters());
+        characters.addAll(controller.getEnemies());
+        for (ICharacter character : characters) {
+            String description = character.getName() + " " + character.getHealth() + " " +
+                    character.getAttack() + " " + character.getDefense() + " " + character.getWeight() + " " +
+                    controller.isWaitingTurn(character);
+            if (character instanceof IPlayerCharacter) {
+                IPlayerCharacter player = (IPlayerCharacter) character;
+                description += " " + controller.getCharacterClass(player) + " " +
+                        (player.getEquippedWeapon() == null ? "-" : player.getEquippedWeapon().getName());
+            }
+            if (character instanceof IMage) {
+                description += " " + ((IMage) character).getMana();
+            }
+            state.add(description);
+        }
+        for (IWeapon weapon : controller.getInventory()) {
+            state.add(weapon.getName() + " " + controller.getWeaponClass(weapon) + " " +
+                    weapon.getDamage() + " " + weapon.getWeight());
+        }
+        for (ICharacter character : controller.peekNextTurns(characters.size())) {
+            state.add("queued " + character.getName());
+        }
+        ICharacter current = controller.getCurrentTurnCharacter();
+        state.add("current " + (current == null ? "-" : current.getName()));
+        ICharacter attacked = controller.getLastAttackedCharacter();
+        state.add("attacked " + (attacked == null ? "-" : attacked.getName()));
+        state.add("phase " + controller.getPhase().getClass().getSimpleName());
+        ICharacter phaseCharacter = controller.getPhase().getCharacter();
+        state.add("phase character " + (phaseCharacter == null ? "-" : phaseCharacter.getName()));
+        return state;
+    }
+}
@@ -0,0 +1,82 @@
+package com.github.ylinker.finalreality.controller;
+
+import com.github.ylinker.finalreality.controller.scheduler.VirtualTurnScheduler;
+import com.github.ylinker.finalreality.model.character.ICharacter;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class BattleRandomTest {
+
+    private static List<Integer> numbers(BattleRandom random, int amount) {
+        List<Integer> numbers = new ArrayList<>();
+        for (int i = 0; i < amount; i++) {
+            numbers.add(random.nextInt(1000));
+        }
+        return numbers;
+    }
+
+    @Test
+    void seedTest() {
+        assertEquals(42, new BattleRandom(42).getSeed());
+        assertEquals(numbers(new BattleRandom(42), 50), numbers(new BattleRandom(42), 50));
+        assertNotEquals(numbers(new BattleRandom(42), 50), numbers(new BattleRandom(43), 50));
+        BattleRandom random = new BattleRandom(7);
+        for (int i = 0; i < 100; i++) {
+            int number = random.nextInt(5, 10);
+            assertTrue(number >= 5 && number < 10);
+        }
+    }
+
+    @Test
+    void splitTest() {
+        BattleRandom first = new BattleRandom(1);
+        BattleRandom second = new BattleRandom(1);
+        BattleRandom firstSplit = first.split();
+        BattleRandom secondSplit = second.split();
+        assertEquals(firstSplit.getSeed(), secondSplit.getSeed());
+        assertEquals(numbers(firstSplit, 20), numbers(secondSplit, 20));
+        // Every split is reproducible from its own seed
+        assertEquals(numbers(new BattleRandom(first.split().getSeed()), 20), numbers(second.split(), 20));
+        assertNotEquals(numbers(first.split(), 20), numbers(first.split(), 20));
+    }
+
+    @Test
+    void shuffleTest() {
+        List<Integer> list = new ArrayList<>(Arrays.asList(0, 1, 2, 3, 4, 5, 6, 7, 8, 9));
+        List<Integer> other = new ArrayList<>(list);
+        new BattleRandom(3).shuffle(list);
+        new BattleRandom(3).shuffle(other);
+        assertEquals(list, other);
+        assertEquals(10, new HashSet<>(list).size());
+    }
+
+    private static List<String> playRandomDecisions(long seed) {
+        GameController controller = new GameController(new VirtualTurnScheduler(), new BattleRandom(seed));
+        controller.setScene(new NullScene());
+        for (int i = 0; i < 5; i++) {
+            controller.createKnight("knight " + i, 100, 10, 10);
+            controller.createEnemy("enemy " + i, 100, 10, 10, 10);
+        }
+        controller.initTurns();
+        List<String> decisions = new ArrayList<>();
+        for (ICharacter character : controller.peekNextTurns(10)) {
+            decisions.add(character.getName());
+        }
+        for (int i = 0; i < 20; i++) {
+            decisions.add(controller.chooseRandomTarget().getName());
+        }
+        return decisions;
+    }
+
+    @Test
+    void controllerDecisionsTest() {
+        assertEquals(playRandomDecisions(11), playRandomDecisions(11));
+        assertNotEquals(playRandomDecisions(11), playRandomDecisions(12));
+    }
+}
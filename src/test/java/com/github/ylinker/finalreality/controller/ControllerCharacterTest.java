@@ -1,5 +1,6 @@
 package com.github.ylinker.finalreality.controller;
 
+import com.github.ylinker.finalreality.controller.handler.CharacterEvent;
 import com.github.ylinker.finalreality.model.character.Enemy;
 import com.github.ylinker.finalreality.model.character.ICharacter;
 import com.github.ylinker.finalreality.model.character.IPlayerCharacter;
@@ -13,7 +14,8 @@ import com.github.ylinker.finalreality.model.weapon.IWeapon;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
-import java.util.concurrent.Executors;
+import java.util.ArrayList;
+import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.junit.jupiter.api.Assertions.assertFalse;
@@ -76,9 +78,7 @@ public class ControllerCharacterTest {
         testController.createEngineer("engineerTest", 10, 10, 0);
         testController.createEnemy("enemyTest", 10, 10, 5, 10);
         Engineer testEngineer = (Engineer) testController.getCharacters().get(0);
-        testEngineer.setScheduledExecutor(Executors.newSingleThreadScheduledExecutor());
         Enemy testEnemy = testController.getEnemies().get(0);
-        testEnemy.setScheduledExecutor(Executors.newSingleThreadScheduledExecutor());
 
         testController.attack(testEnemy, testEngineer);
         assertFalse(testController.getCharacters().contains(testEngineer));
@@ -87,30 +87,27 @@ public class ControllerCharacterTest {
         testController.createKnight("knightTest", 10, 10, 0);
         testController.createThief("thiefTest", 10, 10, 0);
         Knight testKnight = (Knight) testController.getCharacters().get(0);
-        testKnight.setScheduledExecutor(Executors.newSingleThreadScheduledExecutor());
         Thief testThief = (Thief) testController.getCharacters().get(1);
-        testThief.setScheduledExecutor(Executors.newSingleThreadScheduledExecutor());
         assertEquals(2, testController.getCharacters().size());
 
         testController.attack(testEnemy, testKnight);
         assertFalse(testController.getCharacters().contains(testKnight));
-        assertTrue(testKnight.getScheduledExecutor().isShutdown());
+        assertFalse(testController.isWaitingTurn(testKnight));
         assertEquals(1, testController.getCharacters().size());
 
         testController.createWhiteMage("whiteMageTest", 10, 10, 0, 20);
         testController.createBlackMage("blackMageTest", 10, 10, 0, 15);
         WhiteMage testWhiteMage = (WhiteMage) testController.getCharacters().get(1);
-        testWhiteMage.setScheduledExecutor(Executors.newSingleThreadScheduledExecutor());
         BlackMage testBlackMage = (BlackMage) testController.getCharacters().get(2);
 
         testController.attack(testEnemy, testWhiteMage);
         assertFalse(testController.getCharacters().contains(testWhiteMage));
-        assertTrue(testWhiteMage.getScheduledExecutor().isShutdown());
+        assertFalse(testController.isWaitingTurn(testWhiteMage));
         assertEquals(2, testController.getCharacters().size());
 
         testController.attack(testEnemy, testThief);
         assertFalse(testController.getCharacters().contains(testThief));
-        assertTrue(testThief.getScheduledExecutor().isShutdown());
+        assertFalse(testController.isWaitingTurn(testThief));
         assertEquals(1, testController.getCharacters().size());
 
         testController.createEnemy("otherEnemy", 20, 10, 0, 10);
@@ -119,7 +116,7 @@ public class ControllerCharacterTest {
         testController.attack(testBlackMage, testEnemy);
         testController.attack(testBlackMage, testEnemy);
         assertFalse(testController.getEnemies().contains(testEnemy));
-        assertTrue(testEnemy.getScheduledExecutor().isShutdown());
+        assertFalse(testController.isWaitingTurn(testEnemy));
         assertEquals(1, testController.getEnemies().size());
 
         testController.attack(otherEnemy, testBlackMage);
@@ -129,7 +126,6 @@ public class ControllerCharacterTest {
 
         testController.createKnight("playerWinner", 10, 20, 0);
         testKnight = (Knight) testController.getCharacters().get(0);
-        testKnight.setScheduledExecutor(Executors.newSingleThreadScheduledExecutor());
         testController.attack(testKnight, otherEnemy);
         assertFalse(testController.getEnemies().contains(otherEnemy));
         assertEquals(0, testController.getEnemies().size());
@@ -224,4 +220,63 @@ public class ControllerCharacterTest {
         testController.equip(white, staff);
         assertEquals(staff, testController.getCharacterEquippedWeapon(white));
     }
+
+    @Test
+    void idsTest() {
+        testController.createKnight("testKnight", 10, 10, 10);
+        testController.createEnemy("twin", 10, 10, 10, 10);
+        testController.createEnemy("twin", 10, 10, 10, 10);
+        testController.createEnemy("other", 10, 10, 10, 10);
+        testController.createSword("sword", 12, 12);
+        IPlayerCharacter knight = testController.getCharacters().get(0);
+        Enemy first = testController.getEnemies().get(0);
+        Enemy second = testController.getEnemies().get(1);
+        Enemy other = testController.getEnemies().get(2);
+        assertEquals(0, knight.getId());
+        assertEquals(1, first.getId());
+        assertEquals(2, second.getId());
+        assertEquals(0, testController.getInventory().get(0).getId());
+        assertEquals(first, second);
+
+        // Enemies with the same name die independently, the last one takes the dead one's slot
+        testController.onEnemyDeath(first);
+        assertEquals(2, testController.getEnemies().size());
+        assertSame(other, testController.getEnemies().get(0));
+        assertSame(second, testController.getEnemies().get(1));
+        testController.onEnemyDeath(first);
+        assertEquals(2, testController.getEnemies().size());
+
+        // Characters of another controller are not mistaken by their id
+        GameController otherController = new GameController();
+        otherController.createKnight("testKnight", 10, 10, 10);
+        assertNull(testController.getCharacterClass(otherController.getCharacters().get(0)));
+        assertEquals("Knight", testController.getCharacterClass(knight));
+    }
+
+    @Test
+    void statsChangedTest() {
+        List<ICharacter> changed = new ArrayList<>();
+        List<ICharacter> dead = new ArrayList<>();
+        testController.subscribeToCharacters(CharacterEvent.STATS_CHANGED, changed::add);
+        testController.subscribeToEnemies(CharacterEvent.STATS_CHANGED, changed::add);
+        testController.subscribeToEnemies(CharacterEvent.DEATH, dead::add);
+        testController.createKnight("knight", 10, 15, 10);
+        testController.createEnemy("enemy", 15, 5, 10, 10);
+        testController.createSword("sword", 5, 10);
+        IPlayerCharacter knight = testController.getCharacters().get(0);
+        Enemy enemy = testController.getEnemies().get(0);
+
+        // Attacks that do no damage don't change anything
+        testController.attack(enemy, knight);
+        assertTrue(changed.isEmpty());
+        testController.equip(knight, testController.getInventory().get(0));
+        assertEquals(List.of(knight), changed);
+        testController.attack(knight, enemy);
+        assertEquals(List.of(knight, enemy), changed);
+        testController.attack(knight, enemy);
+        assertEquals(List.of(knight, enemy, enemy), changed);
+        // The controller's handler already removed it
+        assertEquals(List.of(enemy), dead);
+        assertTrue(testController.getEnemies().isEmpty());
+    }
 }
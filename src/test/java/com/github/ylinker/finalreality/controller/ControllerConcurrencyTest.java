@@ -0,0 +1,198 @@
+package com.github.ylinker.finalreality.controller;
+
+import com.github.ylinker.finalreality.controller.scheduler.ITurnHandle;
+import com.github.ylinker.finalreality.controller.scheduler.ITurnScheduler;
+import com.github.ylinker.finalreality.controller.scheduler.TurnScheduler;
+import com.github.ylinker.finalreality.model.character.ICharacter;
+import com.github.ylinker.finalreality.model.character.IPlayerCharacter;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Stress tests of a controller whose turns are brought back by many scheduler threads
+ * while another thread plays them, like the GUI does.
+ */
+public class ControllerConcurrencyTest {
+    private static final int SCHEDULER_THREADS = 16;
+    private static final int CHARACTERS = 12;
+    private static final int TURNS = 20_000;
+
+    private TurnScheduler threads;
+    private GameController testController;
+    private List<ICharacter> characters;
+
+    /**
+     * Runs every turn on the scheduler threads as soon as possible, ignoring the characters' delays,
+     * so the callbacks race with the thread that plays the turns
+     */
+    private static class NoDelayScheduler implements ITurnScheduler {
+        private final ITurnScheduler delegate;
+
+        private NoDelayScheduler(ITurnScheduler delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public ITurnHandle schedule(Runnable command, long delay, TimeUnit unit) {
+            return delegate.schedule(command, 0, TimeUnit.NANOSECONDS);
+        }
+
+        @Override
+        public long currentTime() {
+            return delegate.currentTime();
+        }
+
+        @Override
+        public void shutdown() {
+            delegate.shutdown();
+        }
+    }
+
+    @BeforeEach
+    void setUp() {
+        threads = new TurnScheduler(SCHEDULER_THREADS);
+        testController = new GameController(new NoDelayScheduler(threads));
+        testController.setScene(new NullScene());
+        // Every attack does 1 damage so nobody dies
+        for (int i = 0; i < CHARACTERS / 2; i++) {
+            testController.createKnight("knight " + i, Integer.MAX_VALUE, 11, 10);
+            testController.createEnemy("enemy " + i, Integer.MAX_VALUE, 11, 10, 10);
+        }
+        characters = new ArrayList<>(testController.getCharacters());
+        characters.addAll(testController.getEnemies());
+    }
+
+    @AfterEach
+    void tearDown() {
+        threads.shutdown();
+    }
+
+    /**
+     * Checks that every character is either in the queue or waiting its delay, but not both.
+     * The playing character stays in the queue until it attacks, so it's checked before attacking
+     */
+    private void assertEveryTurnAccountedFor() {
+        synchronized (testController) {
+            for (ICharacter character : characters) {
+                boolean queued = testController.getQueue().contains(character);
+                boolean waiting = testController.isWaitingTurn(character);
+                assertTrue(queued != waiting, testController.getCharacterName(character) +
+                        (queued ? " is queued and waiting" : " is lost"));
+            }
+            ICharacter playing = testController.getCurrentTurnCharacter();
+            assertTrue(playing == null || testController.getQueue().contains(playing));
+        }
+    }
+
+    private ICharacter awaitTurn() throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        ICharacter character;
+        while ((character = testController.getCurrentTurnCharacter()) == null) {
+            if (System.nanoTime() > deadline) {
+                fail("A turn was lost, nobody is playing");
+            }
+            Thread.sleep(0, 1000);
+        }
+        return character;
+    }
+
+    @Test
+    void noTurnLostOrDuplicatedTest() throws InterruptedException {
+        Map<ICharacter, Integer> turns = new HashMap<>();
+        AtomicBoolean playing = new AtomicBoolean(true);
+        AtomicReference<Throwable> readerError = new AtomicReference<>();
+        // Reads the rosters like the view does while the turns are played
+        Thread reader = new Thread(() -> {
+            try {
+                while (playing.get()) {
+                    for (IPlayerCharacter character : testController.getCharacters()) {
+                        testController.getCharacterHealth(character);
+                    }
+                    testController.getEnemies().forEach(testController::getCharacterHealth);
+                    testController.peekNextTurns(3);
+                }
+            } catch (Throwable e) {
+                readerError.set(e);
+            }
+        });
+        reader.start();
+
+        testController.initTurns();
+        for (int i = 0; i < TURNS; i++) {
+            ICharacter character = awaitTurn();
+            turns.merge(character, 1, Integer::sum);
+            if (i % 100 == 0) {
+                assertEveryTurnAccountedFor();
+            }
+            if (character instanceof IPlayerCharacter) {
+                testController.toAttackPhase();
+                assertEquals(1, testController.tryToAttack(testController.getEnemies().get(i % (CHARACTERS / 2))));
+            } else {
+                assertEquals(1, testController.tryToAttack(testController.chooseRandomTarget()));
+            }
+            testController.toBeginTurnPhase();
+        }
+        playing.set(false);
+        reader.join();
+
+        assertNull(readerError.get());
+        assertEquals(TURNS, turns.values().stream().mapToInt(Integer::intValue).sum());
+        // With no delays every character keeps getting turns
+        assertEquals(CHARACTERS, turns.size());
+        awaitTurn();
+        assertEveryTurnAccountedFor();
+    }
+
+    @Test
+    void concurrentDeathsTest() throws InterruptedException {
+        testController.initTurns();
+        // Characters are killed from another thread while the turns go on
+        Thread killer = new Thread(() -> {
+            for (ICharacter character : characters.subList(1, CHARACTERS / 2)) {
+                boolean killed = false;
+                while (!killed) {
+                    // Players only die on an enemy's turn, never while playing their own
+                    synchronized (testController) {
+                        if (testController.getCurrentTurnCharacter() != character) {
+                            testController.onCharacterDeath((IPlayerCharacter) character);
+                            killed = true;
+                        }
+                    }
+                    Thread.yield();
+                }
+            }
+        });
+        killer.start();
+        for (int i = 0; i < 2_000; i++) {
+            ICharacter character = awaitTurn();
+            if (character instanceof IPlayerCharacter) {
+                testController.toAttackPhase();
+                testController.tryToAttack(testController.getEnemies().get(0));
+            } else {
+                testController.tryToAttack(testController.chooseRandomTarget());
+            }
+            testController.toBeginTurnPhase();
+        }
+        killer.join();
+        assertEquals(1, testController.getCharacters().size());
+        ICharacter character = awaitTurn();
+        assertTrue(testController.getCharacters().contains(character) || testController.getEnemies().contains(character));
+        synchronized (testController) {
+            for (ICharacter dead : characters.subList(1, CHARACTERS / 2)) {
+                assertFalse(testController.getQueue().contains(dead));
+                assertFalse(testController.isWaitingTurn(dead));
+            }
+        }
+    }
+}
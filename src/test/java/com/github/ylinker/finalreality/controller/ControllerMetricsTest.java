@@ -0,0 +1,74 @@
+package com.github.ylinker.finalreality.controller;
+
+import com.github.ylinker.finalreality.controller.phase.PhaseStatus;
+import com.github.ylinker.finalreality.controller.scheduler.VirtualTurnScheduler;
+import com.github.ylinker.finalreality.metrics.MetricsRegistry;
+import com.github.ylinker.finalreality.metrics.MetricsSnapshot;
+import com.github.ylinker.finalreality.model.character.IPlayerCharacter;
+import com.github.ylinker.finalreality.simulator.HeadlessScene;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ControllerMetricsTest {
+    private GameController controller;
+    private MetricsRegistry registry;
+
+    @BeforeEach
+    void setUp() {
+        controller = new GameController(new VirtualTurnScheduler(), new BattleRandom(3));
+        registry = new MetricsRegistry();
+        controller.setMetrics(registry);
+        controller.setScene(new HeadlessScene());
+        controller.createKnight("knight", 1000, 11, 10);
+        controller.createSword("sword", 1, 10);
+        controller.createEnemy("enemy", 1000, 11, 10, 10);
+    }
+
+    @Test
+    void countersTest() {
+        assertSame(registry, controller.getMetrics());
+        assertEquals(PhaseStatus.INVALID_TRANSITION, controller.goBack());
+        assertEquals(PhaseStatus.INVALID_ACTION, controller.tryToEquip(controller.getInventory().get(0)));
+        controller.initTurns();
+        int playerTurns = 0;
+        for (int i = 0; i < 100; i++) {
+            if (controller.getCurrentTurnCharacter() instanceof IPlayerCharacter) {
+                playerTurns++;
+                if (playerTurns == 1) {
+                    controller.toEquipPhase();
+                    controller.tryToEquip(controller.getInventory().get(0));
+                }
+                controller.toAttackPhase();
+                controller.tryToAttack(controller.getEnemies().get(0));
+            } else {
+                controller.tryToAttack(controller.chooseRandomTarget());
+            }
+            controller.toBeginTurnPhase();
+        }
+
+        MetricsSnapshot snapshot = registry.snapshot();
+        assertEquals(100, snapshot.getCounter("controller.attacks"));
+        assertEquals(101, snapshot.getCounter("controller.turns"));
+        assertEquals(101, snapshot.getCounter("controller.events.begin_turn"));
+        assertEquals(1, snapshot.getCounter("controller.equips"));
+        assertEquals(1, snapshot.getCounter("controller.invalid_actions"));
+        assertEquals(1, snapshot.getCounter("controller.phase.invalid_transitions"));
+        assertEquals(100, snapshot.getCounter("controller.phase.to_begin_turn"));
+        assertEquals(1, snapshot.getCounter("controller.phase.to_equip"));
+        // Every character played, waited and came back to the queue
+        assertEquals(99, snapshot.getCounter("controller.queued"));
+        // Only some operations are timed
+        long timedAttacks = snapshot.getHistogram("controller.attack.time").getCount();
+        assertTrue(timedAttacks > 0 && timedAttacks < 100, "timed " + timedAttacks);
+        assertTrue(snapshot.getHistogram("controller.handler.begin_turn.time").getCount() > 0);
+        assertTrue(snapshot.getHistogram("controller.turn.time").getCount() > 0);
+
+        // Without a registry nothing is recorded
+        controller.setMetrics(null);
+        assertNull(controller.getMetrics());
+        controller.goBack();
+        assertEquals(1, registry.snapshot().getCounter("controller.phase.invalid_transitions"));
+    }
+}
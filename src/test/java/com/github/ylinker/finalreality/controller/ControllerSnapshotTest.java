@@ -0,0 +1,76 @@
+package com.github.ylinker.finalreality.controller;
+
+import com.github.ylinker.finalreality.controller.phase.SelectWeaponPhase;
+import com.github.ylinker.finalreality.controller.scheduler.VirtualTurnScheduler;
+import com.github.ylinker.finalreality.model.character.IPlayerCharacter;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ControllerSnapshotTest {
+    private GameController controller;
+
+    @BeforeEach
+    void setUp() {
+        // The order of the turns is random too, so it comes from a seeded generator
+        controller = new GameController(new VirtualTurnScheduler(), new BattleRandom(11));
+        controller.setScene(new NullScene());
+        BattleFixture.createParty(controller);
+        controller.equip(controller.getCharacters().get(0), controller.getInventory().get(0));
+        controller.equip(controller.getCharacters().get(3), controller.getInventory().get(1));
+    }
+
+    @Test
+    void restoreBeforeTurnsTest() {
+        BattleSnapshot snapshot = controller.snapshot();
+        assertEquals(8, snapshot.getCharacterCount());
+        assertEquals(5, snapshot.getWeaponCount());
+        GameController restored = snapshot.restore(new VirtualTurnScheduler());
+        assertEquals(BattleFixture.describe(controller), BattleFixture.describe(restored));
+    }
+
+    @Test
+    void restoreMidTurnTest() {
+        controller.initTurns();
+        Random random = new Random(3);
+        BattleFixture.play(controller, random, 6);
+        while (!(controller.getCurrentTurnCharacter() instanceof IPlayerCharacter)) {
+            BattleFixture.play(controller, random, 1);
+        }
+        controller.toEquipPhase();
+        assertTrue(controller.getPhase() instanceof SelectWeaponPhase);
+
+        GameController restored = controller.snapshot().restore(new VirtualTurnScheduler());
+        restored.setScene(new NullScene());
+        assertEquals(BattleFixture.describe(controller), BattleFixture.describe(restored));
+    }
+
+    @Test
+    void forkTest() {
+        controller.initTurns();
+        BattleFixture.play(controller, new Random(5), 8);
+        BattleSnapshot snapshot = controller.snapshot();
+        GameController first = snapshot.restore(new VirtualTurnScheduler());
+        first.setScene(new NullScene());
+        GameController second = snapshot.restore(new VirtualTurnScheduler());
+        second.setScene(new NullScene());
+
+        // The original and both forks play the same moves to the same battle
+        BattleFixture.play(controller, new Random(9), 10);
+        BattleFixture.play(first, new Random(9), 10);
+        BattleFixture.play(second, new Random(9), 10);
+        assertEquals(BattleFixture.describe(controller), BattleFixture.describe(first));
+        assertEquals(BattleFixture.describe(controller), BattleFixture.describe(second));
+        assertFalse(first.winCondition() || first.loseCondition());
+
+        // A fork is independent of the other ones
+        GameController third = snapshot.restore(new VirtualTurnScheduler());
+        third.setScene(new NullScene());
+        BattleFixture.play(third, new Random(10), 10);
+        assertNotEquals(BattleFixture.describe(first), BattleFixture.describe(third));
+        assertEquals(BattleFixture.describe(first), BattleFixture.describe(second));
+    }
+}
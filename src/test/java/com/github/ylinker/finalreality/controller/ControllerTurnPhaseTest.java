@@ -118,7 +118,7 @@ public class ControllerTurnPhaseTest {
         assertEquals(SelectAttackingTargetPhase.class, testController.getPhase().getClass());
         testController.toBeginTurnPhase();
         assertEquals(BeginTurnPhase.class, testController.getPhase().getClass());
-        assertNotNull(knight.getScheduledExecutor());
+        assertTrue(testController.isWaitingTurn(knight));
         assertTrue(testController.getQueue().isEmpty());
         // Enemy attacks
         testController.setPhase(new SelectAttackingTargetPhase());
@@ -129,7 +129,7 @@ public class ControllerTurnPhaseTest {
         assertEquals(SelectAttackingTargetPhase.class, testController.getPhase().getClass());
         testController.toBeginTurnPhase();
         assertEquals(BeginTurnPhase.class, testController.getPhase().getClass());
-        assertNotNull(enemy.getScheduledExecutor());
+        assertTrue(testController.isWaitingTurn(enemy));
         assertTrue(testController.getQueue().isEmpty());
     }
 
@@ -165,4 +165,14 @@ public class ControllerTurnPhaseTest {
         assertEquals(SelectActionPhase.class, testController.getPhase().getClass());
         assertEquals(sword, knight.getEquippedWeapon());
     }
+
+    @Test
+    void nullEquipActionTest() {
+        testController.setPhase(new SelectWeaponPhase());
+        testController.setPhaseCharacter(knight);
+        testController.tryToEquip(null);
+        assertEquals(SelectActionPhase.class, testController.getPhase().getClass());
+        assertNull(knight.getEquippedWeapon());
+        assertTrue(testController.getInventory().contains(sword));
+    }
 }
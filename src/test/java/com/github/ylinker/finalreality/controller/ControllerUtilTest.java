@@ -3,6 +3,8 @@ package com.github.ylinker.finalreality.controller;
 import com.github.ylinker.finalreality.controller.phase.BeginTurnPhase;
 import com.github.ylinker.finalreality.controller.phase.SelectActionPhase;
 import com.github.ylinker.finalreality.controller.phase.SelectAttackingTargetPhase;
+import com.github.ylinker.finalreality.controller.scheduler.TurnQueue;
+import com.github.ylinker.finalreality.controller.scheduler.VirtualTurnScheduler;
 import com.github.ylinker.finalreality.model.character.Enemy;
 import com.github.ylinker.finalreality.model.character.ICharacter;
 import com.github.ylinker.finalreality.model.character.IPlayerCharacter;
@@ -10,17 +12,20 @@ import com.github.ylinker.finalreality.model.weapon.IWeapon;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
-import java.util.concurrent.BlockingQueue;
-import java.util.concurrent.Executors;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
 
 import static org.junit.jupiter.api.Assertions.*;
 
 public class ControllerUtilTest {
     private GameController testController;
+    private VirtualTurnScheduler clock;
 
     @BeforeEach
     void setUp() {
-        testController = new GameController();
+        // The clock only moves when the test advances it, so no test has to sleep
+        clock = new VirtualTurnScheduler(false);
+        testController = new GameController(clock);
         testController.setScene(new NullScene());
     }
 
@@ -34,7 +39,7 @@ public class ControllerUtilTest {
         testController.createEngineer("testCharacter", 12, 12, 12);
         assertFalse(testController.loseCondition());
         assertFalse(testController.winCondition());
-        testController.getEnemies().clear();
+        testController.onEnemyDeath(testController.getEnemies().get(0));
         assertTrue(testController.winCondition());
         assertFalse(testController.loseCondition());
     }
@@ -43,12 +48,10 @@ public class ControllerUtilTest {
     void addToQueueTest() {
         testController.createKnight("testKnight", 10, 10, 10);
         testController.createEnemy("testEnemy", 10, 10, 10, 20);
-        BlockingQueue<ICharacter> queue = testController.getQueue();
+        TurnQueue queue = testController.getQueue();
         assertTrue(queue.isEmpty());
         IPlayerCharacter knight = testController.getCharacters().get(0);
         Enemy enemy = testController.getEnemies().get(0);
-        knight.setScheduledExecutor(Executors.newSingleThreadScheduledExecutor());
-        enemy.setScheduledExecutor(Executors.newSingleThreadScheduledExecutor());
         testController.addToQueue(knight);
         // On an empty queue the characters should immediately start their turn
         testController.toAttackPhase();
@@ -56,9 +59,7 @@ public class ControllerUtilTest {
         testController.toBeginTurnPhase();
         assertFalse(queue.contains(knight));
         assertTrue(queue.isEmpty());
-        knight.shutdownScheduledExecutor();
         testController.addToQueue(enemy);
-        enemy.shutdownScheduledExecutor();
         testController.toAttackPhase();
         testController.tryToAttack(knight);
         testController.toBeginTurnPhase();
@@ -69,8 +70,6 @@ public class ControllerUtilTest {
         Enemy dummy = new Enemy("dummy", 1, 1, 1, 10);
         queue.add(dummy);
 
-        knight.setScheduledExecutor(Executors.newSingleThreadScheduledExecutor());
-        enemy.setScheduledExecutor(Executors.newSingleThreadScheduledExecutor());
         testController.addToQueue(knight);
         assertTrue(testController.getQueue().contains(knight));
         testController.addToQueue(enemy);
@@ -85,6 +84,33 @@ public class ControllerUtilTest {
         testController.initTurns();
         assertFalse(testController.getQueue().isEmpty());
         assertEquals(2, testController.getQueue().size());
+        // The first one in the queue is the one playing
+        List<ICharacter> nextTurns = testController.peekNextTurns(5);
+        assertEquals(2, nextTurns.size());
+        assertEquals(testController.getCurrentTurnCharacter(), nextTurns.get(0));
+    }
+
+    @Test
+    void readyTimeOrderTest() {
+        testController.createKnight("testKnight", 10, 10, 10);
+        testController.createEnemy("slowEnemy", 10, 10, 10, 30);
+        testController.createEnemy("fastEnemy", 10, 10, 10, 20);
+        IPlayerCharacter knight = testController.getCharacters().get(0);
+        Enemy slow = testController.getEnemies().get(0);
+        Enemy fast = testController.getEnemies().get(1);
+        // Knight is playing so the others wait in the queue
+        testController.getQueue().add(knight);
+        testController.beginTurn();
+        testController.waitTurn(slow);
+        testController.waitTurn(fast);
+        clock.advanceBy(3, TimeUnit.SECONDS);
+        assertEquals(List.of(knight, fast, slow), testController.peekNextTurns(3));
+        // The knight's turn ends and the fast enemy, that got ready first, goes next
+        testController.toAttackPhase();
+        testController.tryToAttack(slow);
+        testController.toBeginTurnPhase();
+        assertEquals(fast, testController.getCurrentTurnCharacter());
+        assertEquals(List.of(fast, slow), testController.peekNextTurns(3));
     }
 
     @Test
@@ -92,33 +118,45 @@ public class ControllerUtilTest {
         testController.createEngineer("testEngineer", 32, 39, 49);
         testController.createEnemy("testEnemy", 83, 49, 20, 20);
         testController.createKnight("dummy", 22, 43, 43);
-        BlockingQueue<ICharacter> queue = testController.getQueue();
+        TurnQueue queue = testController.getQueue();
         IPlayerCharacter engineer = testController.getCharacters().get(0);
         IPlayerCharacter dummy = testController.getCharacters().get(1);
         Enemy enemy = testController.getEnemies().get(0);
         // Add dummy to queue so that turn doesnt begin instantly
         queue.add(dummy);
 
-        // Schedulers should be null
-        assertNull(engineer.getScheduledExecutor());
-        assertNull(enemy.getScheduledExecutor());
+        // No one should be waiting yet
+        assertFalse(testController.isWaitingTurn(engineer));
+        assertFalse(testController.isWaitingTurn(enemy));
 
         testController.waitTurn(enemy);
         testController.waitTurn(engineer);
-        assertNotNull(engineer.getScheduledExecutor());
-        assertNotNull(enemy.getScheduledExecutor());
-        try {
-            Thread.sleep(1100);
-            assertTrue(engineer.getScheduledExecutor().isShutdown());
-            assertTrue(testController.getQueue().contains(engineer));
-            assertFalse(enemy.getScheduledExecutor().isShutdown());
-            assertFalse(testController.getQueue().contains(enemy));
-            Thread.sleep(1000);
-            assertTrue(enemy.getScheduledExecutor().isShutdown());
-            assertTrue(testController.getQueue().contains(enemy));
-        } catch (InterruptedException e) {
-            e.printStackTrace();
-        }
+        assertTrue(testController.isWaitingTurn(engineer));
+        assertTrue(testController.isWaitingTurn(enemy));
+        clock.advanceBy(1100, TimeUnit.MILLISECONDS);
+        assertFalse(testController.isWaitingTurn(engineer));
+        assertTrue(testController.getQueue().contains(engineer));
+        assertTrue(testController.isWaitingTurn(enemy));
+        assertFalse(testController.getQueue().contains(enemy));
+        clock.advanceBy(1000, TimeUnit.MILLISECONDS);
+        assertFalse(testController.isWaitingTurn(enemy));
+        assertTrue(testController.getQueue().contains(enemy));
+    }
+
+    @Test
+    void deathCancelsTurnTest() {
+        testController.createKnight("testKnight", 10, 30, 10);
+        testController.createEnemy("testEnemy", 10, 10, 10, 10);
+        IPlayerCharacter knight = testController.getCharacters().get(0);
+        Enemy enemy = testController.getEnemies().get(0);
+        // Add knight to queue so that turn doesnt begin instantly
+        testController.getQueue().add(knight);
+        testController.waitTurn(enemy);
+        assertTrue(testController.isWaitingTurn(enemy));
+        testController.attack(knight, enemy);
+        assertFalse(testController.isWaitingTurn(enemy));
+        clock.advanceBy(1100, TimeUnit.MILLISECONDS);
+        assertFalse(testController.getQueue().contains(enemy));
     }
 
     @Test
@@ -127,32 +165,27 @@ public class ControllerUtilTest {
         testController.createKnight("testKnight", 20, 10, 10);
         Enemy enemy = testController.getEnemies().get(0);
         IPlayerCharacter knight = testController.getCharacters().get(0);
-        knight.setScheduledExecutor(Executors.newSingleThreadScheduledExecutor());
         testController.waitTurn(enemy);
-        try {
-            Thread.sleep(500);
-            assertEquals(20, testController.getCharacterHealth(knight));
-            Thread.sleep(600);
-            assertEquals(enemy, testController.getCurrentTurnCharacter());
-            testController.tryToAttack(knight);
-            testController.toBeginTurnPhase();
-            assertNull(testController.getCurrentTurnCharacter());
-            assertEquals(10, testController.getCharacterHealth(knight));
-            assertNotNull(enemy.getScheduledExecutor());
-            Thread.sleep(500);
-            assertTrue(testController.getQueue().isEmpty());
-            assertNull(testController.getCurrentTurnCharacter());
-            assertEquals(10, testController.getCharacterHealth(knight));
-            assertNotNull(enemy.getScheduledExecutor());
-            Thread.sleep(600);
-            assertEquals(enemy, testController.getCurrentTurnCharacter());
-            testController.tryToAttack(knight);
-            assertEquals(0, testController.getCharacters().size());
-            testController.toBeginTurnPhase();
-            assertNull(testController.getCurrentTurnCharacter());
-        } catch (InterruptedException e) {
-            e.printStackTrace();
-        }
+        clock.advanceBy(500, TimeUnit.MILLISECONDS);
+        assertEquals(20, testController.getCharacterHealth(knight));
+        clock.advanceBy(600, TimeUnit.MILLISECONDS);
+        assertEquals(enemy, testController.getCurrentTurnCharacter());
+        testController.tryToAttack(knight);
+        testController.toBeginTurnPhase();
+        assertNull(testController.getCurrentTurnCharacter());
+        assertEquals(10, testController.getCharacterHealth(knight));
+        assertTrue(testController.isWaitingTurn(enemy));
+        clock.advanceBy(500, TimeUnit.MILLISECONDS);
+        assertTrue(testController.getQueue().isEmpty());
+        assertNull(testController.getCurrentTurnCharacter());
+        assertEquals(10, testController.getCharacterHealth(knight));
+        assertTrue(testController.isWaitingTurn(enemy));
+        clock.advanceBy(600, TimeUnit.MILLISECONDS);
+        assertEquals(enemy, testController.getCurrentTurnCharacter());
+        testController.tryToAttack(knight);
+        assertEquals(0, testController.getCharacters().size());
+        testController.toBeginTurnPhase();
+        assertNull(testController.getCurrentTurnCharacter());
     }
 
     @Test
@@ -176,21 +209,17 @@ public class ControllerUtilTest {
         assertEquals(SelectAttackingTargetPhase.class, testController.getPhase().getClass());
         testController.toBeginTurnPhase();
         assertEquals(BeginTurnPhase.class, testController.getPhase().getClass());
-        assertNotNull(engineer.getScheduledExecutor());
-        try {
-            testController.getQueue().add(enemy);
-            Thread.sleep(1100);
-            // Now the turn should not begin instantly since the queue is not empty
-            assertTrue(testController.getQueue().contains(engineer));
-            assertTrue(testController.getQueue().contains(enemy));
-            // Now we begin the enemy's turn that should kill the engineer
-            testController.beginTurn();
-            assertEquals(SelectAttackingTargetPhase.class, testController.getPhase().getClass());
-            testController.tryToAttack(engineer);
-            assertFalse(testController.getCharacters().contains(engineer));
-        } catch (InterruptedException e) {
-            e.printStackTrace();
-        }
+        assertTrue(testController.isWaitingTurn(engineer));
+        testController.getQueue().add(enemy);
+        clock.advanceBy(1100, TimeUnit.MILLISECONDS);
+        // Now the turn should not begin instantly since the queue is not empty
+        assertTrue(testController.getQueue().contains(engineer));
+        assertTrue(testController.getQueue().contains(enemy));
+        // Now we begin the enemy's turn that should kill the engineer
+        testController.beginTurn();
+        assertEquals(SelectAttackingTargetPhase.class, testController.getPhase().getClass());
+        testController.tryToAttack(engineer);
+        assertFalse(testController.getCharacters().contains(engineer));
     }
 
     @Test
@@ -222,63 +251,59 @@ public class ControllerUtilTest {
         IPlayerCharacter engineer = testController.getCharacters().get(0);
         Enemy enemy = testController.getEnemies().get(0);
         IWeapon axe = testController.getInventory().get(0);
-        BlockingQueue<ICharacter> queue = testController.getQueue();
+        TurnQueue queue = testController.getQueue();
         testController.initTurns();
         // Every character is put on the queue randomly
         assertFalse(queue.isEmpty());
-        try {
-            if(testController.getCurrentTurnCharacter() == enemy) {
-                assertEquals(SelectAttackingTargetPhase.class, testController.getPhase().getClass());
-                testController.tryToAttack(engineer);
-                testController.toBeginTurnPhase();
-                assertNotNull(enemy.getScheduledExecutor());
-                assertFalse(queue.contains(enemy));
-                assertEquals(SelectActionPhase.class, testController.getPhase().getClass());
-                testController.toAttackPhase();
-                testController.tryToAttack(enemy);
-                testController.toBeginTurnPhase();
-                assertFalse(queue.contains(engineer));
-                assertEquals(BeginTurnPhase.class, testController.getPhase().getClass());
-                Thread.sleep(1100);
-                // Should be the engineer's turn again
-                assertEquals(engineer, testController.getCurrentTurnCharacter());
-                testController.toAttackPhase();
-                Thread.sleep(1000);
-                // Since turn is not over when enemy gos into queue again it should not start its turn
-                assertEquals(testController.getCurrentTurnCharacter(), engineer);
-                // Enemy turn again and it kills engineer
-                testController.tryToAttack(enemy);
-                testController.toBeginTurnPhase();
-                testController.tryToAttack(engineer);
-                assertEquals(0, engineer.getHealth());
-            } else {
-                assertEquals(SelectActionPhase.class, testController.getPhase().getClass());
-                testController.toAttackPhase();
-                testController.tryToAttack(enemy);
-                assertFalse(queue.contains(engineer));
-                assertNotNull(engineer.getScheduledExecutor());
-                testController.toBeginTurnPhase();
-                assertEquals(SelectAttackingTargetPhase.class, testController.getPhase().getClass());
-                assertEquals(testController.getCurrentTurnCharacter(), enemy);
-                testController.tryToAttack(engineer);
-                testController.toBeginTurnPhase();
-                assertTrue(queue.isEmpty());
-                assertEquals(BeginTurnPhase.class, testController.getPhase().getClass());
-                Thread.sleep(1100);
-                assertEquals(testController.getCurrentTurnCharacter(), engineer);
-                testController.toEquipPhase();
-                testController.tryToEquip(axe);
-                Thread.sleep(1100);
-                assertEquals(testController.getCurrentTurnCharacter(), engineer);
-                testController.toAttackPhase();
-                testController.tryToAttack(enemy);
-                testController.toBeginTurnPhase();
-                assertEquals(testController.getCurrentTurnCharacter(), enemy);
-                testController.tryToAttack(engineer);
-                assertEquals(0, engineer.getHealth());
-            }
-        } catch (InterruptedException e) {
-            e.printStackTrace();
+        if(testController.getCurrentTurnCharacter() == enemy) {
+            assertEquals(SelectAttackingTargetPhase.class, testController.getPhase().getClass());
+            testController.tryToAttack(engineer);
+            testController.toBeginTurnPhase();
+            assertTrue(testController.isWaitingTurn(enemy));
+            assertFalse(queue.contains(enemy));
+            assertEquals(SelectActionPhase.class, testController.getPhase().getClass());
+            testController.toAttackPhase();
+            testController.tryToAttack(enemy);
+            testController.toBeginTurnPhase();
+            assertFalse(queue.contains(engineer));
+            assertEquals(BeginTurnPhase.class, testController.getPhase().getClass());
+            clock.advanceBy(1100, TimeUnit.MILLISECONDS);
+            // Should be the engineer's turn again
+            assertEquals(engineer, testController.getCurrentTurnCharacter());
+            testController.toAttackPhase();
+            clock.advanceBy(1000, TimeUnit.MILLISECONDS);
+            // Since turn is not over when enemy gos into queue again it should not start its turn
+            assertEquals(testController.getCurrentTurnCharacter(), engineer);
+            // Enemy turn again and it kills engineer
+            testController.tryToAttack(enemy);
+            testController.toBeginTurnPhase();
+            testController.tryToAttack(engineer);
+            assertEquals(0, engineer.getHealth());
+        } else {
+            assertEquals(SelectActionPhase.class, testController.getPhase().getClass());
+            testController.toAttackPhase();
+            testController.tryToAttack(enemy);
+            assertFalse(queue.contains(engineer));
+            assertTrue(testController.isWaitingTurn(engineer));
+            testController.toBeginTurnPhase();
+            assertEquals(SelectAttackingTargetPhase.class, testController.getPhase().getClass());
+            assertEquals(testController.getCurrentTurnCharacter(), enemy);
+            testController.tryToAttack(engineer);
+            testController.toBeginTurnPhase();
+            assertTrue(queue.isEmpty());
+            assertEquals(BeginTurnPhase.class, testController.getPhase().getClass());
+            clock.advanceBy(1100, TimeUnit.MILLISECONDS);
+            assertEquals(testController.getCurrentTurnCharacter(), engineer);
+            testController.toEquipPhase();
+            testController.tryToEquip(axe);
+            clock.advanceBy(1100, TimeUnit.MILLISECONDS);
+            assertEquals(testController.getCurrentTurnCharacter(), engineer);
+            testController.toAttackPhase();
+            testController.tryToAttack(enemy);
+            testController.toBeginTurnPhase();
+            assertEquals(testController.getCurrentTurnCharacter(), enemy);
+            testController.tryToAttack(engineer);
+            assertEquals(0, engineer.getHealth());
         }
     }
 
@@ -5,6 +5,8 @@ import com.github.ylinker.finalreality.model.weapon.*;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import java.util.List;
+
 import static org.junit.jupiter.api.Assertions.*;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 
@@ -118,6 +120,23 @@ public class ControllerWeaponTest {
         testController.createStaff("staff", 10, 10, 10);
     }
 
+    @Test
+    void nullWeaponTest() {
+        testController.createKnight("testKnight", 10, 10, 10);
+        testController.createSword("sword", 10, 10);
+        IPlayerCharacter knight = testController.getCharacters().get(0);
+        assertFalse(testController.getInventory().contains(null));
+        // Equipping no weapon does nothing
+        testController.equip(knight, null);
+        assertNull(knight.getEquippedWeapon());
+        assertEquals(1, testController.getInventory().size());
+        IWeapon sword = testController.getInventory().get(0);
+        testController.equip(knight, sword);
+        testController.equip(knight, null);
+        assertEquals(sword, knight.getEquippedWeapon());
+        assertTrue(testController.getInventory().isEmpty());
+    }
+
     @Test
     void getWeaponDamageTest() {
         testController.createSword("sword", 5, 10);
@@ -157,4 +176,87 @@ public class ControllerWeaponTest {
         assertEquals(20, testController.getStaffMagicDamage(staff1));
         assertEquals(5, testController.getStaffMagicDamage(staff2));
     }
+
+    @Test
+    void inventoryIndexTest() {
+        testController.createBlackMage("testBlackMage", 10, 10, 10, 5);
+        IPlayerCharacter mage = testController.getCharacters().get(0);
+        testController.createStaff("staff", 1, 2, 20);
+        testController.createStaff("staff", 1, 2, 20);
+        testController.createStaff("strongStaff", 3, 9, 45);
+        testController.createSword("sword", 12, 12);
+        testController.createAxe("axe", 7, 30);
+        IWeapon first = testController.getInventory().get(0);
+        IWeapon second = testController.getInventory().get(1);
+        IWeapon strong = testController.getInventory().get(2);
+        IWeapon sword = testController.getInventory().get(3);
+        IWeapon axe = testController.getInventory().get(4);
+
+        assertEquals(3, testController.getInventory("Staff").size());
+        assertTrue(testController.getInventory("Bow").isEmpty());
+        assertSame(strong, testController.getBestWeapon("Staff", WeaponStat.MAGIC_DAMAGE));
+        assertSame(sword, testController.getBestWeapon("Sword", WeaponStat.DAMAGE));
+        assertNull(testController.getBestWeapon("Knife", WeaponStat.DAMAGE));
+        assertEquals(List.of(strong, sword, axe),
+                testController.getInventoryInRange(WeaponStat.WEIGHT, 5, 30));
+        assertEquals(List.of(first, second),
+                testController.getInventoryInRange("Staff", WeaponStat.DAMAGE, 0, 2));
+        assertTrue(testController.getInventoryInRange(WeaponStat.DAMAGE, 5, 4).isEmpty());
+
+        // Equal staffs are different weapons of the inventory
+        testController.equip(mage, first);
+        assertSame(first, mage.getEquippedWeapon());
+        assertTrue(testController.getInventory().contains(second));
+        assertEquals(4, testController.getInventory().size());
+        testController.equip(mage, strong);
+        assertEquals(4, testController.getInventory().size());
+        assertEquals(List.of(first, second),
+                testController.getInventoryInRange("Staff", WeaponStat.DAMAGE, 0, 2));
+        // Between equal stats the weapon created last is the best
+        assertSame(second, testController.getBestWeapon("Staff", WeaponStat.MAGIC_DAMAGE));
+        assertFalse(testController.getInventory("Staff").contains(strong));
+    }
+
+    @Test
+    void equippableWeaponsTest() {
+        testController.createEngineer("testEngineer", 10, 10, 10);
+        testController.createKnight("testKnight", 10, 10, 10);
+        testController.createThief("testThief", 10, 10, 10);
+        testController.createWhiteMage("testWhiteMage", 10, 10, 10, 5);
+        testController.createBlackMage("testBlackMage", 10, 10, 10, 5);
+        testController.createAxe("axe", 10, 5);
+        testController.createBow("bow", 10, 5);
+        testController.createKnife("knife", 10, 5);
+        testController.createSword("sword", 10, 5);
+        testController.createStaff("staff", 10, 5, 5);
+        List<IWeapon> inventory = testController.getInventory();
+
+        // The bulk answer is the same as trying to equip every weapon
+        for (IPlayerCharacter character : testController.getCharacters()) {
+            int[] slots = testController.getEquippableSlots(character);
+            List<IWeapon> weapons = testController.getEquippableWeapons(character);
+            assertEquals(slots.length, weapons.size());
+            int next = 0;
+            for (int i = 0; i < inventory.size(); i++) {
+                IWeapon weapon = inventory.get(i);
+                boolean canEquip = character.equip(weapon);
+                assertEquals(canEquip, EquipMatrix.canEquip(
+                        testController.getCharacterClass(character), testController.getWeaponClass(weapon)));
+                if (canEquip) {
+                    assertEquals(i, slots[next]);
+                    assertSame(weapon, weapons.get(next++));
+                }
+            }
+            assertEquals(slots.length, next);
+        }
+        assertEquals(List.of(inventory.get(0), inventory.get(1)),
+                testController.getEquippableWeapons(testController.getCharacters().get(0)));
+        assertFalse(EquipMatrix.canEquip("Enemy", "Sword"));
+
+        // Dead characters can't equip anything
+        IPlayerCharacter knight = testController.getCharacters().get(1);
+        knight.receiveDamage(10);
+        assertEquals(0, testController.getEquippableSlots(knight).length);
+        assertTrue(testController.getEquippableWeapons(knight).isEmpty());
+    }
 }
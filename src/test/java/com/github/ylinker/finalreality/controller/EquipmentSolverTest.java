@@ -0,0 +1,162 @@
+package com.github.ylinker.finalreality.controller;
+
+import com.github.ylinker.finalreality.controller.scheduler.VirtualTurnScheduler;
+import com.github.ylinker.finalreality.model.character.IPlayerCharacter;
+import com.github.ylinker.finalreality.model.weapon.IWeapon;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class EquipmentSolverTest {
+    private GameController controller;
+    private BattleRandom random;
+
+    @BeforeEach
+    void setUp() {
+        controller = new GameController(new VirtualTurnScheduler(), new BattleRandom(7));
+        random = new BattleRandom(42);
+    }
+
+    @Test
+    void weightTradeOffTest() {
+        controller.createKnight("knight", 100, 10, 10);
+        controller.createEnemy("enemy", 100, 10, 5, 10);
+        // 30 damage every 4 seconds is worse than 20 damage every second
+        controller.createSword("heavy", 30, 30);
+        controller.createSword("light", 15, 5);
+        IPlayerCharacter knight = controller.getCharacters().get(0);
+        EquipmentSolver.Assignment assignment = new EquipmentSolver(controller).solveAndEquip();
+        assertEquals("light", knight.getEquippedWeapon().getName());
+        assertEquals(20, assignment.getDamagePerSecond(), 1e-9);
+
+        // Keeping the weapon is better than anything left in the inventory
+        assignment = new EquipmentSolver(controller).solve();
+        assertNull(assignment.getWeapon(knight));
+        assertTrue(assignment.getChanges().isEmpty());
+    }
+
+    @Test
+    void sharedWeaponTest() {
+        // Both want the axe, but the thief can't use it
+        controller.createEngineer("engineer", 100, 10, 10);
+        controller.createThief("thief", 100, 10, 10);
+        controller.createAxe("axe", 30, 0);
+        controller.createBow("bow", 25, 0);
+        controller.createKnife("knife", 5, 0);
+        IPlayerCharacter engineer = controller.getCharacters().get(0);
+        IPlayerCharacter thief = controller.getCharacters().get(1);
+        new EquipmentSolver(controller).solveAndEquip();
+        assertEquals("axe", engineer.getEquippedWeapon().getName());
+        assertEquals("bow", thief.getEquippedWeapon().getName());
+        assertEquals(1, controller.getInventory().size());
+    }
+
+    @Test
+    void bruteForceTest() {
+        for (int battle = 0; battle < 30; battle++) {
+            setUp();
+            createParty(3);
+            createInventory(7);
+            EquipmentSolver.Assignment assignment = new EquipmentSolver(controller).solve();
+            assertEquals(bruteForce(controller.getCharacters(), controller.getInventory(), 0,
+                    new IdentityHashMap<>()), assignment.getDamagePerSecond(), 1e-9);
+            new EquipmentSolver(controller).solveAndEquip();
+        }
+    }
+
+    @Test
+    void bigInventoryTest() {
+        createParty(5);
+        createInventory(10000);
+        EquipmentSolver.Assignment assignment = new EquipmentSolver(controller).solveAndEquip();
+        double applied = 0;
+        for (IPlayerCharacter character : controller.getCharacters()) {
+            applied += damagePerSecond(character.getAttack(), character.getWeight());
+            assertNotNull(character.getEquippedWeapon());
+        }
+        assertEquals(assignment.getDamagePerSecond(), applied, 1e-9);
+        assertEquals(10000 - 5, controller.getInventory().size());
+    }
+
+    private void createParty(int size) {
+        for (int i = 0; i < size; i++) {
+            switch (random.nextInt(5)) {
+                case 0:
+                    controller.createEngineer("engineer" + i, 100, random.nextInt(1, 20), 10);
+                    break;
+                case 1:
+                    controller.createKnight("knight" + i, 100, random.nextInt(1, 20), 10);
+                    break;
+                case 2:
+                    controller.createThief("thief" + i, 100, random.nextInt(1, 20), 10);
+                    break;
+                case 3:
+                    controller.createWhiteMage("white" + i, 100, random.nextInt(1, 20), 10, 10);
+                    break;
+                default:
+                    controller.createBlackMage("black" + i, 100, random.nextInt(1, 20), 10, 10);
+            }
+        }
+        for (int i = 0; i < 3; i++) {
+            controller.createEnemy("enemy" + i, 100, 10, random.nextInt(0, 30), 10);
+        }
+    }
+
+    private void createInventory(int size) {
+        for (int i = 0; i < size; i++) {
+            int damage = random.nextInt(1, 40);
+            int weight = random.nextInt(0, 40);
+            switch (random.nextInt(5)) {
+                case 0:
+                    controller.createAxe("axe" + i, damage, weight);
+                    break;
+                case 1:
+                    controller.createBow("bow" + i, damage, weight);
+                    break;
+                case 2:
+                    controller.createKnife("knife" + i, damage, weight);
+                    break;
+                case 3:
+                    controller.createSword("sword" + i, damage, weight);
+                    break;
+                default:
+                    controller.createStaff("staff" + i, damage, weight, 10);
+            }
+        }
+    }
+
+    private double bruteForce(List<IPlayerCharacter> characters, List<IWeapon> inventory, int index,
+                              Map<IWeapon, Boolean> taken) {
+        if (index == characters.size()) {
+            return 0;
+        }
+        IPlayerCharacter character = characters.get(index);
+        double best = damagePerSecond(character.getAttack(), character.getWeight())
+                + bruteForce(characters, inventory, index + 1, taken);
+        for (IWeapon weapon : inventory) {
+            if (taken.containsKey(weapon) || !controller.getEquippableWeapons(character).contains(weapon)) {
+                continue;
+            }
+            taken.put(weapon, true);
+            double value = damagePerSecond(character.getAttack() + weapon.getDamage(),
+                    character.getWeight() + weapon.getWeight())
+                    + bruteForce(characters, inventory, index + 1, taken);
+            best = Math.max(best, value);
+            taken.remove(weapon);
+        }
+        return best;
+    }
+
+    private double damagePerSecond(int attack, int weight) {
+        double damage = 0;
+        for (var enemy : controller.getEnemies()) {
+            damage += Math.max(attack - enemy.getDefense(), 0);
+        }
+        return damage / controller.getEnemies().size() / Math.max(weight / 10, 1);
+    }
+}
@@ -0,0 +1,64 @@
+package com.github.ylinker.finalreality.controller.handler;
+
+import com.github.ylinker.finalreality.model.character.Enemy;
+import com.github.ylinker.finalreality.model.character.ICharacter;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class EventBusTest {
+    private EventBus<Enemy> bus;
+    private Enemy enemy;
+    private List<Enemy> deaths;
+    private List<Enemy> turns;
+
+    @BeforeEach
+    void setUp() {
+        bus = new EventBus<>();
+        enemy = new Enemy("enemy", 10, 10, 0, 10);
+        enemy.setEventBus(bus);
+        deaths = new ArrayList<>();
+        turns = new ArrayList<>();
+        bus.subscribe(CharacterEvent.DEATH, deaths::add);
+        bus.subscribe(CharacterEvent.BEGIN_TURN, turns::add);
+    }
+
+    @Test
+    void publishTest() {
+        enemy.beginTurn();
+        assertEquals(List.of(enemy), turns);
+        assertTrue(deaths.isEmpty());
+        enemy.defend(5);
+        assertTrue(deaths.isEmpty());
+        enemy.defend(5);
+        assertEquals(List.of(enemy), deaths);
+        assertEquals(1, turns.size());
+    }
+
+    @Test
+    void severalHandlersTest() {
+        List<ICharacter> others = new ArrayList<>();
+        // A handler of any character can listen to the enemies
+        IEventHandler<ICharacter> handler = others::add;
+        bus.subscribe(CharacterEvent.BEGIN_TURN, handler);
+        assertEquals(2, bus.getHandlerCount(CharacterEvent.BEGIN_TURN));
+        assertEquals(1, bus.getHandlerCount(CharacterEvent.DEATH));
+        enemy.beginTurn();
+        assertEquals(List.of(enemy), turns);
+        assertEquals(List.of(enemy), others);
+    }
+
+    @Test
+    void noBusTest() {
+        Enemy alone = new Enemy("alone", 10, 10, 0, 10);
+        alone.beginTurn();
+        alone.defend(20);
+        assertFalse(alone.isAlive());
+        assertTrue(turns.isEmpty());
+        assertTrue(deaths.isEmpty());
+    }
+}
@@ -0,0 +1,142 @@
+package com.github.ylinker.finalreality.controller.jfr;
+
+import com.github.ylinker.finalreality.controller.BattleRandom;
+import com.github.ylinker.finalreality.controller.GameController;
+import com.github.ylinker.finalreality.controller.scheduler.VirtualTurnScheduler;
+import com.github.ylinker.finalreality.model.character.IPlayerCharacter;
+import com.github.ylinker.finalreality.simulator.HeadlessScene;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ControllerEventsTest {
+    private static final String[] EVENTS = {
+            "finalreality.Turn", "finalreality.TurnStart", "finalreality.SchedulerWakeup", "finalreality.Attack",
+            "finalreality.Equip", "finalreality.PhaseTransition", "finalreality.Death"
+    };
+
+    private GameController controller;
+
+    @BeforeEach
+    void setUp() {
+        controller = new GameController(new VirtualTurnScheduler(), new BattleRandom(3));
+        controller.setScene(new HeadlessScene());
+        controller.createKnight("knight", 1000, 11, 10);
+        controller.createSword("sword", 1, 10);
+        controller.createEnemy("enemy", 60, 11, 10, 10);
+    }
+
+    @Test
+    void recordedEventsTest() throws IOException {
+        List<RecordedEvent> events;
+        try (Recording recording = new Recording()) {
+            for (String event : EVENTS) {
+                recording.enable(event).withoutThreshold();
+            }
+            recording.start();
+            playUntilEnemyDies();
+            recording.stop();
+            Path file = Files.createTempFile("battle", ".jfr");
+            try {
+                recording.dump(file);
+                events = RecordingFile.readAllEvents(file);
+            } finally {
+                Files.delete(file);
+            }
+        }
+
+        List<RecordedEvent> attacks = ofType(events, "finalreality.Attack");
+        List<RecordedEvent> turns = ofType(events, "finalreality.Turn");
+        List<RecordedEvent> turnStarts = ofType(events, "finalreality.TurnStart");
+        assertFalse(attacks.isEmpty());
+        assertEquals(attacks.size(), turns.size());
+        // The knight may start another turn after the last attack
+        assertTrue(turnStarts.size() >= attacks.size());
+        for (RecordedEvent attack : attacks) {
+            // The knight equips the sword on its first turn
+            assertEquals(attack.getString("attacker").equals("knight") ? 2 : 1, attack.getInt("damage"));
+        }
+        RecordedEvent lastAttack = attacks.get(attacks.size() - 1);
+        assertEquals("knight", lastAttack.getString("attacker"));
+        assertEquals("enemy", lastAttack.getString("target"));
+        assertEquals(0, lastAttack.getInt("targetHealth"));
+
+        RecordedEvent equip = ofType(events, "finalreality.Equip").get(0);
+        assertEquals("sword", equip.getString("weapon"));
+        assertEquals("Sword", equip.getString("weaponClass"));
+        assertTrue(equip.getBoolean("equipped"));
+
+        List<RecordedEvent> deaths = ofType(events, "finalreality.Death");
+        assertEquals(1, deaths.size());
+        assertTrue(deaths.get(0).getBoolean("enemy"));
+
+        // The virtual scheduler is never late
+        List<RecordedEvent> wakeups = ofType(events, "finalreality.SchedulerWakeup");
+        assertTrue(wakeups.size() >= turns.size() - 2);
+        for (RecordedEvent wakeup : wakeups) {
+            assertEquals(0, wakeup.getLong("lateness"));
+            assertEquals(wakeup.getLong("delay"), wakeup.getLong("waited"));
+        }
+
+        boolean invalid = false;
+        for (RecordedEvent transition : ofType(events, "finalreality.PhaseTransition")) {
+            invalid |= "GO_BACK".equals(transition.getString("transition")) && transition.getString("to") == null;
+        }
+        assertTrue(invalid);
+    }
+
+    @Test
+    void notRecordingTest() {
+        // Without a recording the events are created and dropped without being committed
+        playUntilEnemyDies();
+        assertTrue(controller.getEnemies().isEmpty());
+    }
+
+    private void playUntilEnemyDies() {
+        // Not valid before the first turn
+        controller.goBack();
+        controller.initTurns();
+        boolean equipped = false;
+        while (!controller.getEnemies().isEmpty()) {
+            if (controller.getCurrentTurnCharacter() instanceof IPlayerCharacter) {
+                if (!equipped) {
+                    controller.toEquipPhase();
+                    controller.tryToEquip(controller.getInventory().get(0));
+                    equipped = true;
+                }
+                controller.toAttackPhase();
+                controller.tryToAttack(controller.getEnemies().get(0));
+            } else {
+                controller.tryToAttack(controller.chooseRandomTarget());
+            }
+            controller.toBeginTurnPhase();
+        }
+    }
+
+    private static List<RecordedEvent> ofType(List<RecordedEvent> events, String name) {
+        List<RecordedEvent> result = new ArrayList<>();
+        long thread = Thread.currentThread().getId();
+        for (RecordedEvent event : events) {
+            // The recording has the events of the whole JVM, like those of the battles other tests left running.
+            // This battle runs on a virtual scheduler, so all of its events happen on the test's thread
+            if (event.getEventType().getName().equals(name) && event.getThread() != null
+                    && event.getThread().getJavaThreadId() == thread) {
+                result.add(event);
+            }
+        }
+        // The events of a file aren't always in order
+        result.sort(Comparator.comparing(RecordedEvent::getStartTime));
+        return result;
+    }
+}
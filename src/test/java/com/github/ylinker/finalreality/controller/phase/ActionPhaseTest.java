@@ -53,4 +53,18 @@ public class ActionPhaseTest extends AbstractPhaseTest {
     void selectWeaponTest() {
         selectWeapon();
     }
+
+    @Test
+    void stalePhaseTest() throws InvalidTransitionException {
+        phase.toSelectAttackingTargetPhase();
+        // The phase was kept after the controller left it, so it can't change the controller's phase anymore
+        toWeaponPhase();
+        assertEquals(SelectAttackingTargetPhase.class, controller.getPhase().getClass());
+        selectWeapon();
+        // It acts again once it's the current phase
+        controller.goBack();
+        assertEquals(phase, controller.getPhase());
+        phase.toSelectWeaponPhase();
+        assertEquals(SelectWeaponPhase.class, controller.getPhase().getClass());
+    }
 }
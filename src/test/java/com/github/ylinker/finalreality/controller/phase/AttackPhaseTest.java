@@ -53,4 +53,14 @@ public class AttackPhaseTest extends AbstractPhaseTest {
     void selectWeaponTest() {
         selectWeapon();
     }
+
+    @Test
+    void stalePhaseTest() throws InvalidTransitionException {
+        phase.goBack();
+        // A target phase kept after going back doesn't attack
+        selectAttackingTarget();
+        assertEquals(10, dummy.getHealth());
+        goBackError();
+        assertEquals(SelectActionPhase.class, controller.getPhase().getClass());
+    }
 }
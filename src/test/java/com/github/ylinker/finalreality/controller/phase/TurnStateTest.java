@@ -0,0 +1,93 @@
+package com.github.ylinker.finalreality.controller.phase;
+
+import com.github.ylinker.finalreality.controller.GameController;
+import com.github.ylinker.finalreality.controller.scheduler.VirtualTurnScheduler;
+import com.github.ylinker.finalreality.model.character.IPlayerCharacter;
+import com.github.ylinker.finalreality.model.weapon.IWeapon;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TurnStateTest {
+    private GameController controller;
+    private IPlayerCharacter knight;
+
+    @BeforeEach
+    void setUp() {
+        controller = new GameController(new VirtualTurnScheduler(false));
+        controller.createKnight("knight", 100, 10, 10);
+        controller.createSword("sword", 10, 10);
+        knight = controller.getCharacters().get(0);
+    }
+
+    @Test
+    void tableTest() {
+        for (TurnState state : TurnState.values()) {
+            for (Transition transition : Transition.values()) {
+                // The table agrees with the exception based phases
+                Phase phase = state.createPhase();
+                assertEquals(state, phase.getState());
+                GameController other = new GameController(new VirtualTurnScheduler(false));
+                other.setPhase(phase);
+                boolean thrown = false;
+                try {
+                    switch (transition) {
+                        case TO_EQUIP:
+                            phase.toSelectWeaponPhase();
+                            break;
+                        case TO_ATTACK:
+                            phase.toSelectAttackingTargetPhase();
+                            break;
+                        case TO_ACTION:
+                            phase.toSelectActionPhase();
+                            break;
+                        case GO_BACK:
+                            phase.goBack();
+                            break;
+                        default:
+                            phase.toBeginTurnPhase();
+                    }
+                } catch (Exception e) {
+                    thrown = true;
+                }
+                TurnState next = state.next(transition);
+                assertEquals(next == null, thrown, state + " " + transition);
+                assertEquals(next == null ? state : next, other.getState());
+            }
+        }
+    }
+
+    @Test
+    void statusTest() {
+        assertEquals(TurnState.BEGIN_TURN, controller.getState());
+        assertEquals(PhaseStatus.INVALID_TRANSITION, controller.toEquipPhase());
+        assertEquals(PhaseStatus.INVALID_ACTION, controller.tryToEquip(controller.getInventory().get(0)));
+        assertEquals(PhaseStatus.OK, controller.toActionPhase());
+        controller.setPhaseCharacter(knight);
+        assertEquals(PhaseStatus.OK, controller.toEquipPhase());
+        assertEquals(knight, controller.getPhaseCharacter());
+        IWeapon sword = controller.getInventory().get(0);
+        assertEquals(PhaseStatus.OK, controller.tryToEquip(sword));
+        assertEquals(sword, knight.getEquippedWeapon());
+        assertEquals(TurnState.SELECT_ACTION, controller.getState());
+        assertEquals(PhaseStatus.INVALID_TRANSITION, controller.goBack());
+        assertEquals(PhaseStatus.OK, controller.toAttackPhase());
+        assertEquals(PhaseStatus.OK, controller.toBeginTurnPhase());
+        assertNull(controller.getPhaseCharacter());
+    }
+
+    @Test
+    void phaseObjectsAreReusedTest() {
+        controller.toActionPhase();
+        Phase action = controller.getPhase();
+        controller.setPhaseCharacter(knight);
+        controller.toEquipPhase();
+        Phase equip = controller.getPhase();
+        controller.goBack();
+        assertSame(action, controller.getPhase());
+        controller.toEquipPhase();
+        assertSame(equip, controller.getPhase());
+        assertEquals(knight, equip.getCharacter());
+    }
+}
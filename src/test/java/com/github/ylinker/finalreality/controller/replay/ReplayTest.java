@@ -0,0 +1,180 @@
+package com.github.ylinker.finalreality.controller.replay;
+
+import com.github.ylinker.finalreality.controller.BattleFixture;
+import com.github.ylinker.finalreality.controller.GameController;
+import com.github.ylinker.finalreality.controller.NullScene;
+import com.github.ylinker.finalreality.controller.phase.PhaseStatus;
+import com.github.ylinker.finalreality.controller.phase.SelectWeaponPhase;
+import com.github.ylinker.finalreality.controller.phase.Transition;
+import com.github.ylinker.finalreality.controller.scheduler.ITurnHandle;
+import com.github.ylinker.finalreality.controller.scheduler.ITurnScheduler;
+import com.github.ylinker.finalreality.controller.scheduler.TurnScheduler;
+import com.github.ylinker.finalreality.controller.scheduler.VirtualTurnScheduler;
+import com.github.ylinker.finalreality.model.character.IPlayerCharacter;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ReplayTest {
+    private Path file;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        file = Files.createTempFile("battle", ".replay");
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        Files.deleteIfExists(file);
+    }
+
+    @Test
+    void replayBattleTest() throws IOException {
+        GameController controller = new GameController(new VirtualTurnScheduler());
+        controller.setScene(new NullScene());
+        ReplayLog log = new ReplayLog(file);
+        controller.setRecorder(log);
+        BattleFixture.createParty(controller);
+        controller.equip(controller.getCharacters().get(0), controller.getInventory().get(0));
+        controller.initTurns();
+        Random random = new Random(7);
+        for (int turn = 0; turn < 40 && !controller.winCondition() && !controller.loseCondition(); turn++) {
+            if (controller.getCurrentTurnCharacter() instanceof IPlayerCharacter) {
+                // Selecting no weapon goes back to the actions
+                controller.toEquipPhase();
+                assertEquals(PhaseStatus.OK, controller.tryToEquip(null));
+            }
+            BattleFixture.playTurn(controller, random, true);
+            controller.toBeginTurnPhase();
+        }
+        // Stop in the middle of a turn
+        controller.toEquipPhase();
+        log.close();
+
+        assertEquals(BattleFixture.describe(controller), BattleFixture.describe(Replayer.replay(file)));
+    }
+
+    @Test
+    void replayThreadedBattleTest() throws IOException, InterruptedException {
+        TurnScheduler threads = new TurnScheduler(4);
+        // Every turn comes back right away on one of the scheduler threads
+        ITurnScheduler scheduler = new ITurnScheduler() {
+            @Override
+            public ITurnHandle schedule(Runnable command, long delay, TimeUnit unit) {
+                return threads.schedule(command, 0, unit);
+            }
+
+            @Override
+            public long currentTime() {
+                return threads.currentTime();
+            }
+
+            @Override
+            public void shutdown() {
+                threads.shutdown();
+            }
+        };
+        GameController controller = new GameController(scheduler);
+        controller.setScene(new NullScene());
+        ReplayLog log = new ReplayLog(file);
+        controller.setRecorder(log);
+        BattleFixture.createParty(controller);
+        controller.initTurns();
+        Random random = new Random(11);
+        for (int turn = 0; turn < 300 && !controller.winCondition() && !controller.loseCondition(); turn++) {
+            while (controller.getCurrentTurnCharacter() == null) {
+                Thread.sleep(1);
+            }
+            BattleFixture.playTurn(controller, random, true);
+            controller.toBeginTurnPhase();
+        }
+        List<String> state;
+        synchronized (controller) {
+            state = BattleFixture.describe(controller);
+            log.close();
+        }
+        scheduler.shutdown();
+
+        assertEquals(state, BattleFixture.describe(Replayer.replay(file)));
+    }
+
+    @Test
+    void truncatedLogTest() throws IOException {
+        GameController controller = new GameController(new VirtualTurnScheduler());
+        controller.setScene(new NullScene());
+        try (ReplayLog log = new ReplayLog(file)) {
+            controller.setRecorder(log);
+            BattleFixture.createParty(controller);
+            controller.initTurns();
+        }
+        byte[] bytes = Files.readAllBytes(file);
+        Replayer complete = new Replayer(java.nio.ByteBuffer.wrap(bytes));
+        complete.replayAll();
+        // The last record is cut in half
+        Replayer truncated = new Replayer(java.nio.ByteBuffer.wrap(Arrays.copyOf(bytes, bytes.length - 2)));
+        truncated.replayAll();
+        assertEquals(complete.getRecords() - 1, truncated.getRecords());
+        assertEquals(0, truncated.getController().getQueue().size());
+        assertEquals(3, truncated.getController().getEnemies().size());
+    }
+
+    @Test
+    void compactLogTest() throws IOException {
+        GameController controller = new GameController(new VirtualTurnScheduler());
+        controller.setScene(new NullScene());
+        ReplayLog log = new ReplayLog(file);
+        controller.setRecorder(log);
+        BattleFixture.createParty(controller);
+        log.flush();
+        long created = Files.size(file);
+        controller.initTurns();
+        for (int turn = 0; turn < 10; turn++) {
+            BattleFixture.playTurn(controller, new Random(turn), true);
+            controller.toBeginTurnPhase();
+        }
+        log.close();
+        // A turn takes a handful of bytes
+        assertTrue(Files.size(file) - created < 10 * 16);
+        assertThrows(IllegalStateException.class, () -> log.phaseChanged(Transition.GO_BACK));
+    }
+
+    @Test
+    void selectWeaponRecordTest() throws IOException {
+        GameController controller = new GameController(new VirtualTurnScheduler());
+        controller.setScene(new NullScene());
+        ReplayLog log = new ReplayLog(file);
+        controller.setRecorder(log);
+        BattleFixture.createParty(controller);
+        controller.setPhase(new SelectWeaponPhase());
+        controller.setPhaseCharacter(controller.getCharacters().get(0));
+        log.flush();
+        long before = Files.size(file);
+        controller.tryToEquip(controller.getInventory().get(0));
+        log.close();
+        // Only the selection is recorded, not the equipment it causes
+        byte[] bytes = Files.readAllBytes(file);
+        assertArrayEquals(new byte[]{ReplayLog.SELECT_WEAPON, 0},
+                Arrays.copyOfRange(bytes, (int) before, bytes.length));
+    }
+
+    @Test
+    void lateRecorderTest() throws IOException {
+        GameController controller = new GameController(new VirtualTurnScheduler());
+        controller.createKnight("Arthur", 60, 12, 5);
+        try (ReplayLog log = new ReplayLog(file)) {
+            assertThrows(IllegalStateException.class, () -> controller.setRecorder(log));
+        }
+        assertThrows(IllegalArgumentException.class,
+                () -> new Replayer(java.nio.ByteBuffer.wrap(new byte[]{1, 2, 3, 4, 5})));
+    }
+}
@@ -0,0 +1,110 @@
+package com.github.ylinker.finalreality.controller.scheduler;
+
+import com.github.ylinker.finalreality.model.character.Enemy;
+import com.github.ylinker.finalreality.model.character.ICharacter;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TurnQueueTest {
+    private TurnQueue queue;
+    private long now;
+
+    @BeforeEach
+    void setUp() {
+        now = 0;
+        queue = new TurnQueue(() -> now);
+    }
+
+    private Enemy enemy(String name) {
+        return new Enemy(name, 10, 10, 10, 10);
+    }
+
+    @Test
+    void readyTimeOrderTest() {
+        Enemy late = enemy("late");
+        Enemy early = enemy("early");
+        Enemy middle = enemy("middle");
+        queue.add(late, 30);
+        queue.add(early, 10);
+        queue.add(middle, 20);
+        assertEquals(3, queue.size());
+        assertEquals(early, queue.peek());
+        assertEquals(early, queue.poll());
+        assertEquals(middle, queue.poll());
+        assertEquals(late, queue.poll());
+        assertNull(queue.poll());
+        assertTrue(queue.isEmpty());
+    }
+
+    @Test
+    void stableTieTest() {
+        List<ICharacter> characters = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            characters.add(enemy("enemy" + i));
+        }
+        now = 5;
+        queue.addAll(characters);
+        for (ICharacter character : characters) {
+            assertEquals(character, queue.poll());
+        }
+    }
+
+    @Test
+    void removeTest() {
+        // Same name and weight, but still different characters
+        Enemy first = enemy("twin");
+        Enemy second = enemy("twin");
+        queue.add(first, 1);
+        queue.add(second, 2);
+        assertFalse(queue.add(first, 3));
+        assertTrue(queue.remove(first));
+        assertFalse(queue.remove(first));
+        assertFalse(queue.contains(first));
+        assertTrue(queue.contains(second));
+        assertEquals(second, queue.poll());
+    }
+
+    @Test
+    void randomOperationsTest() {
+        Random random = new Random(3002);
+        List<Enemy> all = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            Enemy e = enemy("e" + i);
+            all.add(e);
+            queue.add(e, random.nextInt(50));
+        }
+        for (int i = 0; i < 200; i += 3) {
+            assertTrue(queue.remove(all.get(i)));
+        }
+        List<ICharacter> forecast = queue.peekNextTurns(10);
+        assertEquals(10, forecast.size());
+        assertEquals(forecast.get(0), queue.peek());
+        List<ICharacter> polled = new ArrayList<>();
+        while (!queue.isEmpty()) {
+            polled.add(queue.poll());
+        }
+        assertEquals(200 - 67, polled.size());
+        assertEquals(forecast, polled.subList(0, 10));
+    }
+
+    @Test
+    void peekNextTurnsTest() {
+        assertTrue(queue.peekNextTurns(3).isEmpty());
+        Enemy a = enemy("a");
+        Enemy b = enemy("b");
+        queue.add(b, 2);
+        queue.add(a, 1);
+        assertEquals(List.of(a, b), queue.peekNextTurns(5));
+        assertEquals(List.of(a), queue.peekNextTurns(1));
+        assertTrue(queue.peekNextTurns(0).isEmpty());
+        assertEquals(2, queue.size());
+        queue.clear();
+        assertTrue(queue.isEmpty());
+    }
+}
@@ -0,0 +1,52 @@
+package com.github.ylinker.finalreality.controller.scheduler;
+
+import com.github.ylinker.finalreality.controller.GameController;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TurnSchedulerTest {
+    private TurnScheduler scheduler;
+
+    @BeforeEach
+    void setUp() {
+        scheduler = new TurnScheduler();
+    }
+
+    @Test
+    void scheduleTest() throws InterruptedException {
+        CountDownLatch latch = new CountDownLatch(1);
+        ITurnHandle handle = scheduler.schedule(latch::countDown, 10, TimeUnit.MILLISECONDS);
+        assertTrue(latch.await(1, TimeUnit.SECONDS));
+        Thread.sleep(10);
+        assertTrue(handle.isDone());
+        scheduler.shutdown();
+    }
+
+    @Test
+    void cancelTest() throws InterruptedException {
+        AtomicInteger runs = new AtomicInteger();
+        ITurnHandle handle = scheduler.schedule(runs::incrementAndGet, 100, TimeUnit.MILLISECONDS);
+        assertFalse(handle.isDone());
+        handle.cancel();
+        assertTrue(handle.isDone());
+        Thread.sleep(200);
+        assertEquals(0, runs.get());
+        // Cancelling twice does nothing
+        handle.cancel();
+        scheduler.shutdown();
+    }
+
+    @Test
+    void sharedSchedulerTest() {
+        assertSame(TurnScheduler.getSharedInstance(), TurnScheduler.getSharedInstance());
+        assertSame(TurnScheduler.getSharedInstance(), new GameController().getScheduler());
+        assertSame(scheduler, new GameController(scheduler).getScheduler());
+        scheduler.shutdown();
+    }
+}
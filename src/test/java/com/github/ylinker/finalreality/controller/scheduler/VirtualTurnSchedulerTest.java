@@ -0,0 +1,152 @@
+package com.github.ylinker.finalreality.controller.scheduler;
+
+import com.github.ylinker.finalreality.controller.GameController;
+import com.github.ylinker.finalreality.controller.NullScene;
+import com.github.ylinker.finalreality.model.character.Enemy;
+import com.github.ylinker.finalreality.model.character.ICharacter;
+import com.github.ylinker.finalreality.model.character.IPlayerCharacter;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class VirtualTurnSchedulerTest {
+    private VirtualTurnScheduler scheduler;
+    private List<String> runs;
+
+    @BeforeEach
+    void setUp() {
+        scheduler = new VirtualTurnScheduler(false);
+        runs = new ArrayList<>();
+    }
+
+    @Test
+    void runNextTest() {
+        scheduler.schedule(() -> runs.add("late"), 2, TimeUnit.SECONDS);
+        scheduler.schedule(() -> runs.add("first"), 1, TimeUnit.SECONDS);
+        scheduler.schedule(() -> runs.add("second"), 1, TimeUnit.SECONDS);
+        assertEquals(3, scheduler.getPendingTurns());
+        assertEquals(0, scheduler.currentTime());
+        assertTrue(scheduler.runNext());
+        assertEquals(TimeUnit.SECONDS.toNanos(1), scheduler.currentTime());
+        assertTrue(scheduler.runNext());
+        assertEquals(TimeUnit.SECONDS.toNanos(1), scheduler.currentTime());
+        assertTrue(scheduler.runNext());
+        assertEquals(TimeUnit.SECONDS.toNanos(2), scheduler.currentTime());
+        assertFalse(scheduler.runNext());
+        assertEquals(List.of("first", "second", "late"), runs);
+    }
+
+    @Test
+    void advanceByTest() {
+        scheduler.schedule(() -> runs.add("first"), 1, TimeUnit.SECONDS);
+        scheduler.schedule(() -> runs.add("second"), 2, TimeUnit.SECONDS);
+        scheduler.advanceBy(1500, TimeUnit.MILLISECONDS);
+        assertEquals(List.of("first"), runs);
+        assertEquals(TimeUnit.MILLISECONDS.toNanos(1500), scheduler.currentTime());
+        scheduler.advanceBy(500, TimeUnit.MILLISECONDS);
+        assertEquals(List.of("first", "second"), runs);
+    }
+
+    @Test
+    void cancelTest() {
+        ITurnHandle handle = scheduler.schedule(() -> runs.add("cancelled"), 1, TimeUnit.SECONDS);
+        scheduler.schedule(() -> runs.add("kept"), 2, TimeUnit.SECONDS);
+        handle.cancel();
+        assertTrue(handle.isDone());
+        assertEquals(1, scheduler.getPendingTurns());
+        scheduler.advanceBy(3, TimeUnit.SECONDS);
+        assertEquals(List.of("kept"), runs);
+    }
+
+    @Test
+    void idleTest() {
+        scheduler.schedule(() -> runs.add("turn"), 1, TimeUnit.SECONDS);
+        // A manual clock doesn't move when the controller is idle
+        assertFalse(scheduler.onIdle());
+        VirtualTurnScheduler eventScheduler = new VirtualTurnScheduler();
+        eventScheduler.schedule(() -> runs.add("turn"), 1, TimeUnit.SECONDS);
+        assertTrue(eventScheduler.onIdle());
+        assertFalse(eventScheduler.onIdle());
+        assertEquals(List.of("turn"), runs);
+    }
+
+    @Test
+    void discreteEventBattleTest() {
+        GameController controller = new GameController(new VirtualTurnScheduler());
+        List<ICharacter> turns = new ArrayList<>();
+        controller.setScene(new NullScene());
+        controller.createKnight("knight", 100, 10, 10);
+        controller.createEnemy("enemy", 100, 15, 5, 30);
+        IPlayerCharacter knight = controller.getCharacters().get(0);
+        Enemy enemy = controller.getEnemies().get(0);
+        controller.waitTurn(knight);
+        controller.waitTurn(enemy);
+        // No one is ready, so the clock jumps to the knight's turn at 1 second
+        controller.beginTurn();
+        for (int i = 0; i < 6; i++) {
+            ICharacter current = controller.getCurrentTurnCharacter();
+            turns.add(current);
+            if (current == knight) {
+                controller.toAttackPhase();
+                controller.tryToAttack(enemy);
+            } else {
+                controller.tryToAttack(knight);
+            }
+            controller.toBeginTurnPhase();
+        }
+        // The knight plays every second and the enemy every 3 seconds.
+        // On a tie, the character that started waiting first goes first
+        assertEquals(List.of(knight, knight, enemy, knight, knight, knight), turns);
+        assertEquals(enemy, controller.getCurrentTurnCharacter());
+        assertEquals(TimeUnit.SECONDS.toNanos(6), controller.getScheduler().currentTime());
+    }
+
+    @Test
+    void duplicateNameTurnsTest() {
+        GameController controller = new GameController(new VirtualTurnScheduler());
+        controller.setScene(new NullScene());
+        controller.createKnight("knight", 1000, 1, 10);
+        // Two enemies that are equal, they still have their own turns
+        controller.createEnemy("Goblin", 1000, 1, 5, 20);
+        controller.createEnemy("Goblin", 1000, 1, 5, 20);
+        IPlayerCharacter knight = controller.getCharacters().get(0);
+        Enemy goblin = controller.getEnemies().get(0);
+        int[] turns = new int[3];
+        controller.initTurns();
+        for (int i = 0; i < 20; i++) {
+            ICharacter current = controller.getCurrentTurnCharacter();
+            turns[current.getId()]++;
+            if (current == knight) {
+                controller.toAttackPhase();
+                controller.tryToAttack(goblin);
+            } else {
+                controller.tryToAttack(knight);
+            }
+            controller.toBeginTurnPhase();
+        }
+        // The knight plays every second and every goblin every 2 seconds
+        assertEquals(10, turns[0], 1);
+        assertEquals(5, turns[1], 1);
+        assertEquals(5, turns[2], 1);
+    }
+
+    @Test
+    void waitAgainTest() {
+        VirtualTurnScheduler clock = new VirtualTurnScheduler(false);
+        GameController controller = new GameController(clock);
+        controller.setScene(new NullScene());
+        controller.createEnemy("enemy", 100, 10, 5, 20);
+        Enemy enemy = controller.getEnemies().get(0);
+        controller.waitTurn(enemy);
+        controller.waitTurn(enemy);
+        // Only the last turn stays on the scheduler
+        assertEquals(1, clock.getPendingTurns());
+        controller.stopTurns();
+        assertEquals(0, clock.getPendingTurns());
+    }
+}
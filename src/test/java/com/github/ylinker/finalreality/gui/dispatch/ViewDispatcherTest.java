@@ -0,0 +1,129 @@
+package com.github.ylinker.finalreality.gui.dispatch;
+
+import com.github.ylinker.finalreality.metrics.MetricsRegistry;
+import com.github.ylinker.finalreality.metrics.MetricsSnapshot;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ViewDispatcherTest {
+    private List<Runnable> tasks;
+    private MetricsRegistry registry;
+    private ViewDispatcher dispatcher;
+
+    @BeforeEach
+    void setUp() {
+        tasks = new ArrayList<>();
+        registry = new MetricsRegistry();
+        dispatcher = new ViewDispatcher(tasks::add, registry);
+    }
+
+    @Test
+    void batchTest() {
+        List<String> applied = new ArrayList<>();
+        dispatcher.submit(() -> applied.add("a"));
+        dispatcher.submit(() -> applied.add("b"));
+        dispatcher.submit(() -> applied.add("c"));
+        // A single task applies the whole batch, in order
+        assertEquals(1, tasks.size());
+        assertEquals(3, dispatcher.getDepth());
+        assertTrue(applied.isEmpty());
+        tasks.remove(0).run();
+        assertEquals(List.of("a", "b", "c"), applied);
+        assertEquals(0, dispatcher.getDepth());
+
+        dispatcher.submit(() -> applied.add("d"));
+        assertEquals(1, tasks.size());
+        MetricsSnapshot snapshot = registry.snapshot();
+        assertEquals(4, snapshot.getCounter("gui.dispatch.submitted"));
+        assertEquals(1, snapshot.getCounter("gui.dispatch.batches"));
+        assertEquals(1, snapshot.getCounter("gui.dispatch.depth"));
+        assertEquals(3, snapshot.getHistogram("gui.dispatch.latency").getCount());
+        assertEquals(1, snapshot.getHistogram("gui.dispatch.apply.time").getCount());
+    }
+
+    @Test
+    void collapseTest() {
+        List<String> applied = new ArrayList<>();
+        dispatcher.submit("center", () -> applied.add("waiting"));
+        dispatcher.submit(List.of("roster", 1), () -> applied.add("health 10"));
+        dispatcher.submit("center", () -> applied.add("turn"));
+        dispatcher.submit(List.of("roster", 1), () -> applied.add("health 5"));
+        dispatcher.submit(List.of("roster", 2), () -> applied.add("other"));
+        assertEquals(3, dispatcher.getDepth());
+        tasks.remove(0).run();
+        // The last command of every key is applied where it was submitted
+        assertEquals(List.of("turn", "health 5", "other"), applied);
+        assertTrue(tasks.isEmpty());
+        MetricsSnapshot snapshot = registry.snapshot();
+        assertEquals(5, snapshot.getCounter("gui.dispatch.submitted"));
+        assertEquals(2, snapshot.getCounter("gui.dispatch.collapsed"));
+        assertEquals(0, snapshot.getCounter("gui.dispatch.depth"));
+    }
+
+    @Test
+    void reentrantTest() {
+        List<String> applied = new ArrayList<>();
+        dispatcher.submit("center", () -> {
+            applied.add("first");
+            dispatcher.submit("center", () -> applied.add("second"));
+        });
+        tasks.remove(0).run();
+        // What a command submits is applied by the next batch
+        assertEquals(List.of("first"), applied);
+        assertEquals(1, tasks.size());
+        tasks.remove(0).run();
+        assertEquals(List.of("first", "second"), applied);
+    }
+
+    @Test
+    void failureTest() {
+        List<String> applied = new ArrayList<>();
+        dispatcher.submit(() -> {
+            throw new IllegalStateException();
+        });
+        dispatcher.submit(() -> applied.add("after"));
+        assertThrows(IllegalStateException.class, () -> tasks.remove(0).run());
+        assertEquals(List.of("after"), applied);
+        assertEquals(0, dispatcher.getDepth());
+    }
+
+    @Test
+    void concurrentTest() throws InterruptedException {
+        ExecutorService view = Executors.newSingleThreadExecutor();
+        ExecutorService submitters = Executors.newFixedThreadPool(4);
+        ViewDispatcher concurrent = new ViewDispatcher(view, registry);
+        int[] values = new int[4];
+        CountDownLatch done = new CountDownLatch(4);
+        for (int thread = 0; thread < 4; thread++) {
+            int key = thread;
+            submitters.execute(() -> {
+                for (int i = 1; i <= 10000; i++) {
+                    int value = i;
+                    // Only touched by the view's thread
+                    concurrent.submit(key, () -> values[key] = value);
+                }
+                done.countDown();
+            });
+        }
+        assertTrue(done.await(10, TimeUnit.SECONDS));
+        submitters.shutdown();
+        view.shutdown();
+        assertTrue(view.awaitTermination(10, TimeUnit.SECONDS));
+        assertArrayEquals(new int[]{10000, 10000, 10000, 10000}, values);
+        assertEquals(0, concurrent.getDepth());
+        MetricsSnapshot snapshot = registry.snapshot();
+        assertEquals(0, snapshot.getCounter("gui.dispatch.depth"));
+        assertEquals(40000, snapshot.getCounter("gui.dispatch.submitted"));
+        assertEquals(40000 - snapshot.getCounter("gui.dispatch.collapsed"),
+                snapshot.getHistogram("gui.dispatch.latency").getCount());
+    }
+}
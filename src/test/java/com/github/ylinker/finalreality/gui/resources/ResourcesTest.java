@@ -0,0 +1,60 @@
+package com.github.ylinker.finalreality.gui.resources;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ResourcesTest {
+    private Resources resources;
+
+    @BeforeEach
+    void setUp() {
+        resources = new Resources(Resources.class, Paths.get(Resources.SOURCE_PATH));
+    }
+
+    @Test
+    void getBytesTest() throws IOException {
+        assertFalse(resources.isLoaded("enemy.png"));
+        byte[] bytes = resources.getBytes("enemy.png");
+        assertArrayEquals(Files.readAllBytes(Paths.get(Resources.SOURCE_PATH, "enemy.png")), bytes);
+        assertTrue(resources.isLoaded("enemy.png"));
+        // The file is only read once
+        assertSame(bytes, resources.getBytes("enemy.png"));
+        try (InputStream input = resources.open("enemy.png")) {
+            assertTrue(input.markSupported());
+            assertArrayEquals(bytes, input.readAllBytes());
+        }
+    }
+
+    @Test
+    void missingTest() {
+        assertThrows(FileNotFoundException.class, () -> resources.getBytes("missing.png"));
+        assertFalse(resources.isLoaded("missing.png"));
+        assertThrows(FileNotFoundException.class, () -> resources.open("missing.png"));
+    }
+
+    @Test
+    void sourceTreeTest() throws IOException {
+        // A class of another package doesn't have the resources next to it, so they come from the source tree
+        Resources source = new Resources(ResourcesTest.class.getSuperclass(), Paths.get(Resources.SOURCE_PATH));
+        assertArrayEquals(resources.getBytes("Knight.gif"), source.getBytes("Knight.gif"));
+    }
+
+    @Test
+    void preloadTest() {
+        List<String> names = List.of("enemy.png", "weapon1.png", "Knight.gif", "endScreen.png", "missing.wav");
+        resources.preload(names).join();
+        for (String name : names.subList(0, 4)) {
+            assertTrue(resources.isLoaded(name));
+        }
+        assertFalse(resources.isLoaded("missing.wav"));
+    }
+}
@@ -0,0 +1,134 @@
+package com.github.ylinker.finalreality.host;
+
+import com.github.ylinker.finalreality.controller.BattleRandom;
+import com.github.ylinker.finalreality.controller.scheduler.ITurnHandle;
+import com.github.ylinker.finalreality.controller.scheduler.ITurnScheduler;
+import com.github.ylinker.finalreality.controller.scheduler.TurnScheduler;
+import com.github.ylinker.finalreality.simulator.BattleSpec;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Load test of a host serving 10000 battles at the same time, played by a few client threads
+ */
+public class BattleHostLoadTest {
+    private static final int SESSIONS = 10_000;
+    private static final int CLIENTS = 4;
+
+    private TurnScheduler timers;
+    private ForkJoinPool enemyTurns;
+    private ExecutorService clients;
+    private BattleHost host;
+
+    /**
+     * Shares real timer threads, but every second of delay only takes a millisecond
+     */
+    private static class FastScheduler implements ITurnScheduler {
+        private final ITurnScheduler delegate;
+
+        private FastScheduler(ITurnScheduler delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public ITurnHandle schedule(Runnable command, long delay, TimeUnit unit) {
+            return delegate.schedule(command, unit.toMicros(delay), TimeUnit.NANOSECONDS);
+        }
+
+        @Override
+        public long currentTime() {
+            return delegate.currentTime();
+        }
+
+        @Override
+        public void shutdown() {
+            delegate.shutdown();
+        }
+    }
+
+    @BeforeEach
+    void setUp() {
+        timers = new TurnScheduler(2);
+        enemyTurns = new ForkJoinPool(4);
+        clients = Executors.newFixedThreadPool(CLIENTS);
+        host = new BattleHost(new FastScheduler(timers), enemyTurns)
+                .setMaxSessions(SESSIONS);
+    }
+
+    @AfterEach
+    void tearDown() {
+        host.shutdown();
+        clients.shutdownNow();
+        enemyTurns.shutdownNow();
+        timers.shutdown();
+    }
+
+    @Test
+    void tenThousandSessionsTest() throws Exception {
+        BattleSpec spec = new BattleSpec()
+                .addKnight("knight", 200, 20, 5)
+                .addThief("thief", 150, 15, 5)
+                .addSword("sword", 10, 10)
+                .addEnemy("goblin", 60, 12, 4, 15)
+                .addEnemy("orc", 80, 14, 5, 25);
+        BattleRandom seeds = new BattleRandom(2020);
+        List<BattleSession> sessions = new ArrayList<>();
+        for (int i = 0; i < SESSIONS; i++) {
+            sessions.add(host.createSession(spec, seeds.split()));
+        }
+        assertEquals(SESSIONS, host.getMetrics().getLiveSessions());
+
+        List<Future<?>> results = new ArrayList<>();
+        for (int client = 0; client < CLIENTS; client++) {
+            List<BattleSession> mine = sessions.subList(client * SESSIONS / CLIENTS, (client + 1) * SESSIONS / CLIENTS);
+            results.add(clients.submit(() -> play(mine)));
+        }
+        for (Future<?> result : results) {
+            result.get(2, TimeUnit.MINUTES);
+        }
+
+        HostMetrics metrics = host.getMetrics();
+        assertEquals(SESSIONS, metrics.getBattlesWon() + metrics.getBattlesLost());
+        assertEquals(SESSIONS, metrics.getLiveSessions());
+        assertTrue(metrics.getTurns() >= 2L * SESSIONS);
+        assertTrue(metrics.getTurnsPerSecond() > 0);
+        assertTrue(metrics.getTurnLatency().getPercentile(0.99) > 0);
+        String summary = metrics.summary();
+        assertTrue(summary.contains("Live sessions: " + SESSIONS + " (" + SESSIONS + " created, 0 evicted)"));
+        assertTrue(summary.contains("Battles: " + metrics.getBattlesWon() + " won, " +
+                metrics.getBattlesLost() + " lost"));
+        assertTrue(summary.contains("Turns: " + metrics.getTurns() + " ("));
+
+        host.shutdown();
+        assertEquals(0, metrics.getLiveSessions());
+    }
+
+    private static void play(List<BattleSession> sessions) {
+        int finished = 0;
+        while (finished < sessions.size()) {
+            finished = 0;
+            for (BattleSession session : sessions) {
+                if (session.getOutcome() != null) {
+                    finished++;
+                } else {
+                    session.playTurn(controller -> {
+                        controller.toAttackPhase();
+                        controller.tryToAttack(controller.getEnemies().get(0));
+                    });
+                }
+            }
+            Thread.yield();
+        }
+    }
+}
@@ -0,0 +1,130 @@
+package com.github.ylinker.finalreality.host;
+
+import com.github.ylinker.finalreality.controller.BattleRandom;
+import com.github.ylinker.finalreality.controller.GameController;
+import com.github.ylinker.finalreality.controller.scheduler.VirtualTurnScheduler;
+import com.github.ylinker.finalreality.simulator.BattleOutcome;
+import com.github.ylinker.finalreality.simulator.BattleSpec;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayDeque;
+import java.util.Queue;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class BattleHostTest {
+    private VirtualTurnScheduler scheduler;
+    private Queue<Runnable> enemyTurns;
+    private BattleHost host;
+
+    @BeforeEach
+    void setUp() {
+        scheduler = new VirtualTurnScheduler(false);
+        enemyTurns = new ArrayDeque<>();
+        host = new BattleHost(scheduler, enemyTurns::add)
+                .setIdleTimeout(10, TimeUnit.SECONDS)
+                .setMaxSessions(3)
+                .setMaxEntriesPerSession(4);
+    }
+
+    private static BattleSpec spec() {
+        return new BattleSpec()
+                .addKnight("knight", 100, 20, 5)
+                .addSword("sword", 10, 10)
+                .addEnemy("goblin", 30, 10, 0, 10);
+    }
+
+    private void runEnemyTurns() {
+        while (!enemyTurns.isEmpty()) {
+            enemyTurns.poll().run();
+        }
+    }
+
+    @Test
+    void playBattleTest() {
+        BattleSession session = host.createSession(spec(), new BattleRandom(1));
+        assertSame(session, host.getSession(session.getId()));
+        while (session.getOutcome() == null) {
+            runEnemyTurns();
+            if (!session.playTurn(controller -> {
+                controller.toAttackPhase();
+                controller.tryToAttack(controller.getEnemies().get(0));
+            })) {
+                scheduler.runNext();
+            }
+        }
+        assertEquals(BattleOutcome.WON, session.getOutcome());
+        assertFalse(session.playTurn(controller -> fail("The battle is over")));
+        HostMetrics metrics = host.getMetrics();
+        assertEquals(1, metrics.getBattlesWon());
+        assertTrue(metrics.getTurns() >= 2);
+        assertTrue(metrics.getTurnLatency().getPercentile(0.99) > 0);
+        assertEquals(1, metrics.getLiveSessions());
+    }
+
+    @Test
+    void limitsTest() {
+        assertThrows(IllegalArgumentException.class, () -> host.createSession(spec()
+                .addKnife("knife", 5, 5)
+                .addBow("bow", 5, 5)));
+        for (int i = 0; i < 3; i++) {
+            host.createSession(spec());
+        }
+        assertThrows(IllegalStateException.class, () -> host.createSession(spec()));
+        long id = host.getSessions().iterator().next().getId();
+        assertTrue(host.closeSession(id));
+        assertFalse(host.closeSession(id));
+        assertNull(host.getSession(id));
+        host.createSession(spec());
+        assertEquals(3, host.getMetrics().getLiveSessions());
+
+        host.shutdown();
+        assertEquals(0, host.getMetrics().getLiveSessions());
+        assertTrue(host.getSessions().isEmpty());
+        assertThrows(IllegalStateException.class, () -> host.createSession(spec()));
+    }
+
+    @Test
+    void invalidSpecTest() {
+        BattleSpec invalid = new BattleSpec() {
+            @Override
+            public void applyTo(GameController controller) {
+                throw new IllegalArgumentException("Invalid entry");
+            }
+        };
+        // A session that couldn't be created doesn't keep its slot
+        for (int i = 0; i < 5; i++) {
+            assertThrows(IllegalArgumentException.class, () -> host.createSession(invalid));
+        }
+        for (int i = 0; i < 3; i++) {
+            host.createSession(spec());
+        }
+        assertEquals(3, host.getMetrics().getLiveSessions());
+    }
+
+    @Test
+    void evictionTest() {
+        BattleSession active = host.createSession(spec());
+        BattleSession idle = host.createSession(spec());
+        runEnemyTurns();
+        scheduler.advanceBy(6, TimeUnit.SECONDS);
+        runEnemyTurns();
+        assertTrue(active.playTurn(controller -> controller.toAttackPhase()));
+        scheduler.advanceBy(6, TimeUnit.SECONDS);
+
+        assertEquals(1, host.evictIdleSessions());
+        assertNull(host.getSession(idle.getId()));
+        assertSame(active, host.getSession(active.getId()));
+        // The evicted battle doesn't get any more turns
+        assertNull(idle.getController().getCurrentTurnCharacter());
+        assertEquals(0, idle.getController().getQueue().size());
+        assertEquals(1, host.getMetrics().getSessionsEvicted());
+
+        host.startEviction();
+        scheduler.advanceBy(20, TimeUnit.SECONDS);
+        assertTrue(host.getSessions().isEmpty());
+        assertEquals(2, host.getMetrics().getSessionsEvicted());
+    }
+}
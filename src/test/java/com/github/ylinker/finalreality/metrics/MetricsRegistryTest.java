@@ -0,0 +1,35 @@
+package com.github.ylinker.finalreality.metrics;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class MetricsRegistryTest {
+
+    @Test
+    void snapshotTest() {
+        MetricsRegistry registry = new MetricsRegistry();
+        assertSame(registry.getCounter("a"), registry.getCounter("a"));
+        assertSame(registry.getHistogram("h"), registry.getHistogram("h"));
+        registry.getCounter("a").add(3);
+        registry.getCounter("b").increment();
+        registry.getHistogram("h").record(1000);
+        registry.getHistogram("h").record(3000);
+
+        MetricsSnapshot snapshot = registry.snapshot();
+        registry.getCounter("a").increment();
+        // The snapshot doesn't change after it's taken
+        assertEquals(3, snapshot.getCounter("a"));
+        assertEquals(1, snapshot.getCounter("b"));
+        assertEquals(0, snapshot.getCounter("missing"));
+        assertNull(snapshot.getHistogram("missing"));
+        HistogramSnapshot histogram = snapshot.getHistogram("h");
+        assertEquals(2, histogram.getCount());
+        assertEquals(2000, histogram.getMean(), 0.001);
+        assertEquals(3000, histogram.getMax());
+        assertTrue(histogram.getMedian() >= 1000 && histogram.getMedian() <= 1000 * 17 / 16);
+        assertEquals(3000, histogram.getP99());
+        assertTrue(snapshot.summary().startsWith("a 3\nb 1\nh count=2"));
+        assertEquals(4, registry.snapshot().getCounter("a"));
+    }
+}
@@ -0,0 +1,66 @@
+package com.github.ylinker.finalreality.simulator;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class BattleSimulatorTest {
+
+    @Test
+    void overpoweredPartyTest() {
+        BattleSpec spec = new BattleSpec()
+                .addKnight("knight", 1000, 0, 50)
+                .addSword("sword", 100, 10)
+                .addEnemy("enemy", 10, 5, 0, 30);
+        SimulationResult result = new BattleSimulator(spec).run(0, 99, 4);
+        assertEquals(100, result.getBattles());
+        assertEquals(100, result.getWins());
+        assertEquals(1.0, result.getWinRate());
+        assertTrue(result.getTurnsPerBattle() >= 1);
+    }
+
+    @Test
+    void timeoutTest() {
+        // Nobody can hurt anybody
+        BattleSpec spec = new BattleSpec()
+                .addKnight("knight", 100, 0, 1000)
+                .addEnemy("enemy", 100, 10, 1000, 10);
+        SimulationResult result = new BattleSimulator(spec, 50).run(1, 10, 2);
+        assertEquals(10, result.getTimeouts());
+        assertEquals(50.0, result.getTurnsPerBattle());
+    }
+
+    @Test
+    void countsTest() {
+        BattleSpec spec = BattleSpec.parse(Arrays.asList(
+                "# a fair fight",
+                "knight Arthur 50 10 5",
+                "thief Robin 30 8 3",
+                "",
+                "sword Excalibur 20 10",
+                "knife Dagger 12 5",
+                "enemy Goblin 40 12 4 15",
+                "enemy Orc 60 15 6 25"));
+        SimulationResult result = new BattleSimulator(spec).run(0, 199, 3);
+        assertEquals(200, result.getBattles());
+        assertEquals(200, result.getWins() + result.getLosses() + result.getTimeouts());
+        // Same seeds give the same battles on a single thread
+        SimulationResult single = new BattleSimulator(spec).run(0, 199, 1);
+        assertEquals(result.getBattles(), single.getBattles());
+        assertEquals(result.getWins(), single.getWins());
+        assertEquals(result.getLosses(), single.getLosses());
+        assertEquals(result.getTurns(), single.getTurns());
+    }
+
+    @Test
+    void invalidSpecTest() {
+        assertThrows(IllegalArgumentException.class,
+                () -> BattleSpec.parse(Arrays.asList("dragon Smaug 10 10 10")));
+        assertThrows(IllegalArgumentException.class,
+                () -> BattleSpec.parse(Arrays.asList("knight Arthur 10 ten 10")));
+        assertThrows(IllegalArgumentException.class,
+                () -> BattleSpec.parse(Arrays.asList("sword Excalibur 10")));
+    }
+}
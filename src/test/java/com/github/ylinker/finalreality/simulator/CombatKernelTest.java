@@ -0,0 +1,96 @@
+package com.github.ylinker.finalreality.simulator;
+
+import com.github.ylinker.finalreality.controller.GameController;
+import com.github.ylinker.finalreality.controller.NullScene;
+import com.github.ylinker.finalreality.controller.scheduler.VirtualTurnScheduler;
+import com.github.ylinker.finalreality.model.character.Enemy;
+import com.github.ylinker.finalreality.model.character.ICharacter;
+import com.github.ylinker.finalreality.model.character.IPlayerCharacter;
+import com.github.ylinker.finalreality.model.character.player.common.Knight;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CombatKernelTest {
+
+    @Test
+    void sameRulesAsCharactersTest() {
+        Random random = new Random(3);
+        CombatKernel kernel = new CombatKernel(2);
+        ICharacter[] characters = new ICharacter[50];
+        for (int i = 0; i < characters.length; i++) {
+            int health = random.nextInt(100) + 1;
+            int attack = random.nextInt(30);
+            int defense = random.nextInt(20);
+            characters[i] = i % 2 == 0 ?
+                    new Knight("knight " + i, health, attack, defense) :
+                    new Enemy("enemy " + i, health, attack, defense, 10);
+            assertEquals(i, kernel.add(health, attack, defense, characters[i].getWeight()));
+        }
+        assertEquals(characters.length, kernel.size());
+        for (int i = 0; i < 2000; i++) {
+            int attacker = random.nextInt(characters.length);
+            int defender = random.nextInt(characters.length);
+            assertEquals(characters[attacker].attack(characters[defender]), kernel.attack(attacker, defender));
+        }
+        for (int i = 0; i < characters.length; i++) {
+            assertEquals(characters[i].getHealth(), kernel.getHealth(i));
+            assertEquals(characters[i].isAlive(), kernel.isAlive(i));
+        }
+    }
+
+    @Test
+    void attackAllTest() {
+        CombatKernel kernel = new CombatKernel();
+        int strong = kernel.add(10, 30, 5, 10);
+        int weak = kernel.add(20, 8, 0, 10);
+        int wall = kernel.add(50, 0, 100, 10);
+        int[] attackers = {weak, strong, weak, strong};
+        int[] defenders = {strong, weak, wall, wall};
+        int[] damages = new int[4];
+        assertEquals(33, kernel.attackAll(attackers, defenders, 4, damages));
+        // The weak unit dies before its second attack
+        assertArrayEquals(new int[]{3, 30, -1, 0}, damages);
+        assertEquals(7, kernel.getHealth(strong));
+        assertEquals(0, kernel.getHealth(weak));
+        assertEquals(50, kernel.getHealth(wall));
+        assertEquals(2, kernel.countAlive(0, kernel.size()));
+        assertEquals(0, kernel.attackAll(attackers, defenders, 0, null));
+    }
+
+    @Test
+    void adapterTest() {
+        GameController controller = new GameController(new VirtualTurnScheduler());
+        controller.setScene(new NullScene());
+        controller.createKnight("knight", 30, 10, 5);
+        controller.createThief("thief", 20, 8, 2);
+        controller.createSword("sword", 10, 10);
+        controller.equip(controller.getCharacters().get(0), controller.getInventory().get(0));
+        controller.createEnemy("enemy", 15, 12, 4, 10);
+        IPlayerCharacter knight = controller.getCharacters().get(0);
+        IPlayerCharacter thief = controller.getCharacters().get(1);
+        Enemy enemy = controller.getEnemies().get(0);
+
+        CombatKernelAdapter adapter = new CombatKernelAdapter(controller);
+        CombatKernel kernel = adapter.getKernel();
+        assertEquals(2, adapter.getPlayerCount());
+        assertEquals(1, adapter.getEnemyCount());
+        assertEquals(0, adapter.indexOf(knight));
+        assertEquals(2, adapter.indexOf(enemy));
+        assertSame(thief, adapter.getCharacter(1));
+        assertEquals(20, kernel.getAttack(0));
+
+        assertEquals(10, kernel.attack(adapter.indexOf(enemy), adapter.indexOf(thief)));
+        assertEquals(16, kernel.attack(adapter.indexOf(knight), adapter.indexOf(enemy)));
+        // Nothing changes in the game until the results are written back
+        assertEquals(15, enemy.getHealth());
+        adapter.writeBack();
+        assertEquals(10, thief.getHealth());
+        assertEquals(30, knight.getHealth());
+        assertFalse(enemy.isAlive());
+        assertTrue(controller.getEnemies().isEmpty());
+        assertTrue(controller.winCondition());
+    }
+}